@@ -32,6 +32,7 @@
 package org.tectuinno.P10Soft.app;
 
 import java.awt.EventQueue;
+import java.util.Arrays;
 
 import javax.swing.UIManager;
 
@@ -43,6 +44,12 @@ import org.tectuinno.P10Soft.app.view.StartingWindow;
 public class App {
     public static void main(String[] args) {
     	
+    	// debe ir antes de tocar Swing para no cargar AWT
+    	if (args.length > 0 && args[0].equals("--headless")) {
+    		HeadlessPlayer.main(Arrays.copyOfRange(args, 1, args.length));
+    		return;
+    	}
+    	
     	try {    		
     		UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
     	}catch (Exception e) {
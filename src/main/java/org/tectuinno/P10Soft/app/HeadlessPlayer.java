@@ -0,0 +1,319 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.tectuinno.P10Soft.app.core.FrameSequence;
+import org.tectuinno.P10Soft.app.io.FrameSink;
+import org.tectuinno.P10Soft.app.io.PlaybackEngine;
+import org.tectuinno.P10Soft.app.io.SerialSession;
+import org.tectuinno.P10Soft.app.io.SerialTransmitter;
+
+/**
+ * Plays a saved sequence on a board without any user interface.
+ * <p>
+ * Meant for kiosks that only replay a fixed show: it loads a {@code .p10s}
+ * file, opens the port and runs the {@link PlaybackEngine}, printing
+ * statistics periodically. Only the core and io packages are used, so no AWT
+ * or Swing class is loaded and no display is needed. Started through
+ * {@code App --headless ...} or directly as a main class.
+ * </p>
+ * <p>
+ * On Ctrl+C the shutdown hook interrupts the main thread, which stops the
+ * engine, prints the final statistics and closes the port; the hook waits for
+ * that before the JVM halts.
+ * </p>
+ */
+public final class HeadlessPlayer {
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Uso: --headless --port PUERTO [opciones] secuencia.p10s",
+			"  --port PUERTO     puerto serie de la placa (p. ej. COM3, ttyUSB0)",
+			"  --fps N           frames por segundo (por defecto 10)",
+			"  --loop            repetir la secuencia indefinidamente",
+			"  --delta N         transmisión delta con un keyframe cada N frames",
+			"  --stats S         segundos entre estadísticas, 0 para desactivarlas (por defecto 5)",
+			"  --list-ports      mostrar los puertos disponibles y salir",
+			"  --help            mostrar esta ayuda");
+
+	/** Longest the shutdown hook waits for the port to be closed */
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+	/**
+	 * Parsed command line
+	 */
+	static final class Options {
+
+		String port;
+		Path file;
+		double fps = 10;
+		boolean loop;
+		int deltaKeyframeInterval = -1;
+		int statsSeconds = 5;
+		boolean listPorts;
+		boolean help;
+	}
+
+	private HeadlessPlayer() {
+	}
+
+	public static void main(String[] args) {
+		System.exit(run(args, System.out, System.err));
+	}
+
+	/**
+	 * @param args command line, without {@code --headless}
+	 * @param out
+	 * @param err
+	 * @return process exit code
+	 */
+	static int run(String[] args, PrintStream out, PrintStream err) {
+
+		Options options;
+		try {
+			options = parse(args);
+		} catch (IllegalArgumentException e) {
+			err.println(e.getMessage());
+			err.println(USAGE);
+			return 2;
+		}
+
+		if (options.help) {
+			out.println(USAGE);
+			return 0;
+		}
+		if (options.listPorts) {
+			for (String port : SerialTransmitter.listAviablePorts()) {
+				out.println(port);
+			}
+			return 0;
+		}
+
+		// a bad file must not toggle the port, which resets the board
+		FrameSequence sequence = load(options.file, err);
+		if (sequence == null) {
+			return 1;
+		}
+
+		SerialSession session = new SerialSession(options.port);
+		session.setStateListener((s, state) -> out.println("Puerto " + s.getPortName() + ": " + state));
+		CountDownLatch finished = new CountDownLatch(1);
+		Thread shutdown = shutdownHook(Thread.currentThread(), finished);
+		Runtime.getRuntime().addShutdownHook(shutdown);
+		try {
+			if (!session.open()) {
+				err.println("No se pudo abrir " + options.port + ", reintentando en segundo plano");
+			}
+			return play(options, sequence, session, out, err);
+		} finally {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdown);
+			} catch (IllegalStateException e) {
+				// already shutting down, the hook waits for us
+			}
+			session.close();
+			finished.countDown();
+		}
+	}
+
+	/**
+	 * @param main     thread running {@link #play}
+	 * @param finished released once {@code main} has closed the port
+	 * @return a hook that interrupts {@code main} and waits for it to finish
+	 */
+	static Thread shutdownHook(Thread main, CountDownLatch finished) {
+		return new Thread(() -> {
+			main.interrupt();
+			try {
+				finished.await(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, "p10-headless-shutdown");
+	}
+
+	/**
+	 * @param args
+	 * @return the options
+	 * @throws IllegalArgumentException with a message for the user
+	 */
+	static Options parse(String[] args) {
+
+		Options options = new Options();
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+			case "--port":
+				options.port = value(args, ++i, arg);
+				break;
+			case "--fps":
+				options.fps = number(value(args, ++i, arg), arg);
+				if (!(options.fps >= PlaybackEngine.MIN_FPS && options.fps <= PlaybackEngine.MAX_FPS)) {
+					throw new IllegalArgumentException("FPS fuera de rango: " + options.fps);
+				}
+				break;
+			case "--loop":
+				options.loop = true;
+				break;
+			case "--delta":
+				options.deltaKeyframeInterval = (int) number(value(args, ++i, arg), arg);
+				if (options.deltaKeyframeInterval < 0) {
+					throw new IllegalArgumentException("Intervalo de keyframe negativo");
+				}
+				break;
+			case "--stats":
+				options.statsSeconds = (int) number(value(args, ++i, arg), arg);
+				if (options.statsSeconds < 0) {
+					throw new IllegalArgumentException("Intervalo de estadísticas negativo");
+				}
+				break;
+			case "--list-ports":
+				options.listPorts = true;
+				break;
+			case "--help":
+			case "-h":
+				options.help = true;
+				break;
+			default:
+				if (arg.startsWith("-") || options.file != null) {
+					throw new IllegalArgumentException("Opción no reconocida: " + arg);
+				}
+				options.file = Paths.get(arg);
+			}
+		}
+
+		if (!options.help && !options.listPorts) {
+			if (options.port == null) {
+				throw new IllegalArgumentException("Falta el puerto (--port)");
+			}
+			if (options.file == null) {
+				throw new IllegalArgumentException("Falta el archivo de secuencia");
+			}
+		}
+		return options;
+	}
+
+	/**
+	 * Reads and validates a saved sequence
+	 * @param file
+	 * @param err
+	 * @return the sequence, or null after reporting why it can't be played
+	 */
+	static FrameSequence load(Path file, PrintStream err) {
+
+		FrameSequence sequence;
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+			sequence = FrameSequence.readFrom(in);
+		} catch (IOException e) {
+			err.println("No se pudo leer " + file + ": " + e.getMessage());
+			return null;
+		}
+		if (sequence.isEmpty()) {
+			err.println("La secuencia no tiene frames");
+			return null;
+		}
+		return sequence;
+	}
+
+	/**
+	 * Plays {@code sequence} into {@code sink} until it ends or the calling
+	 * thread is interrupted
+	 * @param options
+	 * @param sequence loaded with {@link #load(Path, PrintStream)}
+	 * @param sink
+	 * @param out
+	 * @param err
+	 * @return process exit code
+	 */
+	static int play(Options options, FrameSequence sequence, FrameSink sink, PrintStream out, PrintStream err) {
+
+		PlaybackEngine engine = new PlaybackEngine(sink);
+		engine.setAsyncWrites(sink.getWriteTimeoutNanos() == 0);
+		engine.setFps(options.fps);
+		engine.setDeltaKeyframeInterval(options.deltaKeyframeInterval);
+		engine.load(sequence.cursor(), null, options.loop);
+
+		out.println("Reproduciendo " + sequence.size() + " frames de " + options.file + " en " + sink.getName()
+				+ " a " + options.fps + " FPS" + (options.loop ? " en bucle" : ""));
+		engine.play();
+
+		long statsNanos = TimeUnit.SECONDS.toNanos(options.statsSeconds);
+		long nextStats = System.nanoTime() + statsNanos;
+		try {
+			while (engine.getState() != PlaybackEngine.State.STOPPED) {
+				Thread.sleep(50);
+				if (statsNanos > 0 && System.nanoTime() - nextStats >= 0) {
+					nextStats += statsNanos;
+					printStatistics(engine, out);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			engine.stop();
+		}
+
+		printStatistics(engine, out);
+		return engine.getFailedFrames() == 0 ? 0 : 3;
+	}
+
+	private static void printStatistics(PlaybackEngine engine, PrintStream out) {
+		out.println("Frames: " + engine.getFramesSent() + " enviados, " + engine.getFailedFrames() + " fallidos, "
+				+ engine.getLateFrames() + " con retraso; jitter medio "
+				+ TimeUnit.NANOSECONDS.toMicros(engine.getMeanJitterNanos()) + " us, máximo "
+				+ TimeUnit.NANOSECONDS.toMicros(engine.getMaxJitterNanos()) + " us");
+	}
+
+	private static String value(String[] args, int index, String option) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Falta el valor de " + option);
+		}
+		return args[index];
+	}
+
+	private static double number(String value, String option) {
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Valor no válido para " + option + ": " + value);
+		}
+	}
+
+}
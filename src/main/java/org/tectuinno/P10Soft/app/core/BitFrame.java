@@ -0,0 +1,195 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.util.Arrays;
+
+/**
+ * Packed 16x32 monochrome frame of a single P10 module.
+ * <p>
+ * Each of the 16 rows is stored as one {@code int} whose most significant bit
+ * is column 0, so a whole panel costs exactly 64 bytes of pixel data. Byte
+ * {@code b} of a row word (counting from the most significant one) holds the
+ * 8-column block {@code b}, which is the same byte the P10-Link expects for that
+ * block, MSB first.
+ * </p>
+ * <p>
+ * The editor, the converter and the transmitter all share this type; the legacy
+ * {@code boolean[16][32]} matrices can be converted with
+ * {@link #fromMatrix(boolean[][])} and {@link #toMatrix()}.
+ * </p>
+ */
+public final class BitFrame {
+
+	public static final int ROWS = 16;
+	public static final int COLS = 32;
+
+	/** Row words, MSB = column 0. Package visible for the encoders. */
+	final int[] rows;
+
+	/**
+	 * Creates an empty (all pixels off) frame
+	 */
+	public BitFrame() {
+		this.rows = new int[ROWS];
+	}
+
+	/**
+	 * Copy constructor
+	 * @param other frame to copy
+	 */
+	public BitFrame(BitFrame other) {
+		this.rows = other.rows.clone();
+	}
+
+	/**
+	 * Builds a frame from the legacy boolean matrix used by the editor
+	 * @param matrix matrix of at most 16x32 cells
+	 * @return the packed frame
+	 * @throws RuntimeException if the matrix is bigger than the panel
+	 */
+	public static BitFrame fromMatrix(boolean[][] matrix) throws RuntimeException {
+
+		if (matrix.length > ROWS) throw new RuntimeException("Matrix data to loong");
+
+		BitFrame frame = new BitFrame();
+		for (int row = 0; row < matrix.length; row++) {
+			if (matrix[row].length > COLS) throw new RuntimeException("Matrix data to loong");
+			int word = 0;
+			for (int col = 0; col < matrix[row].length; col++) {
+				if (matrix[row][col]) {
+					word |= 0x80000000 >>> col;
+				}
+			}
+			frame.rows[row] = word;
+		}
+		return frame;
+	}
+
+	/**
+	 * Expands the frame back into a new {@code boolean[16][32]} matrix
+	 * @return the unpacked matrix
+	 */
+	public boolean[][] toMatrix() {
+		boolean[][] matrix = new boolean[ROWS][COLS];
+		for (int row = 0; row < ROWS; row++) {
+			for (int col = 0; col < COLS; col++) {
+				matrix[row][col] = get(row, col);
+			}
+		}
+		return matrix;
+	}
+
+	public boolean get(int row, int col) {
+		return (rows[row] & mask(col)) != 0;
+	}
+
+	public void set(int row, int col, boolean on) {
+		if (on) {
+			rows[row] |= mask(col);
+		} else {
+			rows[row] &= ~mask(col);
+		}
+	}
+
+	/**
+	 * Flips one pixel
+	 * @param row
+	 * @param col
+	 * @return the new state of the pixel
+	 */
+	public boolean toggle(int row, int col) {
+		rows[row] ^= mask(col);
+		return get(row, col);
+	}
+
+	/**
+	 * Returns the 32 pixels of a row, MSB = column 0
+	 * @param row
+	 * @return
+	 */
+	public int getRow(int row) {
+		return rows[row];
+	}
+
+	public void setRow(int row, int bits) {
+		rows[row] = bits;
+	}
+
+	public void clear() {
+		Arrays.fill(rows, 0);
+	}
+
+	public void copyFrom(BitFrame other) {
+		System.arraycopy(other.rows, 0, rows, 0, ROWS);
+	}
+
+	public BitFrame copy() {
+		return new BitFrame(this);
+	}
+
+	public boolean isEmpty() {
+		for (int word : rows) {
+			if (word != 0) return false;
+		}
+		return true;
+	}
+
+	private static int mask(int col) {
+		if (col < 0 || col >= COLS) throw new IndexOutOfBoundsException("Columna fuera de rango: " + col);
+		return 0x80000000 >>> col;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof BitFrame)) return false;
+		return Arrays.equals(rows, ((BitFrame) obj).rows);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(rows);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(ROWS * (COLS + 1));
+		for (int row = 0; row < ROWS; row++) {
+			for (int col = 0; col < COLS; col++) {
+				sb.append(get(row, col) ? '1' : '0');
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+}
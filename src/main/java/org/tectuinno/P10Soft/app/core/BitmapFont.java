@@ -0,0 +1,416 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Monochrome bitmap font for writing text straight into packed frames.
+ * <p>
+ * Every glyph is packed once when the font is loaded, one left aligned
+ * {@code int} per pixel row, which is the same layout used by
+ * {@link BitFrame} and {@link PanelWall}. Drawing a string is then one shift
+ * and one OR per glyph row (two when the glyph straddles a 32 column word), so
+ * a full line of text is rendered in a few microseconds.
+ * </p>
+ * <p>
+ * Fonts come from the built-in 5x7 font ({@link #getDefault()}) or from BDF
+ * files ({@link #loadBdf(InputStream)}). Glyphs wider than 32 pixels are not
+ * supported.
+ * </p>
+ */
+public final class BitmapFont {
+
+	/** Classic 5x7 LCD font, ASCII 0x20..0x7E, five column bytes per glyph with bit 0 on top */
+	private static final String DEFAULT_COLUMNS =
+			"000000000000005F00000007000700147F147F14242A7F2A12" +
+			"231308646236495522500005030000001C2241000041221C00" +
+			"082A1C2A0808083E0808005030000008080808080060600000" +
+			"20100804023E5149453E00427F400042615149462141454B31" +
+			"1814127F1027454545393C4A49493001710905033649494936" +
+			"064949291E0036360000005636000008142241001414141414" +
+			"41221408000201510906324979413E7E1111117E7F49494936" +
+			"3E414141227F4141221C7F494949417F090901013E41415132" +
+			"7F0808087F00417F41002040413F017F081422417F40404040" +
+			"7F0204027F7F0408107F3E4141413E7F090909063E4151215E" +
+			"7F09192946464949493101017F01013F4040403F1F2040201F" +
+			"7F2018207F63140814630304780403615149454300007F4141" +
+			"020408102041417F0000040201020440404040400001020400" +
+			"20545454787F484444383844444420384444487F3854545418" +
+			"087E090102081454543C7F0804047800447D40002040443D00" +
+			"007F10284400417F40007C041804787C080404783844444438" +
+			"7C14141408081414187C7C080404084854545420043F444020" +
+			"3C4040207C1C2040201C3C4030403C44281028440C5050503C" +
+			"4464544C44000836410000007F000000413608000804081008";
+
+	private static final int DEFAULT_FIRST = 0x20;
+	private static final int DEFAULT_WIDTH = 5;
+	private static final int DEFAULT_HEIGHT = 7;
+
+	private static volatile BitmapFont defaultFont;
+
+	/**
+	 * Pre-packed glyph
+	 */
+	private static final class Glyph {
+
+		/** Pixels from the start of this glyph to the start of the next one */
+		final int advance;
+		/** One word per font row, MSB = leftmost pixel */
+		final int[] rows;
+
+		Glyph(int advance, int[] rows) {
+			this.advance = advance;
+			this.rows = rows;
+		}
+	}
+
+	private final int height;
+	private final Glyph[] ascii = new Glyph[128];
+	private final Map<Integer, Glyph> extended = new HashMap<>();
+	private Glyph fallback;
+
+	private BitmapFont(int height) {
+		if (height < 1) {
+			throw new IllegalArgumentException("Altura de fuente no válida: " + height);
+		}
+		this.height = height;
+	}
+
+	/**
+	 * @return the built-in 5x7 font, 6 pixels per character including spacing
+	 */
+	public static BitmapFont getDefault() {
+		BitmapFont font = defaultFont;
+		if (font == null) {
+			synchronized (BitmapFont.class) {
+				font = defaultFont;
+				if (font == null) {
+					font = createDefault();
+					defaultFont = font;
+				}
+			}
+		}
+		return font;
+	}
+
+	private static BitmapFont createDefault() {
+
+		BitmapFont font = new BitmapFont(DEFAULT_HEIGHT);
+		int glyphs = DEFAULT_COLUMNS.length() / (DEFAULT_WIDTH * 2);
+
+		for (int g = 0; g < glyphs; g++) {
+			int[] rows = new int[DEFAULT_HEIGHT];
+			for (int c = 0; c < DEFAULT_WIDTH; c++) {
+				int index = (g * DEFAULT_WIDTH + c) * 2;
+				int column = Integer.parseInt(DEFAULT_COLUMNS.substring(index, index + 2), 16);
+				for (int r = 0; r < DEFAULT_HEIGHT; r++) {
+					if ((column >>> r & 1) != 0) {
+						rows[r] |= 0x80000000 >>> c;
+					}
+				}
+			}
+			font.put(DEFAULT_FIRST + g, new Glyph(DEFAULT_WIDTH + 1, rows));
+		}
+
+		font.fallback = font.ascii['?'];
+		return font;
+	}
+
+	/**
+	 * Loads a font in Glyph Bitmap Distribution Format. Only the properties
+	 * needed to place the glyphs are read; characters with no encoding are
+	 * skipped.
+	 * 
+	 * @param in BDF text, read until {@code ENDFONT}; the stream is not closed
+	 * @return the packed font
+	 * @throws IOException on read errors
+	 * @throws IllegalArgumentException if the file is malformed or has glyphs
+	 *                                  wider than 32 pixels
+	 */
+	public static BitmapFont loadBdf(InputStream in) throws IOException {
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+
+		BitmapFont font = null;
+		int boundingHeight = 0;
+		int boundingY = 0;
+		int ascent = Integer.MIN_VALUE;
+		int descent = Integer.MIN_VALUE;
+
+		int encoding = -1;
+		int advance = 0;
+		int w = 0, h = 0, xo = 0, yo = 0;
+
+		String line;
+		lines: while ((line = reader.readLine()) != null) {
+
+			String[] t = line.trim().split("\\s+");
+
+			try {
+				switch (t[0]) {
+				case "FONTBOUNDINGBOX":
+					boundingHeight = Integer.parseInt(t[2]);
+					boundingY = Integer.parseInt(t[4]);
+					break;
+				case "FONT_ASCENT":
+					ascent = Integer.parseInt(t[1]);
+					break;
+				case "FONT_DESCENT":
+					descent = Integer.parseInt(t[1]);
+					break;
+				case "STARTCHAR":
+					encoding = -1;
+					advance = 0;
+					w = h = xo = yo = 0;
+					break;
+				case "ENCODING":
+					encoding = Integer.parseInt(t[1]);
+					break;
+				case "DWIDTH":
+					advance = Integer.parseInt(t[1]);
+					break;
+				case "BBX":
+					w = Integer.parseInt(t[1]);
+					h = Integer.parseInt(t[2]);
+					xo = Integer.parseInt(t[3]);
+					yo = Integer.parseInt(t[4]);
+					break;
+				case "BITMAP":
+					if (font == null) {
+						if (ascent == Integer.MIN_VALUE) {
+							ascent = boundingHeight + boundingY;
+						}
+						if (descent == Integer.MIN_VALUE) {
+							descent = -boundingY;
+						}
+						font = new BitmapFont(ascent + descent);
+					}
+					int[] rows = readBitmap(reader, font.height, ascent, w, h, xo, yo);
+					if (encoding >= 0) {
+						font.put(encoding, new Glyph(advance > 0 ? advance : xo + w, rows));
+					}
+					break;
+				case "ENDFONT":
+					break lines;
+				default:
+					break;
+				}
+			} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				throw new IllegalArgumentException("Línea BDF no válida: " + line, e);
+			}
+		}
+
+		if (font == null) {
+			throw new IllegalArgumentException("El archivo BDF no contiene caracteres");
+		}
+		return font.finish();
+	}
+
+	private static int[] readBitmap(BufferedReader reader, int height, int ascent, int w, int h, int xo, int yo)
+			throws IOException {
+
+		if (w > 32 || xo + w > 32) {
+			throw new IllegalArgumentException("Caracteres de más de 32 pixeles no soportados");
+		}
+
+		int[] rows = new int[height];
+		int top = ascent - (yo + h);
+		int widthMask = w == 0 ? 0 : -1 << (32 - w);
+
+		for (int i = 0; i < h; i++) {
+
+			String hex = reader.readLine();
+			if (hex == null) {
+				throw new IllegalArgumentException("Mapa de bits BDF incompleto");
+			}
+			hex = hex.trim();
+
+			int bits = hex.length() * 4;
+			if (bits == 0 || bits > 32) {
+				throw new IllegalArgumentException("Fila BDF no válida: " + hex);
+			}
+
+			int word = (int) (Long.parseLong(hex, 16) << (32 - bits)) & widthMask;
+			word = xo >= 0 ? word >>> xo : word << -xo;
+
+			int y = top + i;
+			if (y >= 0 && y < height) {
+				rows[y] = word;
+			}
+		}
+
+		return rows;
+	}
+
+	private void put(int codePoint, Glyph glyph) {
+		if (codePoint < ascii.length) {
+			ascii[codePoint] = glyph;
+		} else {
+			extended.put(codePoint, glyph);
+		}
+	}
+
+	private BitmapFont finish() {
+		fallback = ascii['?'];
+		if (fallback == null) {
+			fallback = new Glyph(Math.max(1, height / 2), new int[height]);
+		}
+		return this;
+	}
+
+	private Glyph glyph(int codePoint) {
+		Glyph glyph = codePoint >= 0 && codePoint < ascii.length ? ascii[codePoint] : extended.get(codePoint);
+		return glyph != null ? glyph : fallback;
+	}
+
+	/**
+	 * @return rows covered by every line of text
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	public boolean hasGlyph(int codePoint) {
+		return codePoint >= 0 && codePoint < ascii.length ? ascii[codePoint] != null
+				: extended.containsKey(codePoint);
+	}
+
+	/**
+	 * @param text
+	 * @return width in pixels of {@code text} drawn on a single line
+	 */
+	public int measure(CharSequence text) {
+		int width = 0;
+		for (int i = 0; i < text.length();) {
+			int cp = Character.codePointAt(text, i);
+			width += glyph(cp).advance;
+			i += Character.charCount(cp);
+		}
+		return width;
+	}
+
+	/**
+	 * ORs {@code text} into the frame with its top left corner at
+	 * {@code (x, y)}. Pixels outside the frame are clipped, so negative or
+	 * oversized coordinates are fine.
+	 * 
+	 * @param frame
+	 * @param text
+	 * @param x
+	 * @param y
+	 * @return column right after the last character
+	 */
+	public int drawString(BitFrame frame, CharSequence text, int x, int y) {
+		return drawString(frame.rows, 1, BitFrame.ROWS, text, x, y);
+	}
+
+	/**
+	 * Same as {@link #drawString(BitFrame, CharSequence, int, int)} on the whole
+	 * wall canvas, so text may run across module borders.
+	 * 
+	 * @param wall
+	 * @param text
+	 * @param x
+	 * @param y
+	 * @return column right after the last character
+	 */
+	public int drawString(PanelWall wall, CharSequence text, int x, int y) {
+		return drawString(wall.rows, wall.getModulesWide(), wall.getHeight(), text, x, y);
+	}
+
+	/**
+	 * Draws into any row-major packed bitmap.
+	 * 
+	 * @param words       {@code wordsPerRow} words per row, MSB = leftmost pixel
+	 * @param wordsPerRow
+	 * @param rowCount    rows in {@code words}
+	 * @param text
+	 * @param x
+	 * @param y
+	 * @return column right after the last character
+	 */
+	int drawString(int[] words, int wordsPerRow, int rowCount, CharSequence text, int x, int y) {
+
+		int width = wordsPerRow * 32;
+		int firstRow = Math.max(0, -y);
+		int lastRow = Math.min(height, rowCount - y);
+
+		for (int i = 0; i < text.length();) {
+
+			int cp = Character.codePointAt(text, i);
+			i += Character.charCount(cp);
+
+			Glyph glyph = glyph(cp);
+
+			if (x < width && x + 32 > 0) {
+				blit(words, wordsPerRow, glyph.rows, firstRow, lastRow, x, y);
+			}
+			x += glyph.advance;
+		}
+
+		return x;
+	}
+
+	private static void blit(int[] words, int wordsPerRow, int[] rows, int firstRow, int lastRow, int x, int y) {
+
+		if (x < 0) {
+			int shift = -x;
+			for (int r = firstRow; r < lastRow; r++) {
+				words[(y + r) * wordsPerRow] |= rows[r] << shift;
+			}
+			return;
+		}
+
+		int word = x >>> 5;
+		int shift = x & 31;
+		boolean straddles = shift != 0 && word + 1 < wordsPerRow;
+
+		for (int r = firstRow; r < lastRow; r++) {
+			int bits = rows[r];
+			if (bits == 0) {
+				continue;
+			}
+			int index = (y + r) * wordsPerRow + word;
+			words[index] |= bits >>> shift;
+			if (straddles) {
+				words[index + 1] |= bits << (32 - shift);
+			}
+		}
+	}
+
+}
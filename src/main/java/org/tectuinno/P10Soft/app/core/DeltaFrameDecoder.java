@@ -0,0 +1,123 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Host side reference decoder of the {@link DeltaFrameEncoder} wire format.
+ * It rebuilds the full 64 byte RAM frame the P10-Link would display, so the
+ * delta mode can be verified without hardware.
+ */
+public class DeltaFrameDecoder {
+
+	private final byte[] current = new byte[FrameConverter.RAM_FRAME_SIZE];
+	private boolean synced;
+
+	/**
+	 * Applies one message to the current frame
+	 * @param in
+	 * @param offset start of the message
+	 * @param length bytes available from {@code offset}
+	 * @return bytes consumed
+	 * @throws IllegalStateException if a delta arrives before the first keyframe
+	 * @throws IllegalArgumentException if the message is malformed or truncated
+	 */
+	public int decode(byte[] in, int offset, int length) {
+
+		if (length < 1) {
+			throw new IllegalArgumentException("Mensaje vacío");
+		}
+
+		int type = in[offset] & 0xFF;
+
+		if (type == DeltaFrameEncoder.KEYFRAME) {
+			requireLength(length, DeltaFrameEncoder.MAX_MESSAGE_SIZE);
+			System.arraycopy(in, offset + 1, current, 0, FrameConverter.RAM_FRAME_SIZE);
+			synced = true;
+			return DeltaFrameEncoder.MAX_MESSAGE_SIZE;
+		}
+
+		if (type != DeltaFrameEncoder.DELTA) {
+			throw new IllegalArgumentException(String.format("Tipo de mensaje desconocido: 0x%02X", type));
+		}
+		if (!synced) {
+			throw new IllegalStateException("Delta recibido antes del primer keyframe");
+		}
+
+		requireLength(length, 3);
+		int mask = ((in[offset + 1] & 0xFF) << 8) | (in[offset + 2] & 0xFF);
+		int size = 3 + Integer.bitCount(mask) * DeltaFrameEncoder.ROW_SIZE;
+		requireLength(length, size);
+
+		int position = offset + 3;
+		for (int row = 0; row < DeltaFrameEncoder.RAM_ROWS; row++) {
+			if ((mask & (0x8000 >>> row)) != 0) {
+				System.arraycopy(in, position, current, row * DeltaFrameEncoder.ROW_SIZE, DeltaFrameEncoder.ROW_SIZE);
+				position += DeltaFrameEncoder.ROW_SIZE;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Decodes every message in {@code in[offset .. offset + length - 1]}
+	 * @param in
+	 * @param offset
+	 * @param length
+	 * @return number of messages applied
+	 */
+	public int decodeAll(byte[] in, int offset, int length) {
+		int messages = 0;
+		int end = offset + length;
+		while (offset < end) {
+			offset += decode(in, offset, end - offset);
+			messages++;
+		}
+		return messages;
+	}
+
+	/**
+	 * @return the frame being displayed, read only
+	 */
+	public byte[] getFrame() {
+		return current;
+	}
+
+	public boolean isSynced() {
+		return synced;
+	}
+
+	private static void requireLength(int length, int required) {
+		if (length < required) {
+			throw new IllegalArgumentException("Mensaje truncado");
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Delta wire encoding for animation playback.
+ * <p>
+ * Each encoded frame is compared with the previous one at RAM row granularity
+ * (16 rows of 4 bytes) and only the changed rows are sent:
+ * </p>
+ * <table border="1">
+ * <tr><th>Message</th><th>Layout</th><th>Size</th></tr>
+ * <tr><td>Keyframe</td><td>{@code 0xF0}, 64 frame bytes</td><td>65</td></tr>
+ * <tr><td>Delta</td><td>{@code 0xD0}, 16 bit row mask (big endian, MSB = RAM
+ * row 0), 4 bytes per changed row in row order</td><td>3 + 4n</td></tr>
+ * </table>
+ * <p>
+ * A keyframe is sent for the first frame, every {@code keyframeInterval} frames
+ * and whenever a delta would not be smaller. A frame identical to the previous
+ * one produces no message at all. {@link DeltaFrameDecoder} is the reference
+ * implementation of the receiving side.
+ * </p>
+ */
+public class DeltaFrameEncoder {
+
+	public static final int KEYFRAME = 0xF0;
+	public static final int DELTA = 0xD0;
+	public static final int RAM_ROWS = 16;
+	public static final int ROW_SIZE = FrameConverter.RAM_FRAME_SIZE / RAM_ROWS;
+	/** Largest message the encoder can produce */
+	public static final int MAX_MESSAGE_SIZE = 1 + FrameConverter.RAM_FRAME_SIZE;
+
+	private final byte[] previous = new byte[FrameConverter.RAM_FRAME_SIZE];
+	private final int keyframeInterval;
+	private boolean hasPrevious;
+	private int framesSinceKeyframe;
+
+	/**
+	 * @param keyframeInterval a full frame is sent at least every this many
+	 *                         frames, 0 sends a keyframe only at the start
+	 */
+	public DeltaFrameEncoder(int keyframeInterval) {
+		if (keyframeInterval < 0) {
+			throw new IllegalArgumentException("Intervalo de keyframe negativo");
+		}
+		this.keyframeInterval = keyframeInterval;
+	}
+
+	/**
+	 * Encodes the next frame of the stream
+	 * @param frame encoded RAM frame
+	 * @param frameOffset
+	 * @param out buffer with at least {@link #MAX_MESSAGE_SIZE} bytes from {@code outOffset}
+	 * @param outOffset
+	 * @return bytes written to {@code out}, 0 if the frame did not change
+	 */
+	public int encode(byte[] frame, int frameOffset, byte[] out, int outOffset) {
+
+		if (out.length - outOffset < MAX_MESSAGE_SIZE) {
+			throw new IndexOutOfBoundsException("Buffer sin espacio para el mensaje delta");
+		}
+
+		boolean keyframe = !hasPrevious || (keyframeInterval > 0 && framesSinceKeyframe + 1 >= keyframeInterval);
+
+		int mask = 0;
+		int changedRows = 0;
+		if (!keyframe) {
+			for (int row = 0; row < RAM_ROWS; row++) {
+				if (rowChanged(frame, frameOffset + row * ROW_SIZE, row * ROW_SIZE)) {
+					mask |= 0x8000 >>> row;
+					changedRows++;
+				}
+			}
+			keyframe = 3 + changedRows * ROW_SIZE >= MAX_MESSAGE_SIZE;
+		}
+
+		System.arraycopy(frame, frameOffset, previous, 0, FrameConverter.RAM_FRAME_SIZE);
+		hasPrevious = true;
+
+		if (keyframe) {
+			framesSinceKeyframe = 0;
+			out[outOffset] = (byte) KEYFRAME;
+			System.arraycopy(frame, frameOffset, out, outOffset + 1, FrameConverter.RAM_FRAME_SIZE);
+			return MAX_MESSAGE_SIZE;
+		}
+
+		framesSinceKeyframe++;
+		if (changedRows == 0) {
+			return 0;
+		}
+
+		int position = outOffset;
+		out[position++] = (byte) DELTA;
+		out[position++] = (byte) (mask >>> 8);
+		out[position++] = (byte) mask;
+		for (int row = 0; row < RAM_ROWS; row++) {
+			if ((mask & (0x8000 >>> row)) != 0) {
+				System.arraycopy(frame, frameOffset + row * ROW_SIZE, out, position, ROW_SIZE);
+				position += ROW_SIZE;
+			}
+		}
+		return position - outOffset;
+	}
+
+	/**
+	 * Forces the next frame to be a keyframe, e.g. after the link was reopened
+	 */
+	public void reset() {
+		hasPrevious = false;
+		framesSinceKeyframe = 0;
+	}
+
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+
+	private boolean rowChanged(byte[] frame, int frameOffset, int previousOffset) {
+		for (int i = 0; i < ROW_SIZE; i++) {
+			if (frame[frameOffset + i] != previous[previousOffset + i]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content keyed cache of encoded RAM frames.
+ * <p>
+ * Frames with the same pixels share one 64 byte encoded buffer, so a project
+ * with many repeated tabs keeps a single copy of each distinct frame. Keys are
+ * private snapshots of the frames, so callers may keep editing their own
+ * {@link BitFrame} after interning it. The returned buffers are shared and must
+ * be treated as read only. All entries are encoded with the
+ * {@link PanelMapping} given at construction.
+ * </p>
+ * <p>
+ * The cache is thread safe so that {@link ParallelFrameEncoder} workers can
+ * share it; two threads missing on the same frame at once may both encode it,
+ * but only one buffer is kept.
+ * </p>
+ */
+public class EncodedFrameCache {
+
+	private final Map<BitFrame, byte[]> encodedFrames = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final PanelMapping mapping;
+
+	public EncodedFrameCache() {
+		this(PanelMapping.DEFAULT);
+	}
+
+	public EncodedFrameCache(PanelMapping mapping) {
+		this.mapping = mapping;
+	}
+
+	/**
+	 * Returns the shared encoding of {@code frame}, encoding it on a miss
+	 * @param frame
+	 * @return
+	 */
+	public byte[] encode(BitFrame frame) {
+		byte[] encoded = lookup(frame);
+		if (encoded == null) {
+			encoded = new byte[FrameConverter.RAM_FRAME_SIZE];
+			mapping.encode(frame, encoded, 0);
+			encoded = store(frame, encoded);
+		}
+		return encoded;
+	}
+
+	/**
+	 * Same as {@link #encode(BitFrame)} for callers that already hold an up to date
+	 * encoding of the frame, which is copied on a miss instead of re-encoding
+	 * @param frame
+	 * @param encoded current RAM frame of {@code frame}, same mapping as the cache
+	 * @return
+	 */
+	public byte[] intern(BitFrame frame, byte[] encoded) {
+		byte[] shared = lookup(frame);
+		if (shared == null) {
+			shared = store(frame, encoded.clone());
+		}
+		return shared;
+	}
+
+	/**
+	 * Drops every entry whose frame is not in {@code liveFrames}
+	 * @param liveFrames
+	 */
+	public void retainOnly(Collection<BitFrame> liveFrames) {
+		Set<BitFrame> live = new HashSet<>(liveFrames);
+		encodedFrames.keySet().retainAll(live);
+	}
+
+	public void clear() {
+		encodedFrames.clear();
+	}
+
+	public PanelMapping getMapping() {
+		return mapping;
+	}
+
+	public int size() {
+		return encodedFrames.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	private byte[] lookup(BitFrame frame) {
+		byte[] encoded = encodedFrames.get(frame);
+		if (encoded == null) {
+			misses.incrementAndGet();
+		} else {
+			hits.incrementAndGet();
+		}
+		return encoded;
+	}
+
+	private byte[] store(BitFrame frame, byte[] encoded) {
+		byte[] previous = encodedFrames.putIfAbsent(frame.copy(), encoded);
+		return previous != null ? previous : encoded;
+	}
+
+}
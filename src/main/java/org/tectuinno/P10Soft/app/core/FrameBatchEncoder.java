@@ -0,0 +1,59 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Strategy used by {@link FrameConverter#encodeRamFrames(BitFrame[], int, int, byte[], int)}
+ * to encode many frames into one contiguous buffer.
+ * <p>
+ * Every implementation must produce exactly the same bytes as calling
+ * {@link FrameConverter#encodeRamFrame(BitFrame, byte[], int)} once per frame,
+ * frame {@code i} landing at {@code offset + 64 * i}.
+ * </p>
+ */
+public interface FrameBatchEncoder {
+
+	/**
+	 * Encodes {@code count} frames starting at {@code frames[from]}
+	 * @param frames
+	 * @param from
+	 * @param count
+	 * @param out
+	 * @param offset
+	 */
+	void encode(BitFrame[] frames, int from, int count, byte[] out, int offset);
+
+	/**
+	 * @return short name used to select the implementation ("scalar", "vector")
+	 */
+	String getName();
+
+}
@@ -30,13 +30,256 @@
 
 package org.tectuinno.P10Soft.app.core;
 
-import javax.management.RuntimeErrorException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
 
 public class FrameConverter {
 
 	private static final int ROWS = 16;
 	private static final int COLS = 32;
 	
+	/** Size in bytes of one encoded frame in the P10-Link RAM order */
+	public static final int RAM_FRAME_SIZE = 64;
+	
+	/**
+	 * Gather tables for the RAM order: output byte {@code i} is byte
+	 * {@code RAM_SHIFT[i] / 8} (counted from the LSB) of row {@code RAM_ROW[i]}.
+	 * <p>
+	 * RAM row {@code 4g + j} holds block {@code 3 - j} of the panel rows
+	 * {@code g, g + 4, g + 8, g + 12}, the same permutation that
+	 * {@link #getRamArrayFrame(String[][])} spells out by hand.
+	 * </p>
+	 */
+	private static final byte[] RAM_ROW = new byte[RAM_FRAME_SIZE];
+	private static final byte[] RAM_SHIFT = new byte[RAM_FRAME_SIZE];
+	
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	
+	static {
+		for (int g = 0; g < 4; g++) {
+			for (int j = 0; j < 4; j++) {
+				for (int k = 0; k < 4; k++) {
+					int i = 16 * g + 4 * j + k;
+					RAM_ROW[i] = (byte) (g + 4 * k);
+					RAM_SHIFT[i] = (byte) (8 * j);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * System property that picks the batch encoder at start up:
+	 * {@code auto} (default), {@code vector} or {@code scalar}
+	 */
+	public static final String BATCH_ENCODER_PROPERTY = "p10soft.batchEncoder";
+	
+	private static volatile FrameBatchEncoder batchEncoder = selectBatchEncoder(
+			System.getProperty(BATCH_ENCODER_PROPERTY, "auto"));
+	
+	/**
+	 * Encodes a frame into the 64 byte RAM order expected by the P10-Link,
+	 * writing straight into the caller buffer. No allocation is made.
+	 * @param frame
+	 * @param out destination buffer
+	 * @param offset first byte to write in {@code out}
+	 * @throws IndexOutOfBoundsException if {@code out} has not room for 64 bytes
+	 */
+	public static void encodeRamFrame(BitFrame frame, byte[] out, int offset) {
+		
+		if (offset < 0 || out.length - offset < RAM_FRAME_SIZE) {
+			throw new IndexOutOfBoundsException("Buffer sin espacio para el frame");
+		}
+		
+		int[] rows = frame.rows;
+		for (int i = 0; i < RAM_FRAME_SIZE; i++) {
+			out[offset + i] = (byte) (rows[RAM_ROW[i]] >>> RAM_SHIFT[i]);
+		}
+		
+	}
+	
+	/**
+	 * Encodes a frame for a panel wired or mounted differently from the default
+	 * @param frame
+	 * @param mapping scan layout and orientation of the target panel
+	 * @param out destination buffer
+	 * @param offset first byte to write in {@code out}
+	 * @see PanelMapping#of(ScanLayout, PanelOrientation)
+	 */
+	public static void encodeRamFrame(BitFrame frame, PanelMapping mapping, byte[] out, int offset) {
+		mapping.encode(frame, out, offset);
+	}
+	
+	/**
+	 * Encodes a frame into the RAM order at the buffer position, advancing it by 64
+	 * @param frame
+	 * @param out
+	 * @throws java.nio.BufferOverflowException if less than 64 bytes remain
+	 */
+	public static void encodeRamFrame(BitFrame frame, ByteBuffer out) {
+		
+		if (out.remaining() < RAM_FRAME_SIZE) {
+			throw new java.nio.BufferOverflowException();
+		}
+		
+		if (out.hasArray()) {
+			encodeRamFrame(frame, out.array(), out.arrayOffset() + out.position());
+			out.position(out.position() + RAM_FRAME_SIZE);
+			return;
+		}
+		
+		int[] rows = frame.rows;
+		for (int i = 0; i < RAM_FRAME_SIZE; i++) {
+			out.put((byte) (rows[RAM_ROW[i]] >>> RAM_SHIFT[i]));
+		}
+		
+	}
+	
+	/**
+	 * Position of a panel pixel inside the encoded RAM frame, so that an already
+	 * encoded frame can be patched one pixel at a time
+	 * @param row panel row 0..15
+	 * @param col panel column 0..31
+	 * @return byte index 0..63
+	 * @see #ramMask(int)
+	 */
+	public static int ramOffset(int row, int col) {
+		return 16 * (row & 3) + 4 * (3 - (col >>> 3)) + (row >>> 2);
+	}
+	
+	/**
+	 * Bit of the byte given by {@link #ramOffset(int, int)} that holds the pixel
+	 * @param col panel column 0..31
+	 * @return single bit mask, MSB = leftmost column of the block
+	 */
+	public static int ramMask(int col) {
+		return 0x80 >>> (col & 7);
+	}
+	
+	/**
+	 * Convenience variant that returns a new 64 byte array
+	 * @param frame
+	 * @return
+	 */
+	public static byte[] encodeRamFrame(BitFrame frame) {
+		byte[] out = new byte[RAM_FRAME_SIZE];
+		encodeRamFrame(frame, out, 0);
+		return out;
+	}
+	
+	/**
+	 * Encodes {@code count} frames into one contiguous buffer, frame {@code i}
+	 * at {@code offset + 64 * i}, with the currently selected batch encoder
+	 * @param frames
+	 * @param from index of the first frame to encode
+	 * @param count
+	 * @param out
+	 * @param offset
+	 * @see #setBatchEncoder(String)
+	 */
+	public static void encodeRamFrames(BitFrame[] frames, int from, int count, byte[] out, int offset) {
+		batchEncoder.encode(frames, from, count, out, offset);
+	}
+	
+	/**
+	 * Encodes a whole sequence into a new buffer of {@code 64 * frames.size()} bytes
+	 * @param frames
+	 * @return
+	 */
+	public static byte[] encodeRamFrames(List<BitFrame> frames) {
+		BitFrame[] array = frames.toArray(new BitFrame[0]);
+		byte[] out = new byte[array.length * RAM_FRAME_SIZE];
+		encodeRamFrames(array, 0, array.length, out, 0);
+		return out;
+	}
+	
+	/**
+	 * Switches the batch encoder at runtime
+	 * @param name {@code auto}, {@code vector} or {@code scalar}
+	 * @return the encoder actually installed, the scalar one if the vector API is not available
+	 */
+	public static FrameBatchEncoder setBatchEncoder(String name) {
+		batchEncoder = selectBatchEncoder(name);
+		return batchEncoder;
+	}
+	
+	public static FrameBatchEncoder getBatchEncoder() {
+		return batchEncoder;
+	}
+	
+	/**
+	 * Resolves an encoder name. The vector implementation is loaded reflectively
+	 * so that a build without the {@code vector} profile, or a JVM started
+	 * without {@code --add-modules jdk.incubator.vector}, simply falls back to
+	 * the scalar loop; it is also checked against the scalar result before being
+	 * trusted.
+	 * @param name
+	 * @return
+	 */
+	public static FrameBatchEncoder selectBatchEncoder(String name) {
+		
+		FrameBatchEncoder scalar = new ScalarFrameBatchEncoder();
+		if ("scalar".equalsIgnoreCase(name)) {
+			return scalar;
+		}
+		
+		if (!"auto".equalsIgnoreCase(name) && !"vector".equalsIgnoreCase(name)) {
+			throw new IllegalArgumentException("Codificador desconocido: " + name);
+		}
+		
+		try {
+			
+			FrameBatchEncoder vector = (FrameBatchEncoder) Class
+					.forName("org.tectuinno.P10Soft.app.core.VectorFrameBatchEncoder")
+					.getDeclaredConstructor().newInstance();
+			
+			BitFrame probe = new BitFrame();
+			for (int row = 0; row < ROWS; row++) {
+				probe.setRow(row, 0x9E3779B9 * (row + 1));
+			}
+			BitFrame[] probes = { probe };
+			byte[] expected = new byte[RAM_FRAME_SIZE];
+			byte[] actual = new byte[RAM_FRAME_SIZE];
+			scalar.encode(probes, 0, 1, expected, 0);
+			vector.encode(probes, 0, 1, actual, 0);
+			
+			if (Arrays.equals(expected, actual)) {
+				return vector;
+			}
+			System.err.println("Codificador vectorial inconsistente, se usa el escalar");
+			
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			if ("vector".equalsIgnoreCase(name)) {
+				System.err.println("API vectorial no disponible (" + e + "), se usa el codificador escalar");
+			}
+		}
+		
+		return scalar;
+		
+	}
+	
+	/**
+	 * Formats encoded bytes as the upper case hex string used by the console and
+	 * the legacy send path
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public static String toHexString(byte[] data, int offset, int length) {
+		char[] chars = new char[length * 2];
+		for (int i = 0; i < length; i++) {
+			int value = data[offset + i] & 0xFF;
+			chars[2 * i] = HEX_DIGITS[value >>> 4];
+			chars[2 * i + 1] = HEX_DIGITS[value & 0x0F];
+		}
+		return new String(chars);
+	}
+	
+	public static String toHexString(byte[] data) {
+		return toHexString(data, 0, data.length);
+	}
+	
 	/**
 	 * Function to get the new hex matriz from the binary table
 	 * @param matrix
@@ -48,51 +291,47 @@ public class FrameConverter {
 		if(matrix.length > ROWS) throw new RuntimeException("Matrix data to loong");
 		if(matrix[0].length > COLS) throw new RuntimeException("Matrix data to loong");
 		
-		String[][] hexMatrix = new String[16][4];
-		
-        for (int block = 0; block < 4; block++) {
-            int colStart = block * 8;
-            int colEnd = colStart + 8;
-
-            for (int row = ROWS - 1; row >= 0; row--) {
-                boolean[] byteArray = new boolean[8];
-
-
-                for (int col = 0; col < 8; col++) {
-                    byteArray[col] = matrix[row][colStart + col];
-                }
-
-                String hex;				
-				hex = fromBinaryToHex(byteArray);
-				
-                hexMatrix[ROWS - 1 - row][block] = hex;
-            }
-        }
-		
-		return hexMatrix;
+		return convertFrameToHex(BitFrame.fromMatrix(matrix));
 		
 	}
 	
 	/**
-	 * To convert every binary byte into a hex byte
-	 * @param bitArray
+	 * Function to get the hex matrix (16x4, rows bottom-up) from a packed frame
+	 * @param frame
 	 * @return
-	 * @throws RuntimeException
 	 */
-	private static String fromBinaryToHex(boolean[] bitArray) throws RuntimeException{
+	public static String[][] convertFrameToHex(BitFrame frame) {
 		
-		if(bitArray.length > 8) {
-			throw new RuntimeException("Byte a procesar mayor a 8");
-		}
+		String[][] hexMatrix = new String[16][4];
 		
-		int value = 0;
+		for (int block = 0; block < 4; block++) {
+			int shift = 24 - block * 8;
+			
+			for (int row = ROWS - 1; row >= 0; row--) {
+				hexMatrix[ROWS - 1 - row][block] = fromByteToHex((frame.rows[row] >>> shift) & 0xFF);
+			}
+		}
 		
-		for(boolean bit : bitArray) {
-			value = (value << 1) | (bit ? 1 : 0);
-		}				
-				
+		return hexMatrix;
 		
-		return String.format("%02X", value);
+	}
+	
+	/**
+	 * Convert a packed frame directly into the RAM ordered hex frame
+	 * @param frame
+	 * @return
+	 */
+	public static String getRamArrayFrame(BitFrame frame) {
+		return toHexString(encodeRamFrame(frame));
+	}
+	
+	/**
+	 * To convert every byte value into a two digit hex string
+	 * @param value
+	 * @return
+	 */
+	private static String fromByteToHex(int value) {
+		return new String(new char[] { HEX_DIGITS[value >>> 4], HEX_DIGITS[value & 0x0F] });
 	}
 	
 	/**
@@ -0,0 +1,268 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer/single-consumer queue of 64 byte RAM frames.
+ * <p>
+ * All slots live in one array allocated up front; frames are copied in by
+ * {@link #offer(byte[], int)} and out by {@link #poll(byte[], int)} or
+ * {@link #take(byte[], int, long)}, so a pipeline between a frame generator
+ * and a writer thread allocates nothing per frame. Exactly one thread may
+ * offer and one thread may poll/take.
+ * </p>
+ * <p>
+ * What happens when the buffer is full is set by the {@link Policy}; every
+ * time the producer finds it full {@link #getFullCount()} grows, and frames
+ * discarded by the drop policies are counted by {@link #getDroppedCount()}.
+ * </p>
+ */
+public final class FrameRingBuffer {
+
+	/**
+	 * Behaviour of {@link FrameRingBuffer#offer(byte[], int)} on a full buffer
+	 */
+	public enum Policy {
+
+		/** Wait for the consumer; nothing is lost but the producer slows down */
+		BLOCK("Esperar"),
+		/** Discard the oldest queued frame; lowest latency */
+		DROP_OLDEST("Descartar el más antiguo"),
+		/** Discard the frame being offered */
+		DROP_NEWEST("Descartar el más nuevo");
+
+		private final String label;
+
+		private Policy(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	public static final int SLOT_SIZE = FrameConverter.RAM_FRAME_SIZE;
+
+	/** Longest single park while waiting, so {@link #close()} is noticed */
+	private static final long MAX_PARK_NANOS = 1_000_000L;
+
+	private final int mask;
+	private final byte[] slots;
+	private final Policy policy;
+
+	/** Sequence of the next frame to read; moved by the consumer and, for DROP_OLDEST, the producer */
+	private final AtomicLong head = new AtomicLong();
+	/** Sequence of the next frame to write; moved only by the producer */
+	private final AtomicLong tail = new AtomicLong();
+
+	private final AtomicLong fullCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private volatile Thread waitingProducer;
+	private volatile Thread waitingConsumer;
+	private volatile boolean closed;
+
+	/**
+	 * @param capacity frames, rounded up to a power of two
+	 * @param policy
+	 */
+	public FrameRingBuffer(int capacity, Policy policy) {
+		if (capacity < 1 || capacity > 1 << 20) {
+			throw new IllegalArgumentException("Capacidad no válida: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.slots = new byte[size * SLOT_SIZE];
+		this.policy = policy;
+	}
+
+	/**
+	 * Queues a copy of {@code frame[offset .. offset + 63]}; producer thread only
+	 * @param frame
+	 * @param offset
+	 * @return false if the frame was dropped or the buffer is closed
+	 */
+	public boolean offer(byte[] frame, int offset) {
+
+		long t = tail.get();
+		boolean full = false;
+
+		while (!closed && t - head.get() > mask) {
+
+			if (!full) {
+				full = true;
+				fullCount.incrementAndGet();
+			}
+
+			switch (policy) {
+			case DROP_NEWEST:
+				droppedCount.incrementAndGet();
+				return false;
+			case DROP_OLDEST:
+				long h = head.get();
+				if (t - h > mask && head.compareAndSet(h, h + 1)) {
+					droppedCount.incrementAndGet();
+				}
+				break;
+			case BLOCK:
+				waitingProducer = Thread.currentThread();
+				if (t - head.get() > mask && !closed) {
+					LockSupport.parkNanos(this, MAX_PARK_NANOS);
+				}
+				waitingProducer = null;
+				break;
+			}
+		}
+
+		if (closed) {
+			return false;
+		}
+
+		System.arraycopy(frame, offset, slots, (int) (t & mask) * SLOT_SIZE, SLOT_SIZE);
+		tail.set(t + 1);
+		wake(waitingConsumer);
+		return true;
+	}
+
+	/**
+	 * Copies the oldest frame into {@code out[offset .. offset + 63]} without
+	 * waiting; consumer thread only
+	 * @param out
+	 * @param offset
+	 * @return false if the buffer was empty
+	 */
+	public boolean poll(byte[] out, int offset) {
+
+		while (true) {
+			long h = head.get();
+			if (h == tail.get()) {
+				return false;
+			}
+			System.arraycopy(slots, (int) (h & mask) * SLOT_SIZE, out, offset, SLOT_SIZE);
+			// fails only if a DROP_OLDEST producer discarded (and maybe overwrote) this slot meanwhile
+			if (head.compareAndSet(h, h + 1)) {
+				wake(waitingProducer);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Like {@link #poll(byte[], int)} but waits up to {@code timeoutNanos} for a
+	 * frame
+	 * @param out
+	 * @param offset
+	 * @param timeoutNanos
+	 * @return false on timeout or if the buffer was closed and drained
+	 * @throws InterruptedException
+	 */
+	public boolean take(byte[] out, int offset, long timeoutNanos) throws InterruptedException {
+
+		long deadline = System.nanoTime() + timeoutNanos;
+
+		while (!poll(out, offset)) {
+
+			long remaining = deadline - System.nanoTime();
+			if (closed || remaining <= 0) {
+				return false;
+			}
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+
+			waitingConsumer = Thread.currentThread();
+			if (head.get() == tail.get() && !closed) {
+				LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+			}
+			waitingConsumer = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Rejects further offers and wakes both sides; frames already queued can
+	 * still be taken
+	 */
+	public void close() {
+		closed = true;
+		wake(waitingProducer);
+		wake(waitingConsumer);
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return frames queued right now
+	 */
+	public int size() {
+		return (int) Math.max(0, tail.get() - head.get());
+	}
+
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public Policy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @return times an offer found the buffer full
+	 */
+	public long getFullCount() {
+		return fullCount.get();
+	}
+
+	/**
+	 * @return frames discarded by {@link Policy#DROP_OLDEST} or
+	 *         {@link Policy#DROP_NEWEST}
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	private static void wake(Thread thread) {
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+}
@@ -0,0 +1,335 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compact, append only storage for long animations of encoded RAM frames.
+ * <p>
+ * Every frame is XOR-ed with the previous one and the 64 byte difference is
+ * run length encoded (PackBits style), so unchanged areas cost almost nothing:
+ * an identical frame takes 2 bytes. Every {@link #KEYFRAME_INTERVAL} frames the
+ * XOR chain restarts from an empty frame and its position is indexed, which
+ * lets a {@link Cursor} seek without decoding from the start.
+ * </p>
+ * <p>
+ * Frames are read back one at a time through a {@link Cursor}, the sequence is
+ * never inflated as a whole. Appending is not thread safe; once built, a
+ * sequence can be read by any number of cursors concurrently.
+ * </p>
+ * <h2>Run length format</h2>
+ * <ul>
+ * <li>{@code 0x00..0x7F}: {@code n + 1} literal bytes follow</li>
+ * <li>{@code 0x80..0xFF}: the next byte repeats {@code n - 0x7E} times (2..129)</li>
+ * </ul>
+ */
+public class FrameSequence {
+
+	public static final int KEYFRAME_INTERVAL = 64;
+
+	private static final int FRAME_SIZE = FrameConverter.RAM_FRAME_SIZE;
+	/**
+	 * Largest packed frame. The worst input alternates a 1 byte literal and a 2
+	 * byte run, 4 packed bytes for every 3 (86 for a frame); half a frame of slack
+	 * covers it.
+	 */
+	private static final int MAX_PACKED_SIZE = FRAME_SIZE + FRAME_SIZE / 2 + 2;
+	/** Smallest packed frame: one run of 64 equal bytes */
+	private static final int MIN_PACKED_SIZE = 2;
+	private static final int MAGIC = 0x50313053; // "P10S"
+	private static final int VERSION = 1;
+
+	private byte[] data = new byte[1024];
+	private int dataLength;
+	private int[] keyframeOffsets = new int[16];
+	private int frameCount;
+
+	private final byte[] previous = new byte[FRAME_SIZE];
+	private final byte[] scratch = new byte[FRAME_SIZE];
+	private final byte[] encoded = new byte[FRAME_SIZE];
+
+	/**
+	 * Appends one encoded RAM frame
+	 * @param frame
+	 * @param offset
+	 */
+	public void append(byte[] frame, int offset) {
+
+		if (frameCount % KEYFRAME_INTERVAL == 0) {
+			if (frameCount / KEYFRAME_INTERVAL == keyframeOffsets.length) {
+				keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeOffsets.length * 2);
+			}
+			keyframeOffsets[frameCount / KEYFRAME_INTERVAL] = dataLength;
+			Arrays.fill(previous, (byte) 0);
+		}
+
+		for (int i = 0; i < FRAME_SIZE; i++) {
+			scratch[i] = (byte) (frame[offset + i] ^ previous[i]);
+		}
+		System.arraycopy(frame, offset, previous, 0, FRAME_SIZE);
+
+		ensureCapacity(dataLength + MAX_PACKED_SIZE);
+		dataLength = packBits(scratch, data, dataLength);
+		frameCount++;
+	}
+
+	/**
+	 * Encodes a frame with the default panel mapping and appends it
+	 * @param frame
+	 */
+	public void append(BitFrame frame) {
+		FrameConverter.encodeRamFrame(frame, encoded, 0);
+		append(encoded, 0);
+	}
+
+	public int size() {
+		return frameCount;
+	}
+
+	public boolean isEmpty() {
+		return frameCount == 0;
+	}
+
+	/**
+	 * @return bytes of compressed frame data
+	 */
+	public int getCompressedSize() {
+		return dataLength;
+	}
+
+	/**
+	 * Returns a new reader positioned before the first frame
+	 * @return
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Writes the sequence to a stream ({@code .p10s} file)
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		DataOutputStream stream = new DataOutputStream(out);
+		stream.writeInt(MAGIC);
+		stream.writeShort(VERSION);
+		stream.writeInt(frameCount);
+		stream.writeInt(dataLength);
+		stream.write(data, 0, dataLength);
+		stream.flush();
+	}
+
+	/**
+	 * Reads a sequence written by {@link #writeTo(OutputStream)}
+	 * @param in
+	 * @return
+	 * @throws IOException if the stream is not a valid sequence
+	 */
+	public static FrameSequence readFrom(InputStream in) throws IOException {
+
+		DataInputStream stream = new DataInputStream(in);
+		if (stream.readInt() != MAGIC) {
+			throw new IOException("El archivo no es una secuencia P10");
+		}
+		int version = stream.readUnsignedShort();
+		if (version != VERSION) {
+			throw new IOException("Versión de secuencia no soportada: " + version);
+		}
+
+		int frames = stream.readInt();
+		int length = stream.readInt();
+		if (frames < 0 || length < 0 || frames > length / MIN_PACKED_SIZE) {
+			throw new IOException("Secuencia corrupta");
+		}
+
+		// read in chunks so a forged length can't allocate more than the stream holds
+		byte[] data = stream.readNBytes(length);
+		if (data.length != length) {
+			throw new IOException("Secuencia truncada");
+		}
+
+		FrameSequence sequence = new FrameSequence();
+		sequence.data = data;
+		sequence.dataLength = length;
+		sequence.frameCount = frames;
+		sequence.keyframeOffsets = new int[frames / KEYFRAME_INTERVAL + 1];
+
+		// rebuild the keyframe index and the XOR state for further appends
+		Cursor cursor = sequence.cursor();
+		try {
+			for (int i = 0; i < frames; i++) {
+				if (i % KEYFRAME_INTERVAL == 0) {
+					sequence.keyframeOffsets[i / KEYFRAME_INTERVAL] = cursor.offset;
+				}
+				cursor.next(sequence.previous, 0);
+			}
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Secuencia corrupta", e);
+		}
+		if (cursor.offset != length) {
+			throw new IOException("Secuencia corrupta");
+		}
+
+		return sequence;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > data.length) {
+			data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+		}
+	}
+
+	private static int packBits(byte[] in, byte[] out, int position) {
+
+		int i = 0;
+		while (i < FRAME_SIZE) {
+
+			int run = 1;
+			while (i + run < FRAME_SIZE && in[i + run] == in[i] && run < 129) {
+				run++;
+			}
+
+			if (run >= 2) {
+				out[position++] = (byte) (run + 0x7E);
+				out[position++] = in[i];
+				i += run;
+				continue;
+			}
+
+			int start = i;
+			while (i < FRAME_SIZE && i - start < 128 && (i + 1 >= FRAME_SIZE || in[i + 1] != in[i])) {
+				i++;
+			}
+			if (i == start) {
+				i++;
+			}
+			out[position++] = (byte) (i - start - 1);
+			System.arraycopy(in, start, out, position, i - start);
+			position += i - start;
+		}
+		return position;
+	}
+
+	/**
+	 * Streaming reader over the sequence. Each cursor keeps its own 64 byte
+	 * state, so several can read the same sequence at once.
+	 */
+	public final class Cursor implements FrameSource {
+
+		private final byte[] current = new byte[FRAME_SIZE];
+		private int index;
+		private int offset;
+
+		private Cursor() {
+		}
+
+		/**
+		 * Decodes the next frame into {@code out[outOffset .. outOffset + 63]}
+		 * @param out
+		 * @param outOffset
+		 * @return false when the end of the sequence was reached
+		 */
+		@Override
+		public boolean next(byte[] out, int outOffset) {
+
+			if (index >= frameCount) {
+				return false;
+			}
+
+			if (index % KEYFRAME_INTERVAL == 0) {
+				Arrays.fill(current, (byte) 0);
+			}
+
+			int position = 0;
+			while (position < FRAME_SIZE) {
+				int control = data[offset++] & 0xFF;
+				if (control < 0x80) {
+					for (int end = position + control + 1; position < end; position++) {
+						current[position] ^= data[offset++];
+					}
+				} else {
+					byte value = data[offset++];
+					for (int end = position + control - 0x7E; position < end; position++) {
+						current[position] ^= value;
+					}
+				}
+			}
+
+			System.arraycopy(current, 0, out, outOffset, FRAME_SIZE);
+			index++;
+			return true;
+		}
+
+		/**
+		 * Moves the cursor so that the next call to {@link #next(byte[], int)}
+		 * returns frame {@code frameIndex}
+		 * @param frameIndex
+		 */
+		@Override
+		public void seek(int frameIndex) {
+
+			if (frameIndex < 0 || frameIndex > frameCount) {
+				throw new IndexOutOfBoundsException("Frame fuera de la secuencia: " + frameIndex);
+			}
+
+			int keyframe = Math.min(frameIndex, frameCount - 1) / KEYFRAME_INTERVAL;
+			if (frameCount == 0 || (keyframe * KEYFRAME_INTERVAL > index || frameIndex < index)) {
+				index = keyframe * KEYFRAME_INTERVAL;
+				offset = frameCount == 0 ? 0 : keyframeOffsets[keyframe];
+			}
+
+			while (index < frameIndex) {
+				next(current, 0);
+			}
+		}
+
+		/**
+		 * @return index of the frame returned by the next call to {@link #next(byte[], int)}
+		 */
+		@Override
+		public int position() {
+			return index;
+		}
+
+		@Override
+		public int size() {
+			return frameCount;
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Produces encoded RAM frames one at a time for playback.
+ * <p>
+ * Implementations write into a buffer owned by the caller, so a player can
+ * reuse the same array for every tick. They are not thread safe; a source is
+ * meant to be consumed by a single playback thread.
+ * </p>
+ */
+public interface FrameSource {
+
+	/**
+	 * Writes the next frame into {@code out[offset .. offset + 63]}
+	 * @param out
+	 * @param offset
+	 * @return false when the source has no more frames
+	 */
+	boolean next(byte[] out, int offset);
+
+	/**
+	 * Moves the source so that the next call to {@link #next(byte[], int)}
+	 * returns frame {@code frameIndex}
+	 * @param frameIndex 0 .. {@link #size()}
+	 */
+	void seek(int frameIndex);
+
+	/**
+	 * @return index of the frame returned by the next call to {@link #next(byte[], int)}
+	 */
+	int position();
+
+	/**
+	 * @return frames in one pass of the source
+	 */
+	int size();
+
+}
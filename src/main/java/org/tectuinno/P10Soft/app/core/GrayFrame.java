@@ -0,0 +1,116 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.util.Arrays;
+
+/**
+ * 16x32 grayscale frame with 2 to 4 bits per pixel.
+ * <p>
+ * P10 modules only switch LEDs on and off, so gray levels are produced by
+ * binary code modulation: {@link #getBitplane(int, BitFrame)} splits the frame
+ * into one monochrome plane per bit and {@link SubframeSchedule} shows each
+ * plane for a time proportional to its weight.
+ * </p>
+ */
+public final class GrayFrame {
+
+	public static final int MIN_DEPTH = 2;
+	public static final int MAX_DEPTH = 4;
+
+	private final int depth;
+	private final byte[] levels = new byte[BitFrame.ROWS * BitFrame.COLS];
+
+	/**
+	 * @param depth bits per pixel, 2..4
+	 */
+	public GrayFrame(int depth) {
+		if (depth < MIN_DEPTH || depth > MAX_DEPTH) {
+			throw new IllegalArgumentException("Profundidad de gris no soportada: " + depth);
+		}
+		this.depth = depth;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return brightest level, {@code 2^depth - 1}
+	 */
+	public int getMaxLevel() {
+		return (1 << depth) - 1;
+	}
+
+	public int getLevel(int row, int col) {
+		return levels[index(row, col)];
+	}
+
+	/**
+	 * @param row
+	 * @param col
+	 * @param level 0 (off) .. {@link #getMaxLevel()}
+	 */
+	public void setLevel(int row, int col, int level) {
+		if (level < 0 || level > getMaxLevel()) {
+			throw new IllegalArgumentException("Nivel fuera de rango: " + level);
+		}
+		levels[index(row, col)] = (byte) level;
+	}
+
+	public void clear() {
+		Arrays.fill(levels, (byte) 0);
+	}
+
+	/**
+	 * Extracts the monochrome plane of one bit of the levels
+	 * @param bit 0 = least significant plane
+	 * @param plane destination frame
+	 */
+	public void getBitplane(int bit, BitFrame plane) {
+		for (int row = 0; row < BitFrame.ROWS; row++) {
+			int word = 0;
+			int base = row * BitFrame.COLS;
+			for (int col = 0; col < BitFrame.COLS; col++) {
+				word = (word << 1) | ((levels[base + col] >>> bit) & 1);
+			}
+			plane.setRow(row, word);
+		}
+	}
+
+	private static int index(int row, int col) {
+		if (row < 0 || row >= BitFrame.ROWS || col < 0 || col >= BitFrame.COLS) {
+			throw new IndexOutOfBoundsException("Pixel fuera del panel: " + row + "," + col);
+		}
+		return row * BitFrame.COLS + col;
+	}
+
+}
@@ -0,0 +1,506 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Converts PNG, BMP and (animated) GIF files into packed monochrome frames.
+ * <p>
+ * Images are decoded one at a time with {@code javax.imageio}; GIF frames are
+ * composited over the logical screen following their disposal method. Each
+ * composited image is then scaled to the target size keeping its aspect ratio,
+ * reduced to luminance and thresholded or dithered on the common fork-join
+ * pool. At most two images per core are in flight, so long animations never
+ * hold all their decoded frames in memory.
+ * </p>
+ * <p>
+ * Results are packed like {@link PanelWall}: {@code modulesWide} words per row,
+ * MSB = leftmost pixel. For a single module that is exactly the row layout of
+ * {@link BitFrame#setRow(int, int)}.
+ * </p>
+ */
+public final class ImageFrameImporter {
+
+	/**
+	 * Reduction from luminance to on/off pixels
+	 */
+	public enum Dithering {
+
+		THRESHOLD("Umbral"),
+		FLOYD_STEINBERG("Floyd-Steinberg"),
+		ORDERED("Ordenado (Bayer 4x4)");
+
+		private final String label;
+
+		private Dithering(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	/**
+	 * Receives the converted frames in file order, on the thread that called
+	 * {@link ImageFrameImporter#read(File, FrameConsumer, BooleanSupplier)}
+	 */
+	public interface FrameConsumer {
+
+		/**
+		 * @param index       frame number, from 0
+		 * @param rows        packed pixels; the array belongs to the consumer
+		 * @param delayMillis display time stored in the file, 0 if none
+		 */
+		void frame(int index, int[] rows, int delayMillis);
+	}
+
+	private static final int[] BAYER_4X4 = {
+			0, 8, 2, 10,
+			12, 4, 14, 6,
+			3, 11, 1, 9,
+			15, 7, 13, 5 };
+
+	private static final String GIF_IMAGE_METADATA = "javax_imageio_gif_image_1.0";
+	private static final String GIF_STREAM_METADATA = "javax_imageio_gif_stream_1.0";
+
+	private final int modulesWide;
+	private final int width;
+	private final int height;
+
+	private Dithering dithering = Dithering.FLOYD_STEINBERG;
+	private int threshold = 128;
+	private boolean inverted;
+
+	/**
+	 * Importer for a single 16x32 module
+	 */
+	public ImageFrameImporter() {
+		this(1, 1);
+	}
+
+	/**
+	 * Importer for a wall of {@code modulesWide x modulesHigh} modules
+	 * @param modulesWide
+	 * @param modulesHigh
+	 */
+	public ImageFrameImporter(int modulesWide, int modulesHigh) {
+		if (modulesWide < 1 || modulesHigh < 1) {
+			throw new IllegalArgumentException("El muro debe tener al menos un módulo");
+		}
+		this.modulesWide = modulesWide;
+		this.width = BitFrame.COLS * modulesWide;
+		this.height = BitFrame.ROWS * modulesHigh;
+	}
+
+	public Dithering getDithering() {
+		return dithering;
+	}
+
+	public void setDithering(Dithering dithering) {
+		this.dithering = dithering;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * @param threshold luminance 0..255 from which a pixel is lit, used by
+	 *                  {@link Dithering#THRESHOLD} and
+	 *                  {@link Dithering#FLOYD_STEINBERG}
+	 */
+	public void setThreshold(int threshold) {
+		if (threshold < 0 || threshold > 255) {
+			throw new IllegalArgumentException("Umbral no válido: " + threshold);
+		}
+		this.threshold = threshold;
+	}
+
+	public boolean isInverted() {
+		return inverted;
+	}
+
+	/**
+	 * @param inverted light dark pixels instead, for dark drawings on a light
+	 *                 background
+	 */
+	public void setInverted(boolean inverted) {
+		this.inverted = inverted;
+	}
+
+	/**
+	 * @return words in the arrays passed to {@link FrameConsumer}
+	 */
+	public int getFrameWords() {
+		return modulesWide * height;
+	}
+
+	/**
+	 * @param file
+	 * @param consumer
+	 * @param cancelled polled between frames
+	 * @return number of frames imported
+	 * @throws IOException                if the file can't be read or decoded
+	 * @throws CancellationException      if {@code cancelled} returned true
+	 */
+	public int read(File file, FrameConsumer consumer, BooleanSupplier cancelled) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+			if (in == null) {
+				throw new IOException("No se puede leer el archivo " + file);
+			}
+			return read(in, consumer, cancelled);
+		}
+	}
+
+	/**
+	 * @param in       stream positioned at the start of the image; not closed
+	 * @param consumer
+	 * @param cancelled polled between frames
+	 * @return number of frames imported
+	 * @throws IOException           if the format is unknown or the data is
+	 *                               corrupt
+	 * @throws CancellationException if {@code cancelled} returned true
+	 */
+	public int read(ImageInputStream in, FrameConsumer consumer, BooleanSupplier cancelled) throws IOException {
+
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+		if (!readers.hasNext()) {
+			throw new IOException("Formato de imagen no soportado");
+		}
+
+		ImageReader reader = readers.next();
+		try {
+			reader.setInput(in, true, false);
+			return decode(reader, consumer, cancelled);
+		} finally {
+			reader.dispose();
+		}
+	}
+
+	private int decode(ImageReader reader, FrameConsumer consumer, BooleanSupplier cancelled) throws IOException {
+
+		boolean gif = "gif".equalsIgnoreCase(reader.getFormatName());
+		int maxPending = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+
+		Deque<ForkJoinTask<int[]>> pending = new ArrayDeque<>();
+		Deque<Integer> delays = new ArrayDeque<>();
+		GifScreen screen = null;
+		int delivered = 0;
+
+		try {
+
+			for (int i = 0;; i++) {
+
+				if (cancelled.getAsBoolean()) {
+					throw new CancellationException();
+				}
+
+				BufferedImage image;
+				try {
+					image = reader.read(i);
+				} catch (IndexOutOfBoundsException e) {
+					break;
+				}
+
+				int[] argb;
+				int w;
+				int h;
+				int delay = 0;
+
+				if (gif) {
+					if (screen == null) {
+						screen = new GifScreen(reader.getStreamMetadata(), image);
+					}
+					argb = screen.compose(image, reader.getImageMetadata(i));
+					w = screen.width;
+					h = screen.height;
+					delay = screen.delayMillis;
+				} else {
+					w = image.getWidth();
+					h = image.getHeight();
+					argb = image.getRGB(0, 0, w, h, null, 0, w);
+				}
+
+				final int[] pixels = argb;
+				final int pixelsWide = w;
+				final int pixelsHigh = h;
+				pending.add(ForkJoinPool.commonPool().submit(() -> convert(pixels, pixelsWide, pixelsHigh)));
+				delays.add(delay);
+
+				while (!pending.isEmpty() && (pending.size() >= maxPending || pending.peek().isDone())) {
+					consumer.frame(delivered++, join(pending.poll()), delays.poll());
+				}
+			}
+
+			while (!pending.isEmpty()) {
+				if (cancelled.getAsBoolean()) {
+					throw new CancellationException();
+				}
+				consumer.frame(delivered++, join(pending.poll()), delays.poll());
+			}
+
+		} finally {
+			for (ForkJoinTask<int[]> task : pending) {
+				task.cancel(false);
+			}
+		}
+
+		return delivered;
+	}
+
+	private static int[] join(ForkJoinTask<int[]> task) throws IOException {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException();
+		} catch (ExecutionException e) {
+			throw new IOException("Error al convertir la imagen: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * Scales, reduces and packs one image
+	 * @param argb   source pixels, row-major
+	 * @param srcW
+	 * @param srcH
+	 * @return {@link #getFrameWords()} packed words
+	 */
+	int[] convert(int[] argb, int srcW, int srcH) {
+
+		// fit inside the target keeping the aspect ratio, centered
+		double scale = Math.min((double) width / srcW, (double) height / srcH);
+		int dstW = Math.max(1, Math.min(width, (int) Math.round(srcW * scale)));
+		int dstH = Math.max(1, Math.min(height, (int) Math.round(srcH * scale)));
+		int left = (width - dstW) / 2;
+		int top = (height - dstH) / 2;
+
+		float[] luma = new float[width * height];
+
+		for (int ty = 0; ty < dstH; ty++) {
+			int y0 = (int) ((long) ty * srcH / dstH);
+			int y1 = Math.max(y0 + 1, (int) ((long) (ty + 1) * srcH / dstH));
+			for (int tx = 0; tx < dstW; tx++) {
+				int x0 = (int) ((long) tx * srcW / dstW);
+				int x1 = Math.max(x0 + 1, (int) ((long) (tx + 1) * srcW / dstW));
+
+				// box average, transparent pixels count as off
+				long sum = 0;
+				for (int sy = y0; sy < y1; sy++) {
+					for (int sx = x0, p = sy * srcW + x0; sx < x1; sx++, p++) {
+						int c = argb[p];
+						int a = c >>> 24;
+						int l = (77 * (c >>> 16 & 0xFF) + 150 * (c >>> 8 & 0xFF) + 29 * (c & 0xFF)) >>> 8;
+						sum += (inverted ? 255 - l : l) * a / 255;
+					}
+				}
+				luma[(top + ty) * width + left + tx] = (float) sum / ((y1 - y0) * (x1 - x0));
+			}
+		}
+
+		int[] rows = new int[getFrameWords()];
+
+		switch (dithering) {
+		case THRESHOLD:
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					if (luma[y * width + x] >= threshold) {
+						light(rows, x, y);
+					}
+				}
+			}
+			break;
+		case ORDERED:
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					if (luma[y * width + x] > BAYER_4X4[(y & 3) << 2 | (x & 3)] * 16 + 8) {
+						light(rows, x, y);
+					}
+				}
+			}
+			break;
+		case FLOYD_STEINBERG:
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					int p = y * width + x;
+					float value = luma[p];
+					boolean on = value >= threshold;
+					if (on) {
+						light(rows, x, y);
+					}
+					float error = value - (on ? 255 : 0);
+					if (x + 1 < width) {
+						luma[p + 1] += error * 7 / 16;
+					}
+					if (y + 1 < height) {
+						if (x > 0) {
+							luma[p + width - 1] += error * 3 / 16;
+						}
+						luma[p + width] += error * 5 / 16;
+						if (x + 1 < width) {
+							luma[p + width + 1] += error / 16;
+						}
+					}
+				}
+			}
+			break;
+		}
+
+		return rows;
+	}
+
+	private void light(int[] rows, int x, int y) {
+		rows[y * modulesWide + (x >>> 5)] |= 0x80000000 >>> (x & 31);
+	}
+
+	/**
+	 * GIF logical screen on which partial frames are composited
+	 */
+	private static final class GifScreen {
+
+		final int width;
+		final int height;
+		final BufferedImage canvas;
+		int delayMillis;
+
+		GifScreen(IIOMetadata streamMetadata, BufferedImage first) {
+
+			int w = first.getWidth();
+			int h = first.getHeight();
+
+			IIOMetadataNode screen = child(streamMetadata, GIF_STREAM_METADATA, "LogicalScreenDescriptor");
+			if (screen != null) {
+				w = Math.max(1, intAttribute(screen, "logicalScreenWidth", w));
+				h = Math.max(1, intAttribute(screen, "logicalScreenHeight", h));
+			}
+
+			this.width = w;
+			this.height = h;
+			this.canvas = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+		}
+
+		/**
+		 * Draws the frame over the screen and applies its disposal method
+		 * @param image
+		 * @param metadata
+		 * @return the composited screen, a new array
+		 */
+		int[] compose(BufferedImage image, IIOMetadata metadata) {
+
+			int left = 0;
+			int top = 0;
+			String disposal = "none";
+			delayMillis = 0;
+
+			IIOMetadataNode descriptor = child(metadata, GIF_IMAGE_METADATA, "ImageDescriptor");
+			if (descriptor != null) {
+				left = intAttribute(descriptor, "imageLeftPosition", 0);
+				top = intAttribute(descriptor, "imageTopPosition", 0);
+			}
+
+			IIOMetadataNode control = child(metadata, GIF_IMAGE_METADATA, "GraphicControlExtension");
+			if (control != null) {
+				disposal = control.getAttribute("disposalMethod");
+				delayMillis = intAttribute(control, "delayTime", 0) * 10;
+			}
+
+			int[] previous = "restoreToPrevious".equals(disposal)
+					? canvas.getRGB(0, 0, width, height, null, 0, width)
+					: null;
+
+			Graphics2D g = canvas.createGraphics();
+			try {
+				g.drawImage(image, left, top, null);
+				int[] composed = canvas.getRGB(0, 0, width, height, null, 0, width);
+
+				if ("restoreToBackgroundColor".equals(disposal)) {
+					g.setComposite(AlphaComposite.Clear);
+					g.fillRect(left, top, image.getWidth(), image.getHeight());
+				} else if (previous != null) {
+					canvas.setRGB(0, 0, width, height, previous, 0, width);
+				}
+
+				return composed;
+			} finally {
+				g.dispose();
+			}
+		}
+
+		private static IIOMetadataNode child(IIOMetadata metadata, String format, String name) {
+
+			if (metadata == null) {
+				return null;
+			}
+
+			try {
+				IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+				for (int i = 0; i < root.getLength(); i++) {
+					if (name.equals(root.item(i).getNodeName())) {
+						return (IIOMetadataNode) root.item(i);
+					}
+				}
+			} catch (IllegalArgumentException e) {
+				// not GIF metadata
+			}
+			return null;
+		}
+
+		private static int intAttribute(IIOMetadataNode node, String name, int fallback) {
+			try {
+				return Integer.parseInt(node.getAttribute(name));
+			} catch (NumberFormatException e) {
+				return fallback;
+			}
+		}
+	}
+
+}
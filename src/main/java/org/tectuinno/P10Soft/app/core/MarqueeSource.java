@@ -0,0 +1,211 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Scrolling text source for a single 16x32 module.
+ * <p>
+ * The message is rendered once into a packed bitmap as wide as the text;
+ * every call to {@link #next(byte[], int)} cuts the visible 32 column window
+ * out of it with two shifts per row and encodes it through the panel mapping.
+ * No frame is stored, so memory grows with the text width (two bytes per
+ * column) and not with the number of frames.
+ * </p>
+ * <p>
+ * Each pass starts and ends with a blank panel: the text enters from one side
+ * and leaves completely through the other.
+ * </p>
+ */
+public final class MarqueeSource implements FrameSource {
+
+	/**
+	 * Scrolling direction of the text
+	 */
+	public enum Direction {
+
+		LEFT("Hacia la izquierda"),
+		RIGHT("Hacia la derecha");
+
+		private final String label;
+
+		private Direction(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	public static final int MAX_SPEED = BitFrame.COLS;
+
+	private final PanelMapping mapping;
+	private final int textWidth;
+	private final int wordsPerRow;
+	/** Rendered message, {@code wordsPerRow} words per row, MSB = leftmost pixel */
+	private final int[] canvas;
+	/** Visible window of the current frame, reused on every tick */
+	private final int[] window = new int[BitFrame.ROWS];
+
+	private Direction direction = Direction.LEFT;
+	private int speed = 1;
+	private boolean looping;
+	private int index;
+
+	public MarqueeSource(BitmapFont font, CharSequence text) {
+		this(font, text, PanelMapping.DEFAULT);
+	}
+
+	/**
+	 * @param font    font used to render the text, vertically centered
+	 * @param text
+	 * @param mapping scan layout and orientation of the panel
+	 */
+	public MarqueeSource(BitmapFont font, CharSequence text, PanelMapping mapping) {
+
+		this.mapping = mapping;
+		this.textWidth = font.measure(text);
+		this.wordsPerRow = Math.max(1, (textWidth + 31) >>> 5);
+		this.canvas = new int[BitFrame.ROWS * wordsPerRow];
+
+		int y = (BitFrame.ROWS - font.getHeight()) / 2;
+		font.drawString(canvas, wordsPerRow, BitFrame.ROWS, text, 0, Math.max(0, y));
+	}
+
+	public Direction getDirection() {
+		return direction;
+	}
+
+	public void setDirection(Direction direction) {
+		this.direction = direction;
+	}
+
+	/**
+	 * @return pixels the text moves on every frame
+	 */
+	public int getSpeed() {
+		return speed;
+	}
+
+	/**
+	 * Changes the pixels per frame; the current position is kept when it still
+	 * falls inside a pass.
+	 * @param speed 1 .. {@link #MAX_SPEED}
+	 */
+	public void setSpeed(int speed) {
+		if (speed < 1 || speed > MAX_SPEED) {
+			throw new IllegalArgumentException("Velocidad no válida: " + speed);
+		}
+		this.speed = speed;
+		this.index = Math.min(index, size());
+	}
+
+	public boolean isLooping() {
+		return looping;
+	}
+
+	/**
+	 * @param looping when true {@link #next(byte[], int)} starts a new pass
+	 *                instead of returning false at the end
+	 */
+	public void setLooping(boolean looping) {
+		this.looping = looping;
+	}
+
+	/**
+	 * @return width of the rendered text in pixels
+	 */
+	public int getTextWidth() {
+		return textWidth;
+	}
+
+	@Override
+	public boolean next(byte[] out, int offset) {
+
+		if (index >= size()) {
+			if (!looping) {
+				return false;
+			}
+			index = 0;
+		}
+
+		int x = direction == Direction.LEFT ? index * speed - BitFrame.COLS : textWidth - index * speed;
+		cutWindow(x);
+		mapping.encode(window, 0, 1, out, offset);
+		index++;
+		return true;
+	}
+
+	@Override
+	public void seek(int frameIndex) {
+		if (frameIndex < 0 || frameIndex > size()) {
+			throw new IndexOutOfBoundsException("Frame fuera de la marquesina: " + frameIndex);
+		}
+		index = frameIndex;
+	}
+
+	@Override
+	public int position() {
+		return index;
+	}
+
+	/**
+	 * @return frames from the text entering the panel to it leaving completely
+	 */
+	@Override
+	public int size() {
+		return (textWidth + BitFrame.COLS + speed - 1) / speed;
+	}
+
+	/**
+	 * Copies the 32 columns starting at canvas column {@code x} into
+	 * {@link #window}; columns outside the text are blank
+	 * @param x
+	 */
+	private void cutWindow(int x) {
+
+		int word = x >> 5;
+		int shift = x & 31;
+
+		for (int r = 0; r < BitFrame.ROWS; r++) {
+			int base = r * wordsPerRow;
+			int high = word >= 0 && word < wordsPerRow ? canvas[base + word] : 0;
+			if (shift == 0) {
+				window[r] = high;
+			} else {
+				int low = word + 1 >= 0 && word + 1 < wordsPerRow ? canvas[base + word + 1] : 0;
+				window[r] = high << shift | low >>> (32 - shift);
+			}
+		}
+	}
+
+}
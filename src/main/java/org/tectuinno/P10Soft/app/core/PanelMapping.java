@@ -0,0 +1,202 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Precomputed permutation from a drawing to the P10-Link RAM order for one
+ * {@link ScanLayout} and {@link PanelOrientation}.
+ * <p>
+ * The table is built once per combination and shared. When every encoded byte
+ * comes from one aligned 8-column block of a drawing row, as in the normal and
+ * vertically mirrored cases, the mapping encodes with a byte gather like
+ * {@link FrameConverter#encodeRamFrame(BitFrame, byte[], int)}; otherwise it
+ * gathers the 512 bits one by one. Either way the path is fixed when the table
+ * is built and a frame is encoded in a single pass.
+ * </p>
+ * <p>
+ * {@link #DEFAULT} (1/4 scan, normal) produces exactly the legacy frame.
+ * </p>
+ */
+public final class PanelMapping {
+
+	private static final int PIXELS = BitFrame.ROWS * BitFrame.COLS;
+	private static final int SIZE = FrameConverter.RAM_FRAME_SIZE;
+
+	private static final Map<ScanLayout, Map<PanelOrientation, PanelMapping>> MAPPINGS = new EnumMap<>(ScanLayout.class);
+
+	static {
+		for (ScanLayout layout : ScanLayout.values()) {
+			Map<PanelOrientation, PanelMapping> byOrientation = new EnumMap<>(PanelOrientation.class);
+			for (PanelOrientation orientation : PanelOrientation.values()) {
+				byOrientation.put(orientation, new PanelMapping(layout, orientation));
+			}
+			MAPPINGS.put(layout, byOrientation);
+		}
+	}
+
+	/** Original P10-Link wiring: 1/4 scan, panel mounted normally */
+	public static final PanelMapping DEFAULT = of(ScanLayout.QUARTER, PanelOrientation.NORMAL);
+
+	private final ScanLayout layout;
+	private final PanelOrientation orientation;
+
+	/** Source row and right shift of each output bit, {@code 8 * byte + bit} */
+	private final byte[] bitRow = new byte[PIXELS];
+	private final byte[] bitShift = new byte[PIXELS];
+	/** Source row and right shift of each output byte, only for aligned mappings */
+	private final byte[] byteRow = new byte[SIZE];
+	private final byte[] byteShift = new byte[SIZE];
+	private final boolean byteAligned;
+	/** Output bit that holds each drawing pixel, {@code row * 32 + col} */
+	private final short[] pixelBit = new short[PIXELS];
+
+	private PanelMapping(ScanLayout layout, PanelOrientation orientation) {
+
+		this.layout = layout;
+		this.orientation = orientation;
+
+		int scanLines = layout.getScanLines();
+		int rowsPerLine = layout.getRowsPerLine();
+		int bytesPerLine = SIZE / scanLines;
+		boolean aligned = true;
+
+		for (int out = 0; out < SIZE; out++) {
+
+			int line = out / bytesPerLine;
+			int block = 3 - (out % bytesPerLine) / rowsPerLine;
+			int physicalRow = line + scanLines * (out % rowsPerLine);
+
+			int first = orientation.sourcePixel(physicalRow, 8 * block);
+			for (int bit = 0; bit < 8; bit++) {
+				int source = orientation.sourcePixel(physicalRow, 8 * block + bit);
+				int index = 8 * out + bit;
+				bitRow[index] = (byte) (source / BitFrame.COLS);
+				bitShift[index] = (byte) (BitFrame.COLS - 1 - source % BitFrame.COLS);
+				pixelBit[source] = (short) index;
+				aligned &= source == first + bit;
+			}
+
+			aligned &= first % 8 == 0;
+			byteRow[out] = (byte) (first / BitFrame.COLS);
+			byteShift[out] = (byte) (24 - first % BitFrame.COLS);
+		}
+
+		this.byteAligned = aligned;
+	}
+
+	/**
+	 * Returns the shared mapping for a scan layout and orientation
+	 * @param layout
+	 * @param orientation
+	 * @return
+	 */
+	public static PanelMapping of(ScanLayout layout, PanelOrientation orientation) {
+		return MAPPINGS.get(layout).get(orientation);
+	}
+
+	/**
+	 * Encodes a frame into {@code out[offset .. offset + 63]}
+	 * @param frame
+	 * @param out
+	 * @param offset
+	 */
+	public void encode(BitFrame frame, byte[] out, int offset) {
+		encode(frame.rows, 0, 1, out, offset);
+	}
+
+	/**
+	 * Encodes a 16x32 window of a larger packed canvas, drawing row {@code r}
+	 * being the word {@code rows[base + r * stride]}
+	 * @param rows packed row words, MSB = leftmost column
+	 * @param base index of the first row word
+	 * @param stride distance between consecutive row words
+	 * @param out
+	 * @param offset
+	 */
+	public void encode(int[] rows, int base, int stride, byte[] out, int offset) {
+
+		if (offset < 0 || out.length - offset < SIZE) {
+			throw new IndexOutOfBoundsException("Buffer sin espacio para el frame");
+		}
+
+		if (byteAligned) {
+			for (int i = 0; i < SIZE; i++) {
+				out[offset + i] = (byte) (rows[base + byteRow[i] * stride] >>> byteShift[i]);
+			}
+			return;
+		}
+
+		for (int i = 0, bit = 0; i < SIZE; i++) {
+			int value = 0;
+			for (int end = bit + 8; bit < end; bit++) {
+				value = (value << 1) | ((rows[base + bitRow[bit] * stride] >>> bitShift[bit]) & 1);
+			}
+			out[offset + i] = (byte) value;
+		}
+	}
+
+	/**
+	 * Byte of the encoded frame that holds a drawing pixel
+	 * @param row drawing row
+	 * @param col drawing column
+	 * @return
+	 */
+	public int ramOffset(int row, int col) {
+		return pixelBit[row * BitFrame.COLS + col] >>> 3;
+	}
+
+	/**
+	 * Bit of the byte given by {@link #ramOffset(int, int)} that holds the pixel
+	 * @param row
+	 * @param col
+	 * @return
+	 */
+	public int ramMask(int row, int col) {
+		return 0x80 >>> (pixelBit[row * BitFrame.COLS + col] & 7);
+	}
+
+	public ScanLayout getLayout() {
+		return layout;
+	}
+
+	public PanelOrientation getOrientation() {
+		return orientation;
+	}
+
+	@Override
+	public String toString() {
+		return "Scan " + layout + ", " + orientation;
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Way a P10 module is mounted relative to the drawing.
+ * <p>
+ * The quarter turns show the module as a 32 rows by 16 columns portrait area.
+ * Portrait frames are kept in a regular {@link BitFrame}, packed row major: the
+ * portrait row {@code r} lives in frame row {@code r / 2}, columns
+ * {@code 16 * (r % 2)} to {@code 16 * (r % 2) + 15}.
+ * </p>
+ */
+public enum PanelOrientation {
+
+	NORMAL("Normal"),
+	/** Module turned a quarter clockwise */
+	ROTATE_90("90°"),
+	/** Module mounted upside down */
+	ROTATE_180("180°"),
+	/** Module turned a quarter counter clockwise */
+	ROTATE_270("270°"),
+	/** Left and right swapped */
+	MIRROR_HORIZONTAL("Espejo horizontal"),
+	/** Top and bottom swapped */
+	MIRROR_VERTICAL("Espejo vertical");
+
+	private final String label;
+
+	private PanelOrientation(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * Index, inside the 512 pixels of a {@link BitFrame}, of the drawing pixel
+	 * that is shown at the physical position {@code (row, col)} of the module
+	 * @param row physical row 0..15
+	 * @param col physical column 0..31
+	 * @return {@code frameRow * 32 + frameCol}
+	 */
+	int sourcePixel(int row, int col) {
+
+		int lastRow = BitFrame.ROWS - 1;
+		int lastCol = BitFrame.COLS - 1;
+
+		switch (this) {
+		case ROTATE_90:
+			return portraitPixel(col, lastRow - row);
+		case ROTATE_180:
+			return (lastRow - row) * BitFrame.COLS + (lastCol - col);
+		case ROTATE_270:
+			return portraitPixel(lastCol - col, row);
+		case MIRROR_HORIZONTAL:
+			return row * BitFrame.COLS + (lastCol - col);
+		case MIRROR_VERTICAL:
+			return (lastRow - row) * BitFrame.COLS + col;
+		default:
+			return row * BitFrame.COLS + col;
+		}
+	}
+
+	/**
+	 * @return true for the quarter turns, which expect a portrait drawing
+	 */
+	public boolean isPortrait() {
+		return this == ROTATE_90 || this == ROTATE_270;
+	}
+
+	private static int portraitPixel(int portraitRow, int portraitCol) {
+		return portraitRow * BitFrame.ROWS + portraitCol;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+
+}
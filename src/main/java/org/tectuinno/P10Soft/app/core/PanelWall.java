@@ -0,0 +1,283 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.util.Arrays;
+
+/**
+ * Large monochrome canvas shown on a grid of chained P10 modules.
+ * <p>
+ * The canvas is {@code 32 * modulesWide} pixels wide and {@code 16 * modulesHigh}
+ * pixels high and is stored as packed row words, one {@code int} per canvas row
+ * and module column (MSB = leftmost pixel), the same layout as {@link BitFrame}.
+ * A module is therefore a strided 16 word window of the canvas and is encoded
+ * in place, without copying it to a frame first.
+ * </p>
+ * <p>
+ * {@link #encode(byte[], int)} writes one 64 byte RAM frame per module in chain
+ * order, that is the order the modules are daisy chained from the P10-Link
+ * output. Each module may have its own {@link PanelMapping}, for example the
+ * upside down rows of a serpentine chain.
+ * </p>
+ */
+public class PanelWall {
+
+	/**
+	 * Order in which the data cable runs through the modules, starting at the
+	 * top left one
+	 */
+	public enum ChainOrder {
+		/** Every module row from left to right */
+		ROW_MAJOR("Por filas"),
+		/** Left to right on even rows, right to left on odd rows */
+		SERPENTINE("Serpentina");
+
+		private final String label;
+
+		private ChainOrder(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	private final int modulesWide;
+	private final int modulesHigh;
+	private final ChainOrder chainOrder;
+	final int[] rows;
+	private final PanelMapping[] mappings;
+
+	public PanelWall(int modulesWide, int modulesHigh) {
+		this(modulesWide, modulesHigh, ChainOrder.ROW_MAJOR);
+	}
+
+	public PanelWall(int modulesWide, int modulesHigh, ChainOrder chainOrder) {
+
+		if (modulesWide < 1 || modulesHigh < 1) {
+			throw new IllegalArgumentException("El muro debe tener al menos un módulo");
+		}
+
+		this.modulesWide = modulesWide;
+		this.modulesHigh = modulesHigh;
+		this.chainOrder = chainOrder;
+		this.rows = new int[BitFrame.ROWS * modulesHigh * modulesWide];
+		this.mappings = new PanelMapping[modulesWide * modulesHigh];
+		Arrays.fill(this.mappings, PanelMapping.DEFAULT);
+	}
+
+	public int getWidth() {
+		return BitFrame.COLS * modulesWide;
+	}
+
+	public int getHeight() {
+		return BitFrame.ROWS * modulesHigh;
+	}
+
+	public int getModuleCount() {
+		return modulesWide * modulesHigh;
+	}
+
+	public int getModulesWide() {
+		return modulesWide;
+	}
+
+	public int getModulesHigh() {
+		return modulesHigh;
+	}
+
+	public ChainOrder getChainOrder() {
+		return chainOrder;
+	}
+
+	/**
+	 * @return bytes produced by {@link #encode(byte[], int)}
+	 */
+	public int getEncodedSize() {
+		return getModuleCount() * FrameConverter.RAM_FRAME_SIZE;
+	}
+
+	public boolean get(int x, int y) {
+		return (rows[wordIndex(x, y)] & mask(x)) != 0;
+	}
+
+	public void set(int x, int y, boolean on) {
+		if (on) {
+			rows[wordIndex(x, y)] |= mask(x);
+		} else {
+			rows[wordIndex(x, y)] &= ~mask(x);
+		}
+	}
+
+	public boolean toggle(int x, int y) {
+		rows[wordIndex(x, y)] ^= mask(x);
+		return get(x, y);
+	}
+
+	public void clear() {
+		Arrays.fill(rows, 0);
+	}
+
+	/**
+	 * Returns the 32 pixels of canvas row {@code y} that fall on module column
+	 * {@code moduleX}, MSB = leftmost
+	 * @param moduleX
+	 * @param y
+	 * @return
+	 */
+	public int getWord(int moduleX, int y) {
+		return rows[y * modulesWide + moduleX];
+	}
+
+	public void setWord(int moduleX, int y, int bits) {
+		rows[y * modulesWide + moduleX] = bits;
+	}
+
+	/**
+	 * Copies a frame into the module at grid position {@code (moduleX, moduleY)}
+	 * @param moduleX
+	 * @param moduleY
+	 * @param frame
+	 */
+	public void setModuleFrame(int moduleX, int moduleY, BitFrame frame) {
+		int base = moduleBase(moduleX, moduleY);
+		for (int row = 0; row < BitFrame.ROWS; row++) {
+			rows[base + row * modulesWide] = frame.rows[row];
+		}
+	}
+
+	/**
+	 * Copies the module at grid position {@code (moduleX, moduleY)} into {@code frame}
+	 * @param moduleX
+	 * @param moduleY
+	 * @param frame destination
+	 */
+	public void getModuleFrame(int moduleX, int moduleY, BitFrame frame) {
+		int base = moduleBase(moduleX, moduleY);
+		for (int row = 0; row < BitFrame.ROWS; row++) {
+			frame.rows[row] = rows[base + row * modulesWide];
+		}
+	}
+
+	/**
+	 * Sets the scan layout and orientation of the module at a chain position
+	 * @param chainIndex 0 = first module after the P10-Link
+	 * @param mapping
+	 */
+	public void setModuleMapping(int chainIndex, PanelMapping mapping) {
+		mappings[chainIndex] = mapping;
+	}
+
+	public PanelMapping getModuleMapping(int chainIndex) {
+		return mappings[chainIndex];
+	}
+
+	/**
+	 * Grid column of the module at a chain position
+	 * @param chainIndex
+	 * @return
+	 */
+	public int moduleX(int chainIndex) {
+		int column = chainIndex % modulesWide;
+		if (chainOrder == ChainOrder.SERPENTINE && (chainIndex / modulesWide) % 2 == 1) {
+			return modulesWide - 1 - column;
+		}
+		return column;
+	}
+
+	/**
+	 * Grid row of the module at a chain position
+	 * @param chainIndex
+	 * @return
+	 */
+	public int moduleY(int chainIndex) {
+		return chainIndex / modulesWide;
+	}
+
+	/**
+	 * Encodes the module at one chain position into {@code out[offset .. offset + 63]}
+	 * @param chainIndex
+	 * @param out
+	 * @param offset
+	 */
+	public void encodeModule(int chainIndex, byte[] out, int offset) {
+		mappings[chainIndex].encode(rows, moduleBase(moduleX(chainIndex), moduleY(chainIndex)), modulesWide, out,
+				offset);
+	}
+
+	/**
+	 * Encodes the whole wall, module {@code i} of the chain at
+	 * {@code offset + 64 * i}. Modules are encoded one after another on the
+	 * calling thread and nothing is allocated: a 12 module wall takes a couple of
+	 * microseconds, well under the time the link needs to send one module, so
+	 * splitting it across threads costs more than it saves. Animations are
+	 * encoded in parallel per frame instead, see {@link ParallelFrameEncoder}.
+	 * @param out
+	 * @param offset
+	 */
+	public void encode(byte[] out, int offset) {
+
+		if (offset < 0 || out.length - offset < getEncodedSize()) {
+			throw new IndexOutOfBoundsException("Buffer sin espacio para el muro");
+		}
+
+		for (int i = 0; i < getModuleCount(); i++) {
+			encodeModule(i, out, offset + i * FrameConverter.RAM_FRAME_SIZE);
+		}
+	}
+
+	public byte[] encode() {
+		byte[] out = new byte[getEncodedSize()];
+		encode(out, 0);
+		return out;
+	}
+
+	private int moduleBase(int moduleX, int moduleY) {
+		if (moduleX < 0 || moduleX >= modulesWide || moduleY < 0 || moduleY >= modulesHigh) {
+			throw new IndexOutOfBoundsException("Módulo fuera del muro: " + moduleX + "," + moduleY);
+		}
+		return moduleY * BitFrame.ROWS * modulesWide + moduleX;
+	}
+
+	private int wordIndex(int x, int y) {
+		if (x < 0 || x >= getWidth() || y < 0 || y >= getHeight()) {
+			throw new IndexOutOfBoundsException("Pixel fuera del muro: " + x + "," + y);
+		}
+		return y * modulesWide + (x >>> 5);
+	}
+
+	private static int mask(int x) {
+		return 0x80000000 >>> (x & 31);
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Encodes a list of frame snapshots in parallel on a fork-join pool.
+ * <p>
+ * The input frames must not change while the encoding runs, callers take
+ * immutable snapshots first (see {@link BitFrame#copy()}). Results come back in
+ * the same order as the input, progress is reported after each chunk and the
+ * work stops early when the cancellation check returns {@code true}.
+ * </p>
+ */
+public class ParallelFrameEncoder {
+
+	/**
+	 * Receives the number of frames encoded so far. It is called from the pool
+	 * threads, implementations must be thread safe.
+	 */
+	public interface ProgressListener {
+		void progress(int done, int total);
+	}
+
+	/** Frames encoded by a single task before it stops splitting */
+	private static final int CHUNK = 32;
+
+	private final ForkJoinPool pool;
+
+	public ParallelFrameEncoder() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public ParallelFrameEncoder(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Encodes every snapshot through {@code cache}
+	 * @param snapshots frames to encode, not modified during the call
+	 * @param cache shared cache, identical frames get the same buffer
+	 * @param listener progress callback, may be {@code null}
+	 * @param cancelled checked between chunks, may be {@code null}
+	 * @return encoded frames in input order; empty, without any progress
+	 *         callback, when there is nothing to encode
+	 * @throws CancellationException if {@code cancelled} became true
+	 */
+	public List<byte[]> encodeAll(List<BitFrame> snapshots, EncodedFrameCache cache, ProgressListener listener,
+			BooleanSupplier cancelled) throws CancellationException {
+
+		if (snapshots.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		BitFrame[] frames = snapshots.toArray(new BitFrame[0]);
+		byte[][] results = new byte[frames.length][];
+		AtomicInteger done = new AtomicInteger();
+
+		pool.invoke(new EncodeTask(frames, results, 0, frames.length, cache, listener, cancelled, done));
+
+		if (cancelled != null && cancelled.getAsBoolean()) {
+			throw new CancellationException("Serialización cancelada");
+		}
+
+		return new ArrayList<>(Arrays.asList(results));
+	}
+
+	private static final class EncodeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BitFrame[] frames;
+		private final byte[][] results;
+		private final int from;
+		private final int to;
+		private final EncodedFrameCache cache;
+		private final ProgressListener listener;
+		private final BooleanSupplier cancelled;
+		private final AtomicInteger done;
+
+		EncodeTask(BitFrame[] frames, byte[][] results, int from, int to, EncodedFrameCache cache,
+				ProgressListener listener, BooleanSupplier cancelled, AtomicInteger done) {
+			this.frames = frames;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.cache = cache;
+			this.listener = listener;
+			this.cancelled = cancelled;
+			this.done = done;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (cancelled != null && cancelled.getAsBoolean()) {
+				return;
+			}
+
+			if (to - from > CHUNK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new EncodeTask(frames, results, from, middle, cache, listener, cancelled, done),
+						new EncodeTask(frames, results, middle, to, cache, listener, cancelled, done));
+				return;
+			}
+
+			for (int i = from; i < to; i++) {
+				results[i] = cache.encode(frames[i]);
+			}
+
+			int total = done.addAndGet(to - from);
+			if (listener != null) {
+				listener.progress(total, frames.length);
+			}
+		}
+	}
+
+}
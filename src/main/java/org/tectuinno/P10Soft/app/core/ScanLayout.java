@@ -0,0 +1,72 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Multiplexing scheme of a P10 module, i.e. how many row groups share the
+ * driver outputs. The P10-Link RAM holds, for every scan line, the 8-column
+ * blocks from right to left and inside each block the rows driven by that line
+ * from top to bottom.
+ */
+public enum ScanLayout {
+
+	/** 1/2 scan: 2 scan lines, 8 rows each */
+	HALF(2),
+	/** 1/4 scan: 4 scan lines, 4 rows each, the original P10-Link wiring */
+	QUARTER(4),
+	/** 1/8 scan: 8 scan lines, 2 rows each */
+	EIGHTH(8),
+	/** 1/16 scan: one row per scan line */
+	SIXTEENTH(16);
+
+	private final int scanLines;
+
+	private ScanLayout(int scanLines) {
+		this.scanLines = scanLines;
+	}
+
+	public int getScanLines() {
+		return scanLines;
+	}
+
+	/**
+	 * @return panel rows driven by each scan line
+	 */
+	public int getRowsPerLine() {
+		return BitFrame.ROWS / scanLines;
+	}
+
+	@Override
+	public String toString() {
+		return "1/" + scanLines;
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+/**
+ * Precomputed binary code modulation schedule of one {@link GrayFrame}.
+ * <p>
+ * The schedule holds one encoded 64 byte subframe per bitplane and the order
+ * in which they are shown, each entry lasting {@code 2^bit} time units. For
+ * depths of 3 or more the most significant plane is split in two halves placed
+ * apart from each other (bit angle modulation), which halves the longest dark
+ * or bright gap and reduces visible flicker. All encoding happens in
+ * {@link #of(GrayFrame, PanelMapping)}, the transmitter only walks the arrays.
+ * </p>
+ */
+public final class SubframeSchedule {
+
+	private final byte[] subframes;
+	private final int[] order;
+	private final int[] units;
+	private final int period;
+
+	private SubframeSchedule(byte[] subframes, int[] order, int[] units) {
+		this.subframes = subframes;
+		this.order = order;
+		this.units = units;
+		int total = 0;
+		for (int unit : units) {
+			total += unit;
+		}
+		this.period = total;
+	}
+
+	/**
+	 * Splits a grayscale frame into its weighted bitplanes and encodes them
+	 * @param frame
+	 * @param mapping scan layout and orientation of the target panel
+	 * @return
+	 */
+	public static SubframeSchedule of(GrayFrame frame, PanelMapping mapping) {
+
+		int depth = frame.getDepth();
+		byte[] subframes = new byte[depth * FrameConverter.RAM_FRAME_SIZE];
+		BitFrame plane = new BitFrame();
+		for (int bit = 0; bit < depth; bit++) {
+			frame.getBitplane(bit, plane);
+			mapping.encode(plane, subframes, bit * FrameConverter.RAM_FRAME_SIZE);
+		}
+
+		int msb = depth - 1;
+		if (depth < 3) {
+			int[] order = new int[depth];
+			int[] units = new int[depth];
+			for (int i = 0; i < depth; i++) {
+				order[i] = msb - i;
+				units[i] = 1 << order[i];
+			}
+			return new SubframeSchedule(subframes, order, units);
+		}
+
+		// MSB half, lower planes of the first group, MSB half, the remaining lower planes
+		int[] order = new int[depth + 1];
+		int[] units = new int[depth + 1];
+		int half = (msb + 1) / 2;
+		int position = 0;
+		order[position] = msb;
+		units[position++] = 1 << (msb - 1);
+		for (int bit = 0; bit < half; bit++) {
+			order[position] = bit;
+			units[position++] = 1 << bit;
+		}
+		order[position] = msb;
+		units[position++] = 1 << (msb - 1);
+		for (int bit = half; bit < msb; bit++) {
+			order[position] = bit;
+			units[position++] = 1 << bit;
+		}
+		return new SubframeSchedule(subframes, order, units);
+	}
+
+	/**
+	 * @return number of subframe slots in one modulation period
+	 */
+	public int getSlotCount() {
+		return order.length;
+	}
+
+	/**
+	 * @param slot
+	 * @return offset inside {@link #getSubframes()} of the subframe shown in a slot
+	 */
+	public int getSubframeOffset(int slot) {
+		return order[slot] * FrameConverter.RAM_FRAME_SIZE;
+	}
+
+	/**
+	 * @param slot
+	 * @return duration of a slot in time units
+	 */
+	public int getUnits(int slot) {
+		return units[slot];
+	}
+
+	/**
+	 * @return length of one modulation period in time units, {@code 2^depth - 1}
+	 */
+	public int getPeriodUnits() {
+		return period;
+	}
+
+	/**
+	 * @return all encoded bitplanes, 64 bytes each, read only
+	 */
+	public byte[] getSubframes() {
+		return subframes;
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.core;
+
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch encoder built on the incubating {@code jdk.incubator.vector} API.
+ * <p>
+ * The 64 byte RAM frame is seen as 16 little endian words: word {@code 4g + j}
+ * packs byte {@code j} of the panel rows {@code g, g + 4, g + 8, g + 12}. Each
+ * lane computes one word by gathering those four rows, shifting them by the
+ * lane's block and OR-ing the bytes together, so a 512 bit machine encodes a
+ * whole frame with four gathers and one store.
+ * </p>
+ * <p>
+ * The class is only compiled with the {@code vector} Maven profile
+ * ({@code mvn -Pvector}) and only loaded when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}; {@link FrameConverter} falls back to
+ * {@link ScalarFrameBatchEncoder} otherwise.
+ * </p>
+ */
+public class VectorFrameBatchEncoder implements FrameBatchEncoder {
+
+	private static final int WORDS = FrameConverter.RAM_FRAME_SIZE / 4;
+
+	private final VectorSpecies<Integer> species;
+	private final int chunks;
+	/** Gather maps, {@code ROW_INDEX[16k + w]} is the row feeding byte k of word w */
+	private final int[] rowIndex = new int[4 * WORDS];
+	private final IntVector[] shifts;
+
+	public VectorFrameBatchEncoder() {
+
+		VectorSpecies<Integer> preferred = IntVector.SPECIES_PREFERRED;
+		if (preferred.length() > WORDS) {
+			preferred = IntVector.SPECIES_512;
+		}
+		if (preferred.length() < 4) {
+			throw new UnsupportedOperationException("Ancho vectorial insuficiente: " + preferred);
+		}
+
+		this.species = preferred;
+		this.chunks = WORDS / species.length();
+
+		int[] shift = new int[WORDS];
+		for (int w = 0; w < WORDS; w++) {
+			int g = w / 4;
+			int j = w % 4;
+			shift[w] = 8 * j;
+			for (int k = 0; k < 4; k++) {
+				rowIndex[16 * k + w] = g + 4 * k;
+			}
+		}
+
+		this.shifts = new IntVector[chunks];
+		for (int c = 0; c < chunks; c++) {
+			shifts[c] = IntVector.fromArray(species, shift, c * species.length());
+		}
+	}
+
+	@Override
+	public void encode(BitFrame[] frames, int from, int count, byte[] out, int offset) {
+
+		if (offset < 0 || out.length - offset < count * FrameConverter.RAM_FRAME_SIZE) {
+			throw new IndexOutOfBoundsException("Buffer sin espacio para " + count + " frames");
+		}
+
+		int lanes = species.length();
+		for (int f = 0; f < count; f++) {
+			int[] rows = frames[from + f].rows;
+			int base = offset + f * FrameConverter.RAM_FRAME_SIZE;
+
+			for (int c = 0; c < chunks; c++) {
+				int word = c * lanes;
+				IntVector acc = IntVector.zero(species);
+				for (int k = 0; k < 4; k++) {
+					IntVector v = IntVector.fromArray(species, rows, 0, rowIndex, 16 * k + word);
+					acc = acc.or(v.lanewise(VectorOperators.LSHR, shifts[c]).and(0xFF).lanewise(VectorOperators.LSHL, 8 * k));
+				}
+				acc.intoByteArray(out, base + 4 * word, ByteOrder.LITTLE_ENDIAN);
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "vector";
+	}
+
+}
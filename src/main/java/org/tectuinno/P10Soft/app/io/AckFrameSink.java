@@ -0,0 +1,345 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends messages in {@link AckProtocol} packets and keeps up to a window of
+ * them in flight until the board acknowledges them.
+ * <p>
+ * A reader thread consumes the one byte replies: an ACK releases every packet
+ * up to it, a NAK makes the sink go back and resend from the packet the board
+ * is missing. A packet left unacknowledged for the ACK timeout is resent
+ * together with everything after it. With a window of 1 each message waits
+ * for the previous one to be consumed; larger windows keep the link busy
+ * while the replies are on their way, so frames can be sent as fast as the
+ * board actually takes them instead of at a padded, safe interval.
+ * </p>
+ * <p>
+ * The send methods block while the window is full, for at most the send
+ * timeout. Packets stay queued for retransmission even when the first write
+ * fails. Messages longer than {@link AckProtocol#MAX_PAYLOAD}, such as a whole
+ * wall, are split into consecutive packets.
+ * </p>
+ */
+public class AckFrameSink implements FrameSink {
+
+	public static final int DEFAULT_WINDOW = 4;
+
+	private final FrameSink link;
+	private final ReplySource replies;
+	private final int window;
+	private final Object lock = new Object();
+
+	/** Packets in flight, by sequence modulo the window */
+	private final byte[][] packets;
+	private final int[] packetLengths;
+	private final long[] sentAt;
+	/** Oldest unacknowledged and next sequence, never wrapped */
+	private long base;
+	private long next;
+
+	private final Thread reader;
+	private volatile boolean closed;
+	private volatile long ackTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(200);
+	private volatile long sendTimeoutNanos = TimeUnit.SECONDS.toNanos(1);
+
+	private volatile long acknowledgedPackets;
+	private volatile long retransmissions;
+	private volatile long naks;
+	private volatile long timeouts;
+
+	public AckFrameSink(SerialSession session) {
+		this(session, session, DEFAULT_WINDOW);
+	}
+
+	/**
+	 * @param link    carries the packets
+	 * @param replies the board's answers, read only by this sink's thread
+	 * @param window  packets that may be unacknowledged at once, 1 to
+	 *                {@link AckProtocol#MAX_WINDOW}
+	 */
+	public AckFrameSink(FrameSink link, ReplySource replies, int window) {
+		if (window < 1 || window > AckProtocol.MAX_WINDOW) {
+			throw new IllegalArgumentException("Ventana no válida: " + window);
+		}
+		this.link = link;
+		this.replies = replies;
+		this.window = window;
+		this.packets = new byte[window][AckProtocol.MAX_PACKET_SIZE];
+		this.packetLengths = new int[window];
+		this.sentAt = new long[window];
+
+		this.reader = new Thread(this::readLoop, "p10-ack-reader-" + link.getName());
+		this.reader.setDaemon(true);
+		this.reader.start();
+	}
+
+	public FrameSink getLink() {
+		return link;
+	}
+
+	public int getWindow() {
+		return window;
+	}
+
+	public long getAckTimeoutNanos() {
+		return ackTimeoutNanos;
+	}
+
+	/**
+	 * @param ackTimeoutNanos time without a reply after which the oldest packet
+	 *                        in flight is resent
+	 */
+	public void setAckTimeoutNanos(long ackTimeoutNanos) {
+		if (ackTimeoutNanos <= 0) {
+			throw new IllegalArgumentException("Tiempo de espera no válido: " + ackTimeoutNanos);
+		}
+		this.ackTimeoutNanos = ackTimeoutNanos;
+	}
+
+	public long getSendTimeoutNanos() {
+		return sendTimeoutNanos;
+	}
+
+	/**
+	 * @param sendTimeoutNanos longest a send waits for room in the window
+	 */
+	public void setSendTimeoutNanos(long sendTimeoutNanos) {
+		if (sendTimeoutNanos < 0) {
+			throw new IllegalArgumentException("Tiempo de espera no válido: " + sendTimeoutNanos);
+		}
+		this.sendTimeoutNanos = sendTimeoutNanos;
+	}
+
+	@Override
+	public boolean open() {
+		return !closed && link.open();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return !closed && link.isOpen();
+	}
+
+	@Override
+	public int getConnectionCount() {
+		return link.getConnectionCount();
+	}
+
+	@Override
+	public String getName() {
+		return link.getName() + " (ACK)";
+	}
+
+	/**
+	 * Queues one message as the next packets, at most
+	 * {@link AckProtocol#MAX_PAYLOAD} bytes each, waiting for room in the window
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return false if there was no room in time, the sink is closed or a
+	 *         first write failed; packets queued before that stay queued
+	 */
+	@Override
+	public boolean send(byte[] data, int offset, int length) {
+
+		synchronized (lock) {
+			boolean written = true;
+			int end = offset + length;
+			do {
+				int count = Math.min(AckProtocol.MAX_PAYLOAD, end - offset);
+				long sequence = next;
+				written &= sendPacket(data, offset, count);
+				if (next == sequence) {
+					return false;
+				}
+				offset += count;
+			} while (offset < end);
+			return written;
+		}
+	}
+
+	private boolean sendPacket(byte[] data, int offset, int length) {
+
+		synchronized (lock) {
+
+			long waitDeadline = System.nanoTime() + sendTimeoutNanos;
+			while (next - base >= window) {
+				long now = System.nanoTime();
+				if (closed) {
+					return false;
+				}
+				retransmitExpired(now);
+				long remaining = waitDeadline - now;
+				if (remaining <= 0) {
+					return false;
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait(lock, Math.min(remaining, ackTimeoutNanos));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			if (closed) {
+				return false;
+			}
+
+			int slot = (int) (next % window);
+			packetLengths[slot] = AckProtocol.encode((int) next, data, offset, length, packets[slot], 0);
+			sentAt[slot] = System.nanoTime();
+			next++;
+			return link.send(packets[slot], 0, packetLengths[slot]);
+		}
+	}
+
+	/**
+	 * Waits until the board has acknowledged every packet sent so far
+	 * @param timeoutNanos
+	 * @return true if nothing is left in flight
+	 * @throws InterruptedException
+	 */
+	public boolean awaitAcknowledged(long timeoutNanos) throws InterruptedException {
+		long deadline = System.nanoTime() + timeoutNanos;
+		synchronized (lock) {
+			long remaining;
+			while (next != base && !closed && (remaining = deadline - System.nanoTime()) > 0) {
+				TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+			}
+			return next == base;
+		}
+	}
+
+	/**
+	 * @return packets sent and not acknowledged yet
+	 */
+	public int getInFlight() {
+		synchronized (lock) {
+			return (int) (next - base);
+		}
+	}
+
+	public long getAcknowledgedPackets() {
+		return acknowledgedPackets;
+	}
+
+	/**
+	 * @return packets written again after a NAK or a timeout
+	 */
+	public long getRetransmissions() {
+		return retransmissions;
+	}
+
+	public long getNakCount() {
+		return naks;
+	}
+
+	/**
+	 * @return times the oldest packet went unacknowledged for the ACK timeout
+	 */
+	public long getTimeoutCount() {
+		return timeouts;
+	}
+
+	/**
+	 * Stops the reader, fails waiting sends and closes the link
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		reader.interrupt();
+		synchronized (lock) {
+			lock.notifyAll();
+		}
+		link.close();
+	}
+
+	private void readLoop() {
+
+		byte[] buffer = new byte[64];
+
+		while (!closed) {
+			int read = replies.read(buffer, 0, buffer.length);
+			synchronized (lock) {
+				for (int i = 0; i < read; i++) {
+					reply(buffer[i] & 0xFF);
+				}
+				retransmitExpired(System.nanoTime());
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/** Called with the lock held */
+	private void reply(int reply) {
+
+		// the only packet within the window with these low bits
+		int sequence = reply & AckProtocol.SEQUENCE_MASK;
+		long packet = base + ((sequence - base) & AckProtocol.SEQUENCE_MASK);
+
+		if ((reply & AckProtocol.NAK) == 0) {
+			if (packet < next) {
+				acknowledgedPackets += packet + 1 - base;
+				base = packet + 1;
+			}
+			return;
+		}
+
+		naks++;
+		if (packet <= next) {
+			acknowledgedPackets += packet - base;
+			base = packet;
+			resendFrom(packet);
+		}
+	}
+
+	/** Called with the lock held */
+	private void retransmitExpired(long now) {
+		if (next != base && now - sentAt[(int) (base % window)] >= ackTimeoutNanos) {
+			timeouts++;
+			resendFrom(base);
+		}
+	}
+
+	/** Called with the lock held */
+	private void resendFrom(long packet) {
+		long now = System.nanoTime();
+		for (long p = packet; p < next; p++) {
+			int slot = (int) (p % window);
+			sentAt[slot] = now;
+			retransmissions++;
+			link.send(packets[slot], 0, packetLengths[slot]);
+		}
+	}
+
+}
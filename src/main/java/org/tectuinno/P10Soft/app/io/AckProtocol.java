@@ -0,0 +1,141 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+/**
+ * Packet format of the acknowledged transmission mode.
+ * <p>
+ * Every message travels in a packet with a sequence number and a CRC, and the
+ * board answers each one with a single byte:
+ * </p>
+ * <table border="1">
+ * <tr><th>Message</th><th>Layout</th><th>Size</th></tr>
+ * <tr><td>Packet</td><td>{@code 0xA5}, sequence (0-127), payload length,
+ * payload, CRC-16/CCITT of sequence, length and payload (big endian)</td>
+ * <td>5 + n</td></tr>
+ * <tr><td>ACK</td><td>{@code 0x00 | s}: every packet up to {@code s} has been
+ * consumed</td><td>1</td></tr>
+ * <tr><td>NAK</td><td>{@code 0x80 | s}: packet {@code s} is missing or damaged,
+ * send again from it</td><td>1</td></tr>
+ * </table>
+ * <p>
+ * The board accepts packets strictly in order (go-back-N): a damaged or out of
+ * order packet is dropped and answered with one NAK for the sequence it
+ * expects. After a reset it accepts whatever sequence comes first, so the host
+ * doesn't need to know about reboots. With 7 bit sequence numbers at most
+ * {@link #MAX_WINDOW} packets may be unacknowledged at a time.
+ * </p>
+ */
+public final class AckProtocol {
+
+	public static final int SYNC = 0xA5;
+	public static final int NAK = 0x80;
+	public static final int SEQUENCE_MASK = 0x7F;
+	public static final int MAX_WINDOW = 64;
+	public static final int OVERHEAD = 5;
+	public static final int MAX_PAYLOAD = 255;
+	public static final int MAX_PACKET_SIZE = OVERHEAD + MAX_PAYLOAD;
+
+	private static final char[] CRC_TABLE = new char[256];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			int crc = i << 8;
+			for (int bit = 0; bit < 8; bit++) {
+				crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+			}
+			CRC_TABLE[i] = (char) crc;
+		}
+	}
+
+	private AckProtocol() {
+	}
+
+	/**
+	 * Wraps a payload in a packet
+	 * @param sequence  only the low 7 bits are used
+	 * @param payload
+	 * @param offset
+	 * @param length    at most {@link #MAX_PAYLOAD}
+	 * @param out
+	 * @param outOffset
+	 * @return packet size
+	 */
+	public static int encode(int sequence, byte[] payload, int offset, int length, byte[] out, int outOffset) {
+		if (length < 0 || length > MAX_PAYLOAD) {
+			throw new IllegalArgumentException("Mensaje demasiado largo: " + length);
+		}
+		out[outOffset] = (byte) SYNC;
+		out[outOffset + 1] = (byte) (sequence & SEQUENCE_MASK);
+		out[outOffset + 2] = (byte) length;
+		System.arraycopy(payload, offset, out, outOffset + 3, length);
+		int crc = crc16(out, outOffset + 1, length + 2);
+		out[outOffset + 3 + length] = (byte) (crc >>> 8);
+		out[outOffset + 4 + length] = (byte) crc;
+		return length + OVERHEAD;
+	}
+
+	/**
+	 * Checks the CRC of a complete packet
+	 * @param packet
+	 * @param offset start of the sync byte
+	 * @return true if the packet is intact
+	 */
+	public static boolean isValid(byte[] packet, int offset) {
+		int length = packet[offset + 2] & 0xFF;
+		int crc = ((packet[offset + 3 + length] & 0xFF) << 8) | (packet[offset + 4 + length] & 0xFF);
+		return packet[offset] == (byte) SYNC && crc16(packet, offset + 1, length + 2) == crc;
+	}
+
+	/**
+	 * CRC-16/CCITT-FALSE (polynomial 0x1021, initial value 0xFFFF)
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return the 16 bit CRC
+	 */
+	public static int crc16(byte[] data, int offset, int length) {
+		int crc = 0xFFFF;
+		for (int i = offset; i < offset + length; i++) {
+			crc = ((crc << 8) ^ CRC_TABLE[((crc >>> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+		}
+		return crc;
+	}
+
+	public static byte ack(int sequence) {
+		return (byte) (sequence & SEQUENCE_MASK);
+	}
+
+	public static byte nak(int sequence) {
+		return (byte) (NAK | (sequence & SEQUENCE_MASK));
+	}
+
+}
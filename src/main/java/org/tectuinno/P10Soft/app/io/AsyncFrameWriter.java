@@ -0,0 +1,346 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Writes to a {@link FrameSink} on a dedicated I/O thread and reports each
+ * write through a {@link CompletableFuture}.
+ * <p>
+ * Every request carries a deadline. Its future completes with
+ * {@link Status#TIMED_OUT} as soon as the deadline passes, even while the I/O
+ * thread is still stuck in a write to a wedged device, so the caller learns
+ * within milliseconds that the frame missed its slot and never blocks on the
+ * port. Requests that are already done when their turn comes, because they
+ * expired or were cancelled, are skipped without touching the sink.
+ * </p>
+ * <p>
+ * Data is copied on submission, so callers may reuse their buffers right
+ * away. When the queue is full the oldest waiting request is cancelled: on a
+ * display only the newest frame matters.
+ * </p>
+ */
+public class AsyncFrameWriter implements AutoCloseable {
+
+	/**
+	 * Outcome of one request
+	 */
+	public enum Status {
+
+		COMPLETE("Completa"),
+		PARTIAL("Parcial"),
+		FAILED("Fallida"),
+		TIMED_OUT("Fuera de plazo"),
+		CANCELLED("Cancelada");
+
+		private final String label;
+
+		private Status(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	/**
+	 * Status and byte count of a finished request
+	 */
+	public static final class WriteResult {
+
+		private final Status status;
+		private final int bytesWritten;
+		private final int length;
+
+		WriteResult(Status status, int bytesWritten, int length) {
+			this.status = status;
+			this.bytesWritten = bytesWritten;
+			this.length = length;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return bytes that reached the sink; 0 for requests that timed out
+		 *         or were cancelled, whose write may still finish later
+		 */
+		public int getBytesWritten() {
+			return bytesWritten;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		public boolean isComplete() {
+			return status == Status.COMPLETE;
+		}
+
+		@Override
+		public String toString() {
+			return status + " (" + bytesWritten + "/" + length + ")";
+		}
+	}
+
+	private static final class Request {
+
+		final byte[] data;
+		final boolean frame;
+		final CompletableFuture<WriteResult> future = new CompletableFuture<>();
+
+		Request(byte[] data, boolean frame) {
+			this.data = data;
+			this.frame = frame;
+		}
+	}
+
+	public static final int DEFAULT_CAPACITY = 4;
+
+	private final FrameSink sink;
+	private final ArrayBlockingQueue<Request> queue;
+	private final Thread thread;
+
+	private volatile boolean closed;
+	private volatile Request current;
+	private volatile long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private volatile long completedWrites;
+	private volatile long failedWrites;
+	private volatile long lateWrites;
+	private volatile long skippedRequests;
+
+	public AsyncFrameWriter(FrameSink sink) {
+		this(sink, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param sink     written only from the writer's own thread
+	 * @param capacity requests that may wait behind the one being written
+	 */
+	public AsyncFrameWriter(FrameSink sink, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacidad no válida: " + capacity);
+		}
+		this.sink = sink;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.thread = new Thread(this::writeLoop, "p10-async-writer-" + sink.getName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	public FrameSink getSink() {
+		return sink;
+	}
+
+	public long getTimeoutNanos() {
+		return timeoutNanos;
+	}
+
+	/**
+	 * @param timeoutNanos deadline for requests submitted without their own
+	 */
+	public void setTimeoutNanos(long timeoutNanos) {
+		if (timeoutNanos <= 0) {
+			throw new IllegalArgumentException("Tiempo de espera no válido: " + timeoutNanos);
+		}
+		this.timeoutNanos = timeoutNanos;
+	}
+
+	/**
+	 * Queues a complete 64 byte RAM frame, written with
+	 * {@link FrameSink#writeFrame(byte[], int)}
+	 * @param frame
+	 * @param offset
+	 * @param timeoutNanos time from now until the frame misses its slot
+	 * @return the outcome; cancelling it before the write starts skips it
+	 */
+	public CompletableFuture<WriteResult> submitFrame(byte[] frame, int offset, long timeoutNanos) {
+		return submit(frame, offset, FrameConverter.RAM_FRAME_SIZE, true, timeoutNanos);
+	}
+
+	public CompletableFuture<WriteResult> submitFrame(byte[] frame, int offset) {
+		return submitFrame(frame, offset, timeoutNanos);
+	}
+
+	/**
+	 * Queues an arbitrary message, written with
+	 * {@link FrameSink#write(byte[], int, int)}
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @param timeoutNanos time from now until the message misses its slot
+	 * @return the outcome; cancelling it before the write starts skips it
+	 */
+	public CompletableFuture<WriteResult> submit(byte[] data, int offset, int length, long timeoutNanos) {
+		return submit(data, offset, length, false, timeoutNanos);
+	}
+
+	public CompletableFuture<WriteResult> submit(byte[] data, int offset, int length) {
+		return submit(data, offset, length, timeoutNanos);
+	}
+
+	/**
+	 * @return requests completed with every byte written
+	 */
+	public long getCompletedWrites() {
+		return completedWrites;
+	}
+
+	/**
+	 * @return requests the sink wrote partially or not at all
+	 */
+	public long getFailedWrites() {
+		return failedWrites;
+	}
+
+	/**
+	 * @return writes that finished after their future had already timed out
+	 */
+	public long getLateWrites() {
+		return lateWrites;
+	}
+
+	/**
+	 * @return requests dropped unwritten because they had expired or were
+	 *         cancelled when their turn came
+	 */
+	public long getSkippedRequests() {
+		return skippedRequests;
+	}
+
+	/**
+	 * @return true while the I/O thread is inside a write
+	 */
+	public boolean isBusy() {
+		return current != null;
+	}
+
+	/**
+	 * Cancels every pending request and stops the I/O thread. Doesn't wait for
+	 * a write in progress, and doesn't close the sink.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		thread.interrupt();
+		Request request = current;
+		if (request != null) {
+			cancel(request);
+		}
+		while ((request = queue.poll()) != null) {
+			cancel(request);
+		}
+	}
+
+	private CompletableFuture<WriteResult> submit(byte[] data, int offset, int length, boolean frame,
+			long timeoutNanos) {
+
+		if (offset < 0 || length < 0 || offset + length > data.length) {
+			throw new IndexOutOfBoundsException("Rango fuera del arreglo: " + offset + "+" + length);
+		}
+
+		byte[] copy = new byte[length];
+		System.arraycopy(data, offset, copy, 0, length);
+		Request request = new Request(copy, frame);
+		request.future.completeOnTimeout(new WriteResult(Status.TIMED_OUT, 0, length), timeoutNanos,
+				TimeUnit.NANOSECONDS);
+
+		if (closed) {
+			cancel(request);
+			return request.future;
+		}
+		while (!queue.offer(request)) {
+			Request oldest = queue.poll();
+			if (oldest != null) {
+				cancel(oldest);
+			}
+		}
+		if (closed && queue.remove(request)) {
+			cancel(request);
+		}
+		return request.future;
+	}
+
+	private void writeLoop() {
+
+		while (!closed) {
+
+			Request request;
+			try {
+				request = queue.take();
+			} catch (InterruptedException e) {
+				continue;
+			}
+
+			if (request.future.isDone()) {
+				skippedRequests++;
+				continue;
+			}
+
+			current = request;
+			int length = request.data.length;
+			int written;
+			try {
+				written = request.frame ? sink.writeFrame(request.data, 0) : sink.write(request.data, 0, length);
+			} catch (RuntimeException e) {
+				System.err.println("Error al escribir en " + sink.getName() + ": " + e.getMessage());
+				written = 0;
+			}
+			current = null;
+
+			Status status;
+			if (written >= length) {
+				status = Status.COMPLETE;
+				completedWrites++;
+			} else {
+				status = written > 0 ? Status.PARTIAL : Status.FAILED;
+				failedWrites++;
+			}
+			if (!request.future.complete(new WriteResult(status, written, length))) {
+				lateWrites++;
+			}
+		}
+	}
+
+	private static void cancel(Request request) {
+		request.future.complete(new WriteResult(Status.CANCELLED, 0, request.data.length));
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces writes to the speed of a UART link, 10 bits per byte (8N1), so that
+ * stand-in sinks take as long as a real serial port
+ */
+final class BaudRateLimiter {
+
+	private final long nanosPerByte;
+	/** Time at which the bytes written so far have left the emulated wire */
+	private long busyUntil;
+
+	/**
+	 * @param baudRate bits per second, 0 for no limit
+	 */
+	BaudRateLimiter(int baudRate) {
+		if (baudRate < 0) {
+			throw new IllegalArgumentException("Velocidad no válida: " + baudRate);
+		}
+		this.nanosPerByte = baudRate == 0 ? 0 : 10_000_000_000L / baudRate;
+	}
+
+	/**
+	 * Blocks until {@code bytes} more bytes would have been transmitted
+	 * @param bytes
+	 */
+	void acquire(int bytes) {
+
+		if (nanosPerByte == 0) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		busyUntil = Math.max(busyUntil, now) + bytes * nanosPerByte;
+
+		long remaining;
+		while ((remaining = busyUntil - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+}
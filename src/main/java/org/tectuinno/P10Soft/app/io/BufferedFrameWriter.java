@@ -0,0 +1,157 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.concurrent.TimeUnit;
+
+import org.tectuinno.P10Soft.app.core.FrameRingBuffer;
+
+/**
+ * Writer thread that drains a {@link FrameRingBuffer} into a {@link FrameSink}.
+ * <p>
+ * Producers (effects, text, importers) only copy frames into the ring, so a
+ * slow or reconnecting link never stalls them; how they are slowed down or
+ * which frames are lost is decided by the ring's
+ * {@link FrameRingBuffer.Policy}.
+ * </p>
+ * <p>
+ * The sink is flushed every time the ring runs empty, so a
+ * {@link CoalescingFrameSink} batches frames only while there is a backlog.
+ * Producers that queue a fixed batch, like the modules of a wall, can turn
+ * that off and let the coalescer's batch size decide instead.
+ * </p>
+ */
+public class BufferedFrameWriter implements Runnable {
+
+	private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private final FrameRingBuffer ring;
+	private final FrameSink sink;
+	private volatile boolean running;
+	private volatile boolean flushWhenEmpty = true;
+	private volatile Thread thread;
+	private volatile long framesWritten;
+	private volatile long failedFrames;
+
+	public BufferedFrameWriter(FrameRingBuffer ring, FrameSink sink) {
+		this.ring = ring;
+		this.sink = sink;
+	}
+
+	/**
+	 * Starts the writer on its own daemon thread
+	 */
+	public synchronized void start() {
+		if (thread != null) {
+			return;
+		}
+		running = true;
+		thread = new Thread(this, "p10-frame-writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Closes the ring and waits for the frames already queued to be written
+	 * @param timeoutMillis longest wait for the writer to finish
+	 * @throws InterruptedException
+	 */
+	public void stop(long timeoutMillis) throws InterruptedException {
+		ring.close();
+		running = false;
+		Thread current = thread;
+		if (current != null) {
+			current.join(timeoutMillis);
+		}
+	}
+
+	@Override
+	public void run() {
+
+		byte[] frame = new byte[FrameRingBuffer.SLOT_SIZE];
+
+		try {
+			while (running || ring.size() > 0) {
+				if (!ring.take(frame, 0, POLL_NANOS)) {
+					if (ring.isClosed() && ring.size() == 0) {
+						break;
+					}
+					continue;
+				}
+				boolean success;
+				try {
+					success = sink.sendFrame(frame, 0);
+					if (flushWhenEmpty && ring.size() == 0) {
+						sink.flush();
+					}
+				} catch (RuntimeException e) {
+					// one bad write must not stop the writer
+					System.err.println("Error al escribir en " + sink.getName() + ": " + e.getMessage());
+					success = false;
+				}
+				if (success) {
+					framesWritten++;
+				} else {
+					failedFrames++;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			thread = null;
+		}
+	}
+
+	public FrameRingBuffer getRing() {
+		return ring;
+	}
+
+	public boolean isFlushWhenEmpty() {
+		return flushWhenEmpty;
+	}
+
+	/**
+	 * @param flushWhenEmpty false to leave the sink unflushed when the ring
+	 *                       runs empty; it is still flushed by its own rules
+	 */
+	public void setFlushWhenEmpty(boolean flushWhenEmpty) {
+		this.flushWhenEmpty = flushWhenEmpty;
+	}
+
+	public long getFramesWritten() {
+		return framesWritten;
+	}
+
+	public long getFailedFrames() {
+		return failedFrames;
+	}
+
+}
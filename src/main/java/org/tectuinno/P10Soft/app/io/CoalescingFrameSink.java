@@ -0,0 +1,329 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Gathers consecutive messages into one larger write to another
+ * {@link FrameSink}.
+ * <p>
+ * Bursts such as the modules of a wall or the subframes of a grayscale period
+ * otherwise cost one {@code writeBytes} call each. Messages are appended to a
+ * buffer that is written out when it reaches the flush size, when the oldest
+ * message in it has waited the maximum delay, or on {@link #flush()}.
+ * {@link BufferedFrameWriter} flushes whenever its ring runs empty, so
+ * frames are only held back while there is a backlog.
+ * </p>
+ * <p>
+ * The buffer is a plain array: jSerialComm writes from {@code byte[]}, so a
+ * direct buffer would only add a copy.
+ * </p>
+ */
+public class CoalescingFrameSink implements FrameSink {
+
+	public static final int DEFAULT_FLUSH_BYTES = 8 * FrameConverter.RAM_FRAME_SIZE;
+	public static final long DEFAULT_MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+	private final FrameSink sink;
+	private final Object lock = new Object();
+	private final Thread flusher;
+
+	private byte[] buffer;
+	private int length;
+	private int messages;
+	/** Set when the buffer holds a single message given to sendFrame */
+	private boolean singleFrame;
+	private long oldestNanos;
+
+	private volatile int flushBytes;
+	private volatile long maxDelayNanos;
+	private volatile boolean closed;
+
+	private volatile long messagesWritten;
+	private volatile long bytesWritten;
+	private volatile long flushes;
+	private volatile long sizeFlushes;
+	private volatile long timeFlushes;
+	private volatile long failedFlushes;
+
+	public CoalescingFrameSink(FrameSink sink) {
+		this(sink, DEFAULT_FLUSH_BYTES, DEFAULT_MAX_DELAY_NANOS);
+	}
+
+	/**
+	 * @param sink          receives the batched writes
+	 * @param flushBytes    batch size that triggers a write, e.g. 64 bytes per
+	 *                      module of a wall
+	 * @param maxDelayNanos longest a message may wait in the buffer, 0 to only
+	 *                      flush on size or on {@link #flush()}
+	 */
+	public CoalescingFrameSink(FrameSink sink, int flushBytes, long maxDelayNanos) {
+		this.sink = sink;
+		setFlushBytes(flushBytes);
+		setMaxDelayNanos(maxDelayNanos);
+
+		this.flusher = new Thread(this::flushLoop, "p10-coalescer-" + sink.getName());
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	public FrameSink getSink() {
+		return sink;
+	}
+
+	public int getFlushBytes() {
+		return flushBytes;
+	}
+
+	/**
+	 * Changes the batch size; the buffer grows so a whole batch still fits in it
+	 * @param flushBytes batch size that triggers a write
+	 */
+	public void setFlushBytes(int flushBytes) {
+		if (flushBytes < 1) {
+			throw new IllegalArgumentException("Tamaño de lote no válido: " + flushBytes);
+		}
+		synchronized (lock) {
+			int capacity = Math.max(flushBytes, FrameConverter.RAM_FRAME_SIZE) * 2;
+			if (buffer == null) {
+				buffer = new byte[capacity];
+			} else if (buffer.length < capacity) {
+				buffer = Arrays.copyOf(buffer, capacity);
+			}
+			this.flushBytes = flushBytes;
+		}
+	}
+
+	public long getMaxDelayNanos() {
+		return maxDelayNanos;
+	}
+
+	/**
+	 * @param maxDelayNanos longest a message may wait, 0 for no limit
+	 */
+	public void setMaxDelayNanos(long maxDelayNanos) {
+		if (maxDelayNanos < 0) {
+			throw new IllegalArgumentException("Retardo no válido: " + maxDelayNanos);
+		}
+		this.maxDelayNanos = maxDelayNanos;
+		LockSupport.unpark(flusher);
+	}
+
+	@Override
+	public boolean open() {
+		return sink.open();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return !closed && sink.isOpen();
+	}
+
+	@Override
+	public int getConnectionCount() {
+		return sink.getConnectionCount();
+	}
+
+	@Override
+	public String getName() {
+		return sink.getName();
+	}
+
+	/**
+	 * Appends a message to the batch, writing the batch out if it is full
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return false if a write made on this call failed or the sink is closed
+	 */
+	@Override
+	public boolean send(byte[] data, int offset, int length) {
+		return append(data, offset, length, false);
+	}
+
+	@Override
+	public boolean sendFrame(byte[] frame, int offset) {
+		return append(frame, offset, FrameConverter.RAM_FRAME_SIZE, true);
+	}
+
+	/**
+	 * Writes out whatever is buffered
+	 * @return false if the write failed
+	 */
+	@Override
+	public boolean flush() {
+		synchronized (lock) {
+			return write();
+		}
+	}
+
+	/**
+	 * Flushes, stops the flusher thread and closes the underlying sink
+	 */
+	@Override
+	public void close() {
+		flush();
+		closed = true;
+		LockSupport.unpark(flusher);
+		sink.close();
+	}
+
+	/**
+	 * @return messages handed to the underlying sink
+	 */
+	public long getMessagesWritten() {
+		return messagesWritten;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * @return writes made to the underlying sink
+	 */
+	public long getFlushes() {
+		return flushes;
+	}
+
+	/**
+	 * @return flushes triggered by the batch reaching the flush size
+	 */
+	public long getSizeFlushes() {
+		return sizeFlushes;
+	}
+
+	/**
+	 * @return flushes triggered by the maximum delay
+	 */
+	public long getTimeFlushes() {
+		return timeFlushes;
+	}
+
+	public long getFailedFlushes() {
+		return failedFlushes;
+	}
+
+	/**
+	 * @return mean messages per write, 0 before the first one
+	 */
+	public double getMessagesPerFlush() {
+		long count = flushes;
+		return count == 0 ? 0 : (double) messagesWritten / count;
+	}
+
+	private boolean append(byte[] data, int offset, int length, boolean frame) {
+
+		if (closed) {
+			return false;
+		}
+
+		synchronized (lock) {
+
+			boolean success = true;
+			if (this.length + length > buffer.length) {
+				success = write();
+				if (length > buffer.length) {
+					buffer = new byte[length];
+				}
+			}
+
+			if (this.length == 0) {
+				oldestNanos = System.nanoTime();
+				LockSupport.unpark(flusher);
+			}
+			singleFrame = this.length == 0 && frame;
+			System.arraycopy(data, offset, buffer, this.length, length);
+			this.length += length;
+			messages++;
+
+			if (this.length >= flushBytes) {
+				sizeFlushes++;
+				success &= write();
+			}
+			return success;
+		}
+	}
+
+	/** Called with the lock held */
+	private boolean write() {
+
+		if (length == 0) {
+			return true;
+		}
+
+		boolean success = singleFrame ? sink.sendFrame(buffer, 0) : sink.send(buffer, 0, length);
+		flushes++;
+		if (success) {
+			messagesWritten += messages;
+			bytesWritten += length;
+		} else {
+			failedFlushes++;
+		}
+		length = 0;
+		messages = 0;
+		singleFrame = false;
+		return success;
+	}
+
+	private void flushLoop() {
+
+		while (!closed) {
+
+			long wait;
+			synchronized (lock) {
+				long delay = maxDelayNanos;
+				if (length == 0 || delay == 0) {
+					wait = -1;
+				} else {
+					wait = oldestNanos + delay - System.nanoTime();
+					if (wait <= 0) {
+						timeFlushes++;
+						write();
+						continue;
+					}
+				}
+			}
+
+			if (wait < 0) {
+				LockSupport.park(this);
+			} else {
+				LockSupport.parkNanos(this, wait);
+			}
+		}
+	}
+
+}
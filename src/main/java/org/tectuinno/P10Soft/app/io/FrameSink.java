@@ -0,0 +1,133 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Destination of encoded frames and wire messages.
+ * <p>
+ * {@link SerialSession} is the sink for real boards; {@link LoopbackFrameSink},
+ * {@link StreamFrameSink} and {@link PtyFrameSink} stand in for it so that the
+ * send path can be tested and measured without hardware. Implementations must
+ * allow {@link #close()} from any thread; the send methods are called by one
+ * thread at a time.
+ * </p>
+ */
+public interface FrameSink extends AutoCloseable {
+
+	/**
+	 * Opens the sink if needed
+	 * @return true if it can take data now
+	 */
+	boolean open();
+
+	boolean isOpen();
+
+	/**
+	 * Writes one message
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return true if all the bytes were written
+	 */
+	boolean send(byte[] data, int offset, int length);
+
+	/**
+	 * Writes one complete 64 byte RAM frame. Sinks that can recover from a lost
+	 * connection may remember it to restore the panel afterwards.
+	 * @param frame
+	 * @param offset
+	 * @return true if the whole frame was written
+	 */
+	default boolean sendFrame(byte[] frame, int offset) {
+		return send(frame, offset, FrameConverter.RAM_FRAME_SIZE);
+	}
+
+	/**
+	 * Like {@link #send(byte[], int, int)}, but reports how far a failed write
+	 * got. Sinks that can't tell report either everything or nothing.
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return bytes written, {@code length} on success
+	 */
+	default int write(byte[] data, int offset, int length) {
+		return send(data, offset, length) ? length : 0;
+	}
+
+	/**
+	 * Like {@link #sendFrame(byte[], int)}, but reports how far a failed write
+	 * got
+	 * @param frame
+	 * @param offset
+	 * @return bytes written, 64 on success
+	 */
+	default int writeFrame(byte[] frame, int offset) {
+		return sendFrame(frame, offset) ? FrameConverter.RAM_FRAME_SIZE : 0;
+	}
+
+	/**
+	 * Writes out anything the sink holds back; a no-op for sinks that write
+	 * immediately
+	 * @return false if the write failed
+	 */
+	default boolean flush() {
+		return true;
+	}
+
+	/**
+	 * @return a number that changes whenever the receiver may have lost its
+	 *         state, e.g. after a reconnect; constant for sinks that never
+	 *         reconnect
+	 */
+	default int getConnectionCount() {
+		return 1;
+	}
+
+	/**
+	 * @return longest a single send may block on a stalled receiver, 0 if the
+	 *         sink can't bound it; callers only need an
+	 *         {@link AsyncFrameWriter} for the latter
+	 */
+	default long getWriteTimeoutNanos() {
+		return 0;
+	}
+
+	/**
+	 * @return port, file or description shown to the user
+	 */
+	String getName();
+
+	@Override
+	void close();
+
+}
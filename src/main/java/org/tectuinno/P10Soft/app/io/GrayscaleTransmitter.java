@@ -0,0 +1,159 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tectuinno.P10Soft.app.core.GrayFrame;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
+import org.tectuinno.P10Soft.app.core.SubframeSchedule;
+
+/**
+ * Transmit mode for grayscale frames using binary code modulation.
+ * <p>
+ * Producers call {@link #submit(GrayFrame)}, which splits and encodes the frame
+ * into a {@link SubframeSchedule} on the producer thread. The transmit thread
+ * ({@link #run()}) only walks the precomputed subframes, writing each one and
+ * holding it for its weighted duration against {@code System.nanoTime()}
+ * deadlines; it switches to the newest schedule at the start of each
+ * modulation period, so a slow producer never stalls the modulation.
+ * </p>
+ * <p>
+ * The time unit must be at least the time the link needs to write one
+ * subframe (about 5.6 ms at 115200 baud); slots that cannot be met are counted
+ * by {@link #getLateSlots()}.
+ * </p>
+ * <p>
+ * Subframes go through any {@link FrameSink}, so the mode works on a single
+ * session, a {@link TransmitterGroup} or a {@link LoopbackFrameSink}.
+ * </p>
+ */
+public class GrayscaleTransmitter implements Runnable {
+
+	/** Below this remaining time the wait spins instead of parking */
+	private static final long SPIN_NANOS = 100_000L;
+
+	private final FrameSink sink;
+	private final PanelMapping mapping;
+	private final long unitNanos;
+	private final AtomicReference<SubframeSchedule> schedule = new AtomicReference<>();
+	private volatile boolean running = true;
+	private volatile long lateSlots;
+	private volatile long periods;
+	private volatile long failedSubframes;
+
+	/**
+	 * @param sink open destination of the subframes
+	 * @param mapping scan layout and orientation of the panel
+	 * @param unitNanos duration of the least significant bitplane
+	 */
+	public GrayscaleTransmitter(FrameSink sink, PanelMapping mapping, long unitNanos) {
+		this.sink = sink;
+		this.mapping = mapping;
+		this.unitNanos = unitNanos;
+	}
+
+	/**
+	 * Precomputes the subframes of a frame and makes them the next to be shown
+	 * @param frame
+	 */
+	public void submit(GrayFrame frame) {
+		schedule.set(SubframeSchedule.of(frame, mapping));
+	}
+
+	@Override
+	public void run() {
+
+		long deadline = System.nanoTime();
+
+		while (running) {
+
+			SubframeSchedule current = schedule.get();
+			if (current == null) {
+				LockSupport.parkNanos(unitNanos);
+				deadline = System.nanoTime();
+				continue;
+			}
+
+			byte[] subframes = current.getSubframes();
+			for (int slot = 0; slot < current.getSlotCount() && running; slot++) {
+				if (!sink.sendFrame(subframes, current.getSubframeOffset(slot))) {
+					failedSubframes++;
+				}
+				deadline += current.getUnits(slot) * unitNanos;
+				if (System.nanoTime() > deadline) {
+					lateSlots++;
+					deadline = System.nanoTime();
+				}
+				waitUntil(deadline);
+			}
+			periods++;
+		}
+	}
+
+	public void stop() {
+		running = false;
+	}
+
+	/**
+	 * @return slots whose write ended after their deadline
+	 */
+	public long getLateSlots() {
+		return lateSlots;
+	}
+
+	/**
+	 * @return modulation periods completed
+	 */
+	public long getPeriods() {
+		return periods;
+	}
+
+	/**
+	 * @return subframes the sink refused
+	 */
+	public long getFailedSubframes() {
+		return failedSubframes;
+	}
+
+	private static void waitUntil(long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+			if (remaining > SPIN_NANOS) {
+				LockSupport.parkNanos(remaining - SPIN_NANOS);
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+	}
+
+}
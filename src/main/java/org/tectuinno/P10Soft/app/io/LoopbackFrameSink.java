@@ -0,0 +1,170 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.Arrays;
+
+/**
+ * In-memory sink that records everything sent to it.
+ * <p>
+ * Meant for tests and benchmarks: it can pace writes to a baud rate, refuse
+ * writes to simulate a broken link, and notify a listener of every message so
+ * that latency can be measured from the producer to the "device".
+ * </p>
+ */
+public class LoopbackFrameSink implements FrameSink {
+
+	/**
+	 * Sees every message as it is written, on the sending thread
+	 */
+	public interface MessageListener {
+		void received(byte[] data, int offset, int length);
+	}
+
+	private final BaudRateLimiter limiter;
+	private final Object lock = new Object();
+
+	private byte[] recorded = new byte[4096];
+	private int recordedLength;
+
+	private volatile boolean open;
+	private volatile boolean recording = true;
+	private volatile boolean failing;
+	private volatile long messageCount;
+	private volatile long bytesWritten;
+	private volatile MessageListener listener;
+
+	public LoopbackFrameSink() {
+		this(0);
+	}
+
+	/**
+	 * @param baudRate emulated link speed, 0 for no limit
+	 */
+	public LoopbackFrameSink(int baudRate) {
+		this.limiter = new BaudRateLimiter(baudRate);
+	}
+
+	@Override
+	public boolean open() {
+		open = true;
+		return true;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public boolean send(byte[] data, int offset, int length) {
+
+		if (!open || failing) {
+			return false;
+		}
+
+		limiter.acquire(length);
+
+		if (recording) {
+			synchronized (lock) {
+				if (recordedLength + length > recorded.length) {
+					recorded = Arrays.copyOf(recorded, Math.max(recorded.length * 2, recordedLength + length));
+				}
+				System.arraycopy(data, offset, recorded, recordedLength, length);
+				recordedLength += length;
+			}
+		}
+
+		messageCount++;
+		bytesWritten += length;
+
+		MessageListener listener = this.listener;
+		if (listener != null) {
+			listener.received(data, offset, length);
+		}
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		return "loopback";
+	}
+
+	@Override
+	public void close() {
+		open = false;
+	}
+
+	/**
+	 * @return a copy of all the recorded bytes
+	 */
+	public byte[] toByteArray() {
+		synchronized (lock) {
+			return Arrays.copyOf(recorded, recordedLength);
+		}
+	}
+
+	/**
+	 * Discards the recorded bytes; counters are kept
+	 */
+	public void clear() {
+		synchronized (lock) {
+			recordedLength = 0;
+		}
+	}
+
+	/**
+	 * @param recording false to only count messages, for long benchmarks
+	 */
+	public void setRecording(boolean recording) {
+		this.recording = recording;
+	}
+
+	/**
+	 * @param failing true to make every send fail, as an unplugged port does
+	 */
+	public void setFailing(boolean failing) {
+		this.failing = failing;
+	}
+
+	public void setMessageListener(MessageListener listener) {
+		this.listener = listener;
+	}
+
+	public long getMessageCount() {
+		return messageCount;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+}
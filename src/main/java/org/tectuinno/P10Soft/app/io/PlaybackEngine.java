@@ -0,0 +1,487 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tectuinno.P10Soft.app.core.DeltaFrameEncoder;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.FrameSource;
+
+/**
+ * Plays a {@link FrameSource} into a {@link FrameSink} at a steady frame rate.
+ * <p>
+ * The player thread keeps an absolute {@code System.nanoTime()} deadline per
+ * frame and advances it by each frame's hold time, so the time spent writing
+ * never accumulates as drift. When a frame is more than one hold time late
+ * the schedule is re-anchored instead of bursting to catch up. With
+ * {@link #setAsyncWrites(boolean)} the writes go through an
+ * {@link AsyncFrameWriter} whose deadline is the end of the frame's slot, so
+ * a wedged device costs frames but never stalls the schedule or
+ * {@link #stop()}.
+ * </p>
+ * <p>
+ * Every control method may be called from any thread. A new program
+ * ({@link #load(FrameSource, int[], boolean)}) is published through a
+ * volatile field and picked up by the player at the next frame boundary; the
+ * source then belongs to the player thread and must not be touched by the
+ * caller anymore.
+ * </p>
+ */
+public class PlaybackEngine {
+
+	/**
+	 * Player state, reported through {@link PlaybackListener}
+	 */
+	public enum State {
+
+		STOPPED("Detenido"),
+		PLAYING("Reproduciendo"),
+		PAUSED("En pausa");
+
+		private final String label;
+
+		private State(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	/**
+	 * Receives state changes, on whichever thread caused them
+	 */
+	public interface PlaybackListener {
+		void stateChanged(PlaybackEngine engine, State state);
+	}
+
+	/**
+	 * Immutable unit of publication between the caller and the player thread
+	 */
+	private static final class Program {
+
+		final FrameSource source;
+		final int[] holdMillis;
+		final boolean loop;
+
+		Program(FrameSource source, int[] holdMillis, boolean loop) {
+			this.source = source;
+			this.holdMillis = holdMillis;
+			this.loop = loop;
+		}
+	}
+
+	public static final double MIN_FPS = 0.1;
+	public static final double MAX_FPS = 120;
+
+	/** Below this remaining time the wait spins instead of parking */
+	private static final long SPIN_NANOS = 100_000L;
+
+	private final FrameSink sink;
+	private final AtomicInteger pendingSeek = new AtomicInteger(-1);
+
+	private volatile Program program;
+	private volatile State state = State.STOPPED;
+	private volatile long periodNanos = 50_000_000L;
+	private volatile int deltaKeyframeInterval = -1;
+	private volatile boolean asyncWrites;
+	private volatile PlaybackListener listener;
+	private volatile Thread player;
+
+	private volatile int position;
+	private volatile long framesSent;
+	private volatile long failedFrames;
+	private volatile long lateFrames;
+	private volatile long jitterSumNanos;
+	private volatile long maxJitterNanos;
+	private volatile boolean resetStatistics;
+
+	/**
+	 * @param sink a {@link SerialSession} for a board, or any stand-in
+	 */
+	public PlaybackEngine(FrameSink sink) {
+		this.sink = sink;
+	}
+
+	public FrameSink getSink() {
+		return sink;
+	}
+
+	/**
+	 * Replaces the frames being played; takes effect at the next frame
+	 * @param source     encoded RAM frames, owned by the engine from now on
+	 * @param holdMillis display time of each frame by position; missing or
+	 *                   non-positive entries use the frame rate. May be null.
+	 * @param loop       rewind at the end instead of stopping
+	 */
+	public void load(FrameSource source, int[] holdMillis, boolean loop) {
+		pendingSeek.set(-1);
+		program = new Program(source, holdMillis == null ? null : holdMillis.clone(), loop);
+	}
+
+	/**
+	 * Starts or resumes playback of the loaded program
+	 */
+	public synchronized void play() {
+
+		if (program == null) {
+			throw new IllegalStateException("No hay frames cargados para reproducir");
+		}
+
+		if (state == State.PAUSED) {
+			setState(State.PLAYING);
+			LockSupport.unpark(player);
+			return;
+		}
+		if (state == State.PLAYING) {
+			return;
+		}
+
+		joinPlayer();
+		setState(State.PLAYING);
+		Thread thread = new Thread(this::playLoop, "p10-playback");
+		thread.setDaemon(true);
+		player = thread;
+		thread.start();
+	}
+
+	/**
+	 * Holds the current frame on the panel until {@link #play()}
+	 */
+	public synchronized void pause() {
+		if (state == State.PLAYING) {
+			setState(State.PAUSED);
+			LockSupport.unpark(player);
+		}
+	}
+
+	/**
+	 * Ends playback; the next {@link #play()} continues from the current
+	 * position of the source
+	 */
+	public synchronized void stop() {
+		if (state != State.STOPPED) {
+			setState(State.STOPPED);
+			LockSupport.unpark(player);
+		}
+	}
+
+	/**
+	 * @param frameIndex frame to show next
+	 */
+	public void seek(int frameIndex) {
+		if (frameIndex < 0) {
+			throw new IndexOutOfBoundsException("Frame no válido: " + frameIndex);
+		}
+		pendingSeek.set(frameIndex);
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @return position of the source after the last frame sent
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	public double getFps() {
+		return 1e9 / periodNanos;
+	}
+
+	/**
+	 * @param fps frames per second for frames without their own hold time
+	 */
+	public void setFps(double fps) {
+		if (!(fps >= MIN_FPS && fps <= MAX_FPS)) {
+			throw new IllegalArgumentException("FPS fuera de rango: " + fps);
+		}
+		periodNanos = Math.round(1e9 / fps);
+	}
+
+	/**
+	 * @param interval keyframe interval for delta transmission, or -1 to send
+	 *                 every frame complete
+	 * @see DeltaFrameEncoder
+	 */
+	public void setDeltaKeyframeInterval(int interval) {
+		deltaKeyframeInterval = interval;
+	}
+
+	public boolean isAsyncWrites() {
+		return asyncWrites;
+	}
+
+	/**
+	 * Only needed for sinks without a write timeout of their own
+	 * ({@link FrameSink#getWriteTimeoutNanos()}); the async path copies every
+	 * frame, the direct one doesn't allocate.
+	 * @param asyncWrites write on a separate I/O thread with each frame's slot
+	 *                    as its deadline, instead of on the player thread
+	 */
+	public void setAsyncWrites(boolean asyncWrites) {
+		this.asyncWrites = asyncWrites;
+	}
+
+	public void setPlaybackListener(PlaybackListener listener) {
+		this.listener = listener;
+	}
+
+	public long getFramesSent() {
+		return framesSent;
+	}
+
+	/**
+	 * @return frames the sink couldn't write, or couldn't write within their
+	 *         slot
+	 */
+	public long getFailedFrames() {
+		return failedFrames;
+	}
+
+	/**
+	 * @return frames that started more than one hold time late
+	 */
+	public long getLateFrames() {
+		return lateFrames;
+	}
+
+	/**
+	 * @return mean delay between a frame's deadline and the start of its write
+	 */
+	public long getMeanJitterNanos() {
+		long frames = framesSent + failedFrames;
+		return frames == 0 ? 0 : jitterSumNanos / frames;
+	}
+
+	public long getMaxJitterNanos() {
+		return maxJitterNanos;
+	}
+
+	/**
+	 * Zeroes the counters before the next frame
+	 */
+	public void resetStatistics() {
+		resetStatistics = true;
+	}
+
+	private void playLoop() {
+		AsyncFrameWriter writer = null;
+		try {
+			writer = asyncWrites ? new AsyncFrameWriter(sink) : null;
+			playLoop(writer);
+		} finally {
+			if (writer != null) {
+				writer.close();
+			}
+		}
+	}
+
+	private void playLoop(AsyncFrameWriter writer) {
+
+		byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+		byte[] wire = new byte[DeltaFrameEncoder.MAX_MESSAGE_SIZE];
+
+		Program current = null;
+		DeltaFrameEncoder delta = null;
+		int deltaInterval = -1;
+		int connection = sink.getConnectionCount();
+		long deadline = System.nanoTime();
+		CompletableFuture<AsyncFrameWriter.WriteResult> pending = null;
+
+		while (true) {
+
+			if (state == State.PAUSED) {
+				LockSupport.park(this);
+				deadline = System.nanoTime();
+				continue;
+			}
+			if (state == State.STOPPED || Thread.currentThread() != player) {
+				return;
+			}
+
+			waitUntil(deadline);
+			if (state != State.PLAYING) {
+				continue;
+			}
+
+			if (pending != null) {
+				AsyncFrameWriter.WriteResult result = pending.getNow(null);
+				if (result != null && result.isComplete()) {
+					framesSent++;
+				} else {
+					failedFrames++;
+					// the board may have missed a delta; restart from a keyframe
+					delta = null;
+				}
+				pending = null;
+			}
+
+			if (resetStatistics) {
+				resetStatistics = false;
+				framesSent = failedFrames = lateFrames = jitterSumNanos = maxJitterNanos = 0;
+			}
+
+			Program next = program;
+			if (next != current) {
+				current = next;
+				delta = null;
+			}
+			FrameSource source = current.source;
+
+			int seek = pendingSeek.getAndSet(-1);
+			if (seek >= 0) {
+				source.seek(Math.min(seek, source.size()));
+			}
+
+			int index = source.position();
+			if (!source.next(frame, 0)) {
+				if (!current.loop || source.size() == 0) {
+					finished();
+					return;
+				}
+				source.seek(0);
+				index = 0;
+				source.next(frame, 0);
+			}
+			position = source.position();
+
+			if (deltaInterval != deltaKeyframeInterval || connection != sink.getConnectionCount()) {
+				deltaInterval = deltaKeyframeInterval;
+				connection = sink.getConnectionCount();
+				delta = null;
+			}
+			if (delta == null && deltaInterval >= 0) {
+				delta = new DeltaFrameEncoder(deltaInterval);
+			}
+
+			long hold = holdNanos(current, index);
+			long jitter = System.nanoTime() - deadline;
+			long slotNanos = Math.max(hold - jitter, 1_000_000L);
+
+			if (writer != null) {
+				if (delta == null) {
+					pending = writer.submitFrame(frame, 0, slotNanos);
+				} else {
+					int length = delta.encode(frame, 0, wire, 0);
+					if (length == 0) {
+						framesSent++;
+					} else {
+						pending = writer.submit(wire, 0, length, slotNanos);
+					}
+				}
+			} else {
+				boolean success;
+				if (delta == null) {
+					success = sink.sendFrame(frame, 0);
+				} else {
+					int length = delta.encode(frame, 0, wire, 0);
+					success = length == 0 || sink.send(wire, 0, length);
+				}
+
+				if (success) {
+					framesSent++;
+				} else {
+					failedFrames++;
+					// the board may have missed a delta; restart from a keyframe
+					delta = null;
+				}
+			}
+			jitterSumNanos += jitter;
+			if (jitter > maxJitterNanos) {
+				maxJitterNanos = jitter;
+			}
+
+			deadline += hold;
+			if (System.nanoTime() - deadline > hold) {
+				lateFrames++;
+				deadline = System.nanoTime();
+			}
+		}
+	}
+
+	private long holdNanos(Program program, int index) {
+		int[] holds = program.holdMillis;
+		if (holds != null && index < holds.length && holds[index] > 0) {
+			return holds[index] * 1_000_000L;
+		}
+		return periodNanos;
+	}
+
+	private synchronized void finished() {
+		if (Thread.currentThread() == player && state != State.STOPPED) {
+			setState(State.STOPPED);
+		}
+	}
+
+	private void joinPlayer() {
+		Thread thread = player;
+		if (thread != null && thread != Thread.currentThread()) {
+			try {
+				thread.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void setState(State state) {
+		this.state = state;
+		PlaybackListener listener = this.listener;
+		if (listener != null) {
+			listener.stateChanged(this, state);
+		}
+	}
+
+	/**
+	 * Waits for the deadline, returning early if the player is paused or
+	 * stopped
+	 * @param deadline
+	 */
+	private void waitUntil(long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0 && state == State.PLAYING) {
+			if (remaining > SPIN_NANOS) {
+				LockSupport.parkNanos(remaining - SPIN_NANOS);
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for a USB serial adapter on Linux: a pseudo-terminal pair created
+ * with {@code socat}.
+ * <p>
+ * Frames are written to one end, paced to the configured baud rate; the other
+ * end ({@link #getDevicePath()}) behaves like a serial device node and can be
+ * opened by a board simulator, {@code cat}, or jSerialComm itself. Requires
+ * {@code socat} on the {@code PATH}.
+ * </p>
+ */
+public class PtyFrameSink implements FrameSink {
+
+	public static final int DEFAULT_BAUD_RATE = 115200;
+
+	private static final long STARTUP_TIMEOUT_MILLIS = 2000;
+
+	private final int baudRate;
+	private final BaudRateLimiter limiter;
+	private Path directory;
+	private Process socat;
+	private volatile OutputStream out;
+
+	public PtyFrameSink() {
+		this(DEFAULT_BAUD_RATE);
+	}
+
+	/**
+	 * @param baudRate emulated link speed, 0 for no limit
+	 */
+	public PtyFrameSink(int baudRate) {
+		this.baudRate = baudRate;
+		this.limiter = new BaudRateLimiter(baudRate);
+	}
+
+	/**
+	 * Starts {@code socat} and opens the host end of the pair
+	 * @return false if {@code socat} is missing or the pair didn't appear in time
+	 */
+	@Override
+	public synchronized boolean open() {
+
+		if (out != null) {
+			return true;
+		}
+
+		try {
+			directory = Files.createTempDirectory("p10-pty");
+			Path host = directory.resolve("host");
+			Path device = directory.resolve("device");
+
+			socat = new ProcessBuilder("socat", "pty,raw,echo=0,link=" + host, "pty,raw,echo=0,link=" + device)
+					.redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectError(ProcessBuilder.Redirect.DISCARD)
+					.start();
+
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STARTUP_TIMEOUT_MILLIS);
+			while (!(Files.exists(host) && Files.exists(device))) {
+				if (!socat.isAlive() || System.nanoTime() > deadline) {
+					System.err.println("socat no creó el par de terminales");
+					close();
+					return false;
+				}
+				Thread.sleep(10);
+			}
+
+			out = new FileOutputStream(host.toFile());
+			return true;
+
+		} catch (IOException e) {
+			System.err.println("No se pudo iniciar socat: " + e.getMessage());
+			close();
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			return false;
+		}
+	}
+
+	@Override
+	public boolean isOpen() {
+		return out != null;
+	}
+
+	@Override
+	public boolean send(byte[] data, int offset, int length) {
+		OutputStream stream = out;
+		if (stream == null) {
+			return false;
+		}
+		limiter.acquire(length);
+		try {
+			stream.write(data, offset, length);
+			return true;
+		} catch (IOException e) {
+			System.err.println("Error al escribir en la terminal: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * @return the end that plays the role of the board, valid while open
+	 */
+	public synchronized Path getDevicePath() {
+		return directory == null ? null : directory.resolve("device");
+	}
+
+	public int getBaudRate() {
+		return baudRate;
+	}
+
+	@Override
+	public String getName() {
+		Path device = getDevicePath();
+		return "pty " + (device == null ? "(cerrado)" : device);
+	}
+
+	@Override
+	public synchronized void close() {
+
+		OutputStream stream = out;
+		out = null;
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				System.err.println("Error al cerrar la terminal: " + e.getMessage());
+			}
+		}
+
+		if (socat != null) {
+			socat.destroy();
+			socat = null;
+		}
+
+		if (directory != null) {
+			try {
+				Files.deleteIfExists(directory.resolve("host"));
+				Files.deleteIfExists(directory.resolve("device"));
+				Files.deleteIfExists(directory);
+			} catch (IOException e) {
+				// socat removes its links on exit; leftovers are harmless
+			}
+			directory = null;
+		}
+	}
+
+}
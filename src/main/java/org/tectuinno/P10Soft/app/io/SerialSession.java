@@ -0,0 +1,355 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Keeps one serial port open across sends and brings it back after the cable
+ * is unplugged.
+ * <p>
+ * All port operations go through a single lock, so {@link #close()} can be
+ * called from any thread while another one is writing: it waits for the write
+ * in progress and later sends fail cleanly. A disconnect reported by the
+ * driver or a failed write moves the session to {@link State#RECONNECTING};
+ * a background thread then retries with exponential backoff and, once the port
+ * is back, resends the last frame given to {@link #sendFrame(byte[], int)} so
+ * the panel doesn't stay on stale content.
+ * </p>
+ * <p>
+ * Replies from the board are read with {@link #read(byte[], int, int)}
+ * without taking the lock, so a reader thread never holds up the writer.
+ * </p>
+ * <p>
+ * The disconnect callback never takes the lock either: it runs on the driver's
+ * event thread, which jSerialComm joins when the port is closed, and closing
+ * happens with the lock held.
+ * </p>
+ */
+public class SerialSession implements FrameSink, ReplySource {
+
+	/**
+	 * Connection state, reported through {@link StateListener}
+	 */
+	public enum State {
+
+		CLOSED("Cerrado"),
+		CONNECTED("Conectado"),
+		RECONNECTING("Reconectando");
+
+		private final String label;
+
+		private State(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	/**
+	 * Receives state changes, on whichever thread caused them
+	 */
+	public interface StateListener {
+		void stateChanged(SerialSession session, State state);
+	}
+
+	public static final long MIN_BACKOFF_MILLIS = 100;
+	public static final long MAX_BACKOFF_MILLIS = 5000;
+
+	private final String portName;
+	private final Object lock = new Object();
+	private final SerialTransmitter transmitter;
+	private final AtomicInteger connections = new AtomicInteger();
+
+	/** Last complete frame, resent after reconnecting */
+	private final byte[] lastFrame = new byte[FrameConverter.RAM_FRAME_SIZE];
+	private boolean hasLastFrame;
+
+	private volatile State state = State.CLOSED;
+	private volatile StateListener listener;
+	private Thread reconnectThread;
+
+	public SerialSession(String portName) {
+		this(portName, new SerialTransmitter());
+	}
+
+	/**
+	 * @param portName
+	 * @param transmitter driver of the port, for example with its own write
+	 *                    timeout; the session owns it from now on
+	 */
+	public SerialSession(String portName, SerialTransmitter transmitter) {
+		this.portName = portName;
+		this.transmitter = transmitter;
+	}
+
+	public String getPortName() {
+		return portName;
+	}
+
+	@Override
+	public String getName() {
+		return portName;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public boolean isConnected() {
+		return state == State.CONNECTED;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return isConnected();
+	}
+
+	/**
+	 * @return successful opens so far; a change tells a sender that the board
+	 *         may have lost its state, e.g. to restart a delta stream with a
+	 *         keyframe
+	 */
+	@Override
+	public int getConnectionCount() {
+		return connections.get();
+	}
+
+	/**
+	 * @return the port's write timeout; a stalled adapter returns a partial
+	 *         write instead of blocking
+	 */
+	@Override
+	public long getWriteTimeoutNanos() {
+		return TimeUnit.MILLISECONDS.toNanos(transmitter.getWriteTimeout());
+	}
+
+	public void setStateListener(StateListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Opens the port if needed. When it can't be opened the session keeps
+	 * retrying in the background until {@link #close()}.
+	 * @return true if the port is open now
+	 */
+	@Override
+	public boolean open() {
+		synchronized (lock) {
+			if (state == State.CONNECTED) {
+				return true;
+			}
+			if (state == State.CLOSED && connect()) {
+				return true;
+			}
+			startReconnecting();
+			return false;
+		}
+	}
+
+	/**
+	 * Sends a complete 64 byte RAM frame and remembers it for resending after a
+	 * reconnect
+	 * @param frame
+	 * @param offset
+	 * @return true if the whole frame was written
+	 */
+	@Override
+	public boolean sendFrame(byte[] frame, int offset) {
+		return writeFrame(frame, offset) == lastFrame.length;
+	}
+
+	@Override
+	public int writeFrame(byte[] frame, int offset) {
+		synchronized (lock) {
+			System.arraycopy(frame, offset, lastFrame, 0, lastFrame.length);
+			hasLastFrame = true;
+			return transmit(frame, offset, lastFrame.length);
+		}
+	}
+
+	/**
+	 * Sends an arbitrary message, such as a delta update. Since it can't be
+	 * replayed on its own, the remembered frame is forgotten.
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return true if all the bytes were written
+	 */
+	@Override
+	public boolean send(byte[] data, int offset, int length) {
+		return write(data, offset, length) == length;
+	}
+
+	@Override
+	public int write(byte[] data, int offset, int length) {
+		synchronized (lock) {
+			hasLastFrame = false;
+			return transmit(data, offset, length);
+		}
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) {
+		int read = state == State.CONNECTED ? transmitter.read(buffer, offset, length) : -1;
+		if (read < 0) {
+			// down or reconnecting: wait as a timed out read would
+			LockSupport.parkNanos(POLL_NANOS);
+			return 0;
+		}
+		return read;
+	}
+
+	/**
+	 * Closes the port and stops reconnecting; sends after this return false
+	 */
+	@Override
+	public void close() {
+		Thread thread;
+		synchronized (lock) {
+			thread = reconnectThread;
+			reconnectThread = null;
+			transmitter.closePort();
+			setState(State.CLOSED);
+		}
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	private int transmit(byte[] data, int offset, int length) {
+		if (state != State.CONNECTED) {
+			return 0;
+		}
+		int written = transmitter.write(data, offset, length);
+		if (written != length) {
+			startReconnecting();
+		}
+		return written;
+	}
+
+	/** Called with the lock held */
+	private boolean connect() {
+		transmitter.closePort();
+		if (!transmitter.openPort(portName)) {
+			return false;
+		}
+		int connection = connections.incrementAndGet();
+		transmitter.setDisconnectListener(() -> onDisconnect(connection));
+		setState(State.CONNECTED);
+		return true;
+	}
+
+	/**
+	 * Runs on the jSerialComm event thread. {@link SerialTransmitter#closePort()}
+	 * joins that thread while holding the lock, so waiting for the lock here
+	 * could deadlock: the reconnect is handed to a short lived thread instead.
+	 * @param connection connection the event belongs to
+	 */
+	private void onDisconnect(int connection) {
+		if (state != State.CONNECTED || connections.get() != connection) {
+			return;
+		}
+		Thread thread = new Thread(() -> connectionLost(connection), "p10-serial-disconnect-" + portName);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void connectionLost(int connection) {
+		synchronized (lock) {
+			// a late event must not drop a connection opened since
+			if (state == State.CONNECTED && connections.get() == connection) {
+				startReconnecting();
+			}
+		}
+	}
+
+	/** Called with the lock held */
+	private void startReconnecting() {
+
+		setState(State.RECONNECTING);
+		if (reconnectThread != null) {
+			return;
+		}
+
+		reconnectThread = new Thread(this::reconnectLoop, "p10-serial-reconnect-" + portName);
+		reconnectThread.setDaemon(true);
+		reconnectThread.start();
+	}
+
+	private void reconnectLoop() {
+
+		long backoff = MIN_BACKOFF_MILLIS;
+
+		try {
+			while (true) {
+
+				Thread.sleep(backoff);
+
+				synchronized (lock) {
+					if (reconnectThread != Thread.currentThread()) {
+						return;
+					}
+					if (connect()) {
+						reconnectThread = null;
+						if (hasLastFrame && !transmitter.send(lastFrame, 0, lastFrame.length)) {
+							startReconnecting();
+						}
+						return;
+					}
+				}
+
+				backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void setState(State state) {
+		if (this.state == state) {
+			return;
+		}
+		this.state = state;
+		StateListener listener = this.listener;
+		if (listener != null) {
+			listener.stateChanged(this, state);
+		}
+	}
+
+}
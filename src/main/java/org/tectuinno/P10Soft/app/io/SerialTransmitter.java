@@ -31,11 +31,29 @@
 package org.tectuinno.P10Soft.app.io;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.tectuinno.P10Soft.app.core.BitFrame;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
+
 import com.fazecast.jSerialComm.SerialPort;
+import com.fazecast.jSerialComm.SerialPortDataListener;
+import com.fazecast.jSerialComm.SerialPortEvent;
+import com.fazecast.jSerialComm.SerialPortInvalidPortException;
 
+/**
+ * Writes frames to the P10-Link board over a serial port.
+ * <p>
+ * The binary methods ({@link #send(byte[], int, int)},
+ * {@link #send(ByteBuffer)}, {@link #sendFrameBuffer()}) hand the bytes
+ * straight to the port without copying or allocating. Internal buffers are
+ * reused between calls, so a transmitter must be used by one sending thread
+ * at a time.
+ * </p>
+ */
 public class SerialTransmitter implements Serializable {
 
 	/**
@@ -43,7 +61,17 @@ public class SerialTransmitter implements Serializable {
 	 */
 	private static final long serialVersionUID = 5943981126324312270L;
 
-	private SerialPort serialPort;
+	public static final int BAUD_RATE = 115200;
+
+	/** Longest a write may block on a stalled adapter */
+	public static final int DEFAULT_WRITE_TIMEOUT_MILLIS = 250;
+
+	private volatile SerialPort serialPort;
+	private int writeTimeoutMillis = DEFAULT_WRITE_TIMEOUT_MILLIS;
+	/** Frame filled by the caller through {@link #getFrameBuffer()} */
+	private final byte[] frameBuffer = new byte[FrameConverter.RAM_FRAME_SIZE];
+	/** Staging area for direct buffers and the hex wrapper, grown on demand */
+	private transient byte[] scratch = new byte[FrameConverter.RAM_FRAME_SIZE];
 	
 	public static List<String> listAviablePorts(){
 		List<String> portNames = new ArrayList<String>();
@@ -54,35 +82,263 @@ public class SerialTransmitter implements Serializable {
 	}
 	
 	public boolean openPort(String portName) {
-		serialPort = SerialPort.getCommPort(portName);
-        serialPort.setComPortParameters(115200, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
-        serialPort.setComPortTimeouts(SerialPort.TIMEOUT_WRITE_BLOCKING, 0, 0);
+		try {
+			serialPort = SerialPort.getCommPort(portName);
+		} catch (SerialPortInvalidPortException e) {
+			// the device is not plugged in (yet)
+			System.err.println("Puerto no válido: " + portName);
+			serialPort = null;
+			return false;
+		}
+        serialPort.setComPortParameters(BAUD_RATE, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
+        serialPort.setComPortTimeouts(SerialPort.TIMEOUT_WRITE_BLOCKING | SerialPort.TIMEOUT_READ_SEMI_BLOCKING,
+        		(int) (ReplySource.POLL_NANOS / 1_000_000L), writeTimeoutMillis);
         return serialPort.openPort();
 	}
 	
+	public int getWriteTimeout() {
+		return writeTimeoutMillis;
+	}
+	
+	/**
+	 * Bounds how long a write may block before it returns with the bytes
+	 * written so far. Longer messages are written in chunks that each fit
+	 * well within it. Takes effect on the next {@link #openPort(String)}.
+	 * Some drivers ignore write timeouts; {@link AsyncFrameWriter} keeps the
+	 * caller's schedule safe in that case.
+	 * @param millis timeout, must be positive
+	 */
+	public void setWriteTimeout(int millis) {
+		if (millis <= 0) {
+			throw new IllegalArgumentException("Tiempo de escritura no válido: " + millis);
+		}
+		writeTimeoutMillis = millis;
+	}
+	
+	/**
+	 * Compatibility wrapper for callers that still hold hex strings; the text is
+	 * parsed into a reused buffer and sent with {@link #send(byte[], int, int)}
+	 * @param hexFrame two hex digits per byte
+	 * @return true if all the bytes were written
+	 */
 	public boolean sendHexFrame(String hexFrame) {
-        if (serialPort == null || !serialPort.isOpen()) {
+        if (!isOpen()) {
             System.err.println("El puerto no está abierto.");
             return false;
         }
 
         // Convertir String Hex → bytes reales
-        byte[] data = hexStringToByteArray(hexFrame);
+        int length = hexStringToByteArray(hexFrame);
+        if (length < 0) {
+            System.err.println("Trama hexadecimal no válida.");
+            return false;
+        }
 
-        int bytesWritten = serialPort.writeBytes(data, data.length);
-        return bytesWritten == data.length;
+        return send(scratch, 0, length);
     }
 	
-	private byte[] hexStringToByteArray(String s) {
+	/**
+	 * Writes raw bytes to the port
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return true if all the bytes were written
+	 */
+	public boolean send(byte[] data, int offset, int length) {
+		return write(data, offset, length) == length;
+	}
+	
+	/**
+	 * Writes raw bytes to the port, stopping at the write timeout. Messages
+	 * longer than {@link #getWriteChunkSize()}, like a whole wall, are written
+	 * chunk by chunk so a healthy link never hits the timeout.
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return bytes written; less than {@code length} if the write timed out or
+	 *         failed
+	 */
+	public int write(byte[] data, int offset, int length) {
+		if (!isOpen()) {
+			System.err.println("El puerto no está abierto.");
+			return 0;
+		}
+		int chunk = getWriteChunkSize();
+		int written = 0;
+		while (written < length) {
+			int count = Math.min(chunk, length - written);
+			int result = writePort(data, offset + written, count);
+			if (result > 0) {
+				written += result;
+			}
+			if (result < count) {
+				break;
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * @return bytes the link carries in half the write timeout, 10 bits per
+	 *         byte on the wire
+	 */
+	public int getWriteChunkSize() {
+		long bytes = (long) BAUD_RATE / 10 * writeTimeoutMillis / 1000 / 2;
+		return (int) Math.max(FrameConverter.RAM_FRAME_SIZE, Math.min(bytes, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * One blocking write to the open port
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return bytes written, negative on error
+	 */
+	int writePort(byte[] data, int offset, int length) {
+		return serialPort.writeBytes(data, length, offset);
+	}
+	
+	/**
+	 * Reads whatever the board has sent, waiting up to
+	 * {@link ReplySource#POLL_NANOS} for the first byte
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @return bytes read, 0 on timeout, -1 if the port is not open or failed
+	 */
+	public int read(byte[] buffer, int offset, int length) {
+		if (serialPort == null || !serialPort.isOpen()) {
+			return -1;
+		}
+		return serialPort.readBytes(buffer, length, offset);
+	}
+	
+	/**
+	 * Writes the remaining bytes of {@code buffer} and advances its position by
+	 * the bytes actually written. Heap buffers are written in place; direct
+	 * buffers go through a reused staging array.
+	 * @param buffer
+	 * @return true if all the remaining bytes were written
+	 */
+	public boolean send(ByteBuffer buffer) {
+		if (!isOpen()) {
+			System.err.println("El puerto no está abierto.");
+			return false;
+		}
+
+		int length = buffer.remaining();
+		int written;
+		if (buffer.hasArray()) {
+			written = write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+		} else {
+			ensureScratch(length);
+			buffer.get(buffer.position(), scratch, 0, length);
+			written = write(scratch, 0, length);
+		}
+
+		if (written > 0) {
+			buffer.position(buffer.position() + written);
+		}
+		return written == length;
+	}
+	
+	/**
+	 * Returns the transmitter's own 64 byte frame; fill it and call
+	 * {@link #sendFrameBuffer()} to send a frame without any allocation
+	 * @return the reusable frame buffer
+	 */
+	public byte[] getFrameBuffer() {
+		return frameBuffer;
+	}
+	
+	/**
+	 * Sends the contents of {@link #getFrameBuffer()}
+	 * @return true if the whole frame was written
+	 */
+	public boolean sendFrameBuffer() {
+		return send(frameBuffer, 0, frameBuffer.length);
+	}
+	
+	/**
+	 * Sends a packed frame, encoding it to the P10-Link RAM order first
+	 * @param frame
+	 * @return true if the whole frame was written
+	 */
+	public boolean sendFrame(BitFrame frame) {
+		FrameConverter.encodeRamFrame(frame, frameBuffer, 0);
+		return sendFrameBuffer();
+	}
+	
+	/**
+	 * Sends a packed frame encoded for the given scan layout and orientation
+	 * @param frame
+	 * @param mapping
+	 * @return true if the whole frame was written
+	 */
+	public boolean sendFrame(BitFrame frame, PanelMapping mapping) {
+		mapping.encode(frame, frameBuffer, 0);
+		return sendFrameBuffer();
+	}
+	
+	/**
+	 * Parses {@code s} into {@link #scratch}
+	 * @param s
+	 * @return bytes parsed, or -1 if the text is not valid hex
+	 */
+	private int hexStringToByteArray(String s) {
         int len = s.length();
-        byte[] data = new byte[len / 2];
+        if ((len & 1) != 0) {
+            return -1;
+        }
+        ensureScratch(len / 2);
         for (int i = 0; i < len; i += 2) {
-            data[i / 2] = (byte) ((Character.digit(s.charAt(i), 16) << 4)
-                                 + Character.digit(s.charAt(i + 1), 16));
+            int high = Character.digit(s.charAt(i), 16);
+            int low = Character.digit(s.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                return -1;
+            }
+            scratch[i / 2] = (byte) ((high << 4) + low);
         }
-        return data;
+        return len / 2;
     }
 	
+	private void ensureScratch(int length) {
+		if (scratch == null || scratch.length < length) {
+			scratch = new byte[Math.max(length, FrameConverter.RAM_FRAME_SIZE)];
+		}
+	}
+	
+	public boolean isOpen() {
+		return serialPort != null && serialPort.isOpen();
+	}
+	
+	/**
+	 * Registers a callback for the port being unplugged. Must be called after a
+	 * successful {@link #openPort(String)}; the callback runs on a jSerialComm
+	 * event thread.
+	 * @param listener
+	 * @return false if the port is not open or the platform can't report it
+	 */
+	public boolean setDisconnectListener(Runnable listener) {
+		if (!isOpen()) {
+			return false;
+		}
+		return serialPort.addDataListener(new SerialPortDataListener() {
+
+			@Override
+			public int getListeningEvents() {
+				return SerialPort.LISTENING_EVENT_PORT_DISCONNECTED;
+			}
+
+			@Override
+			public void serialEvent(SerialPortEvent event) {
+				if (event.getEventType() == SerialPort.LISTENING_EVENT_PORT_DISCONNECTED) {
+					listener.run();
+				}
+			}
+		});
+	}
+	
 	public void closePort() {
         if (serialPort != null && serialPort.isOpen()) {
             serialPort.closePort();
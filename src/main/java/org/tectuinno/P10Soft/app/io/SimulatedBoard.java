@@ -0,0 +1,306 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Software stand-in for a P10-Link running the {@link AckProtocol} firmware.
+ * <p>
+ * Packets written to it are parsed, checked and accepted strictly in order;
+ * the payloads of accepted packets go to {@link #getDisplay()}. Replies
+ * become readable after the board's processing time plus the link latency.
+ * Damaged packets and lost replies can be injected at random, from a fixed
+ * seed so that runs are repeatable.
+ * </p>
+ */
+public class SimulatedBoard implements FrameSink, ReplySource {
+
+	private static final class Reply {
+
+		final long readyAt;
+		final byte value;
+
+		Reply(long readyAt, byte value) {
+			this.readyAt = readyAt;
+			this.value = value;
+		}
+	}
+
+	private final Random random;
+	private final LoopbackFrameSink display = new LoopbackFrameSink();
+	private final ArrayDeque<Reply> replies = new ArrayDeque<>();
+
+	private byte[] received = new byte[AckProtocol.MAX_PACKET_SIZE * 2];
+	private int receivedLength;
+	/** Sequence the board waits for, -1 right after a reset */
+	private int expected = -1;
+	private boolean nakSent;
+	private long busyUntil;
+
+	private volatile boolean open;
+	private volatile long packetNanos;
+	private volatile long latencyNanos;
+	private volatile double corruptionRate;
+	private volatile double replyLossRate;
+
+	private volatile long corruptedPackets;
+	private volatile long duplicatePackets;
+	private volatile long outOfOrderPackets;
+
+	public SimulatedBoard() {
+		this(0);
+	}
+
+	/**
+	 * @param seed for the injected errors
+	 */
+	public SimulatedBoard(long seed) {
+		this.random = new Random(seed);
+		this.display.open();
+	}
+
+	/**
+	 * @return receives the payload of every accepted packet, in order
+	 */
+	public LoopbackFrameSink getDisplay() {
+		return display;
+	}
+
+	/**
+	 * @param packetNanos time the board needs to consume one packet
+	 */
+	public void setPacketNanos(long packetNanos) {
+		this.packetNanos = packetNanos;
+	}
+
+	/**
+	 * @param latencyNanos delay before a reply reaches the host
+	 */
+	public void setLatencyNanos(long latencyNanos) {
+		this.latencyNanos = latencyNanos;
+	}
+
+	/**
+	 * @param corruptionRate probability that a packet arrives damaged
+	 */
+	public void setCorruptionRate(double corruptionRate) {
+		this.corruptionRate = corruptionRate;
+	}
+
+	/**
+	 * @param replyLossRate probability that an ACK or NAK never arrives
+	 */
+	public void setReplyLossRate(double replyLossRate) {
+		this.replyLossRate = replyLossRate;
+	}
+
+	/**
+	 * Forgets the stream state, as a reboot would
+	 */
+	public synchronized void reset() {
+		expected = -1;
+		nakSent = false;
+		receivedLength = 0;
+		replies.clear();
+	}
+
+	@Override
+	public boolean open() {
+		open = true;
+		return true;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public String getName() {
+		return "simulada";
+	}
+
+	@Override
+	public synchronized boolean send(byte[] data, int offset, int length) {
+
+		if (!open) {
+			return false;
+		}
+
+		if (receivedLength + length > received.length) {
+			received = Arrays.copyOf(received, Math.max(received.length * 2, receivedLength + length));
+		}
+		System.arraycopy(data, offset, received, receivedLength, length);
+		receivedLength += length;
+
+		int position = 0;
+		while (true) {
+			while (position < receivedLength && received[position] != (byte) AckProtocol.SYNC) {
+				position++;
+			}
+			if (receivedLength - position < 3) {
+				break;
+			}
+			int payloadLength = received[position + 2] & 0xFF;
+			int size = payloadLength + AckProtocol.OVERHEAD;
+			if (receivedLength - position < size) {
+				break;
+			}
+
+			if (!AckProtocol.isValid(received, position)) {
+				// the framing can't be trusted either, resynchronize
+				corrupted();
+				position++;
+				continue;
+			}
+			if (random.nextDouble() < corruptionRate) {
+				corrupted();
+			} else {
+				packet(received[position + 1] & AckProtocol.SEQUENCE_MASK, position + 3, payloadLength);
+			}
+			position += size;
+		}
+
+		System.arraycopy(received, position, received, 0, receivedLength - position);
+		receivedLength -= position;
+		return true;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) {
+
+		long deadline = System.nanoTime() + POLL_NANOS;
+		synchronized (this) {
+			int read = 0;
+			while (read == 0) {
+				long now = System.nanoTime();
+				Reply head;
+				while (read < length && (head = replies.peek()) != null && head.readyAt - now <= 0) {
+					buffer[offset + read++] = replies.poll().value;
+				}
+				if (read > 0) {
+					break;
+				}
+
+				long wait = deadline - now;
+				if ((head = replies.peek()) != null) {
+					wait = Math.min(wait, head.readyAt - now);
+				}
+				if (deadline - now <= 0) {
+					break;
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait(this, Math.max(wait, 1));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			return read;
+		}
+	}
+
+	@Override
+	public void close() {
+		open = false;
+	}
+
+	public long getCorruptedPackets() {
+		return corruptedPackets;
+	}
+
+	/**
+	 * @return packets received again after they had been accepted
+	 */
+	public long getDuplicatePackets() {
+		return duplicatePackets;
+	}
+
+	/**
+	 * @return packets dropped because one before them was missing
+	 */
+	public long getOutOfOrderPackets() {
+		return outOfOrderPackets;
+	}
+
+	/** Called with the monitor held */
+	private void packet(int sequence, int payloadOffset, int payloadLength) {
+
+		if (expected < 0 || sequence == expected) {
+			display.send(received, payloadOffset, payloadLength);
+			expected = (sequence + 1) & AckProtocol.SEQUENCE_MASK;
+			nakSent = false;
+			long now = System.nanoTime();
+			busyUntil = Math.max(now, busyUntil) + packetNanos;
+			reply(busyUntil, AckProtocol.ack(sequence));
+		} else if (((expected - sequence) & AckProtocol.SEQUENCE_MASK) <= AckProtocol.MAX_WINDOW) {
+			duplicatePackets++;
+			reply(Math.max(System.nanoTime(), busyUntil), AckProtocol.ack(expected - 1));
+		} else {
+			outOfOrderPackets++;
+			nak();
+		}
+	}
+
+	/** Called with the monitor held */
+	private void corrupted() {
+		corruptedPackets++;
+		nak();
+	}
+
+	/** Called with the monitor held */
+	private void nak() {
+		if (expected >= 0 && !nakSent) {
+			nakSent = true;
+			reply(System.nanoTime(), AckProtocol.nak(expected));
+		}
+	}
+
+	/** Called with the monitor held */
+	private void reply(long processedAt, byte value) {
+		if (random.nextDouble() < replyLossRate) {
+			return;
+		}
+		long readyAt = processedAt + latencyNanos;
+		// replies leave in order, never before an earlier one
+		Reply last = replies.peekLast();
+		if (last != null && last.readyAt - readyAt > 0) {
+			readyAt = last.readyAt;
+		}
+		replies.add(new Reply(readyAt, value));
+		notifyAll();
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the byte stream that would go to the board into a file, a named pipe
+ * or any {@link OutputStream}. Every message is flushed, so a process reading
+ * a pipe sees frames as they are sent.
+ */
+public class StreamFrameSink implements FrameSink {
+
+	private final Path path;
+	private final String name;
+	private volatile OutputStream out;
+
+	/**
+	 * @param path file to create or truncate, or an existing FIFO; opened by
+	 *             {@link #open()}
+	 */
+	public StreamFrameSink(Path path) {
+		this.path = path;
+		this.name = path.toString();
+	}
+
+	/**
+	 * @param out  already open stream, closed by {@link #close()}
+	 * @param name shown to the user
+	 */
+	public StreamFrameSink(OutputStream out, String name) {
+		this.path = null;
+		this.name = name;
+		this.out = out;
+	}
+
+	@Override
+	public synchronized boolean open() {
+		if (out != null) {
+			return true;
+		}
+		if (path == null) {
+			return false;
+		}
+		try {
+			out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			return true;
+		} catch (IOException e) {
+			System.err.println("No se pudo abrir " + path + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean isOpen() {
+		return out != null;
+	}
+
+	@Override
+	public boolean send(byte[] data, int offset, int length) {
+		OutputStream stream = out;
+		if (stream == null) {
+			return false;
+		}
+		try {
+			stream.write(data, offset, length);
+			stream.flush();
+			return true;
+		} catch (IOException e) {
+			System.err.println("Error al escribir en " + name + ": " + e.getMessage());
+			close();
+			return false;
+		}
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public synchronized void close() {
+		OutputStream stream = out;
+		out = null;
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				System.err.println("Error al cerrar " + name + ": " + e.getMessage());
+			}
+		}
+	}
+
+}
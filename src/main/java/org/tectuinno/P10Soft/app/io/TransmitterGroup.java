@@ -0,0 +1,382 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Drives several P10-Link boards, one sink (normally a serial port) each, in
+ * lockstep.
+ * <p>
+ * Every sink has its own writer thread. A call to
+ * {@link #send(byte[], int, int, int, long)} copies each board's message into
+ * that board's buffer and then releases all writers at once, so every sign
+ * starts receiving the new frame in the same tick; the total time is that of
+ * the slowest port instead of the sum of all of them.
+ * </p>
+ * <p>
+ * A port that is unplugged fails its writes immediately and reconnects on its
+ * own. A port that is still busy with the previous frame when the next one is
+ * released skips it, so a stalled link never holds back the others.
+ * </p>
+ * <p>
+ * The group is itself a {@link FrameSink} that sends every message to all the
+ * boards, so a {@link PlaybackEngine} can play on several signs at once.
+ * </p>
+ */
+public class TransmitterGroup implements FrameSink {
+
+	private static final int FRAME_SIZE = FrameConverter.RAM_FRAME_SIZE;
+
+	/**
+	 * Writer state of one board
+	 */
+	private final class Lane implements Runnable {
+
+		final FrameSink sink;
+		final Thread thread;
+		byte[] buffer = new byte[FRAME_SIZE];
+		int length;
+		boolean completeFrame;
+
+		/** Generation whose message is in {@link #buffer}; set by the coordinator */
+		volatile long assigned;
+		/** Last generation this lane finished writing; the lane is idle when equal to {@code assigned} */
+		volatile long completed;
+		/** Last generation this lane wrote successfully; set before {@link #completed} */
+		volatile long succeeded;
+
+		volatile long framesWritten;
+		volatile long failedFrames;
+		volatile long skippedFrames;
+
+		Lane(FrameSink sink) {
+			this.sink = sink;
+			this.thread = new Thread(this, "p10-group-writer-" + sink.getName());
+			this.thread.setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+
+			while (running) {
+
+				long g = assigned;
+				if (g == completed || g > released) {
+					LockSupport.park(this);
+					continue;
+				}
+
+				boolean success = completeFrame ? sink.sendFrame(buffer, 0) : sink.send(buffer, 0, length);
+				if (success) {
+					framesWritten++;
+					succeeded = g;
+				} else {
+					failedFrames++;
+				}
+				completed = g;
+
+				Thread waiting = coordinator;
+				if (waiting != null) {
+					LockSupport.unpark(waiting);
+				}
+			}
+		}
+	}
+
+	private final List<Lane> lanes = new ArrayList<>();
+	private final List<String> names;
+
+	/** Number of the last message released by {@link #send(byte[], int, int, int, long)} */
+	private long generation;
+	/** Frame-start barrier: lanes only write generations up to this one */
+	private volatile long released;
+	private volatile boolean running = true;
+	private volatile Thread coordinator;
+	private volatile long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+	/**
+	 * Opens every sink and starts its writer
+	 * @param sinks one sink per board, in chain order; owned by the group
+	 */
+	public TransmitterGroup(List<? extends FrameSink> sinks) {
+
+		if (sinks.isEmpty()) {
+			throw new IllegalArgumentException("El grupo debe tener al menos un puerto");
+		}
+
+		List<String> names = new ArrayList<>();
+		for (FrameSink sink : sinks) {
+			sink.open();
+			lanes.add(new Lane(sink));
+			names.add(sink.getName());
+		}
+		this.names = Collections.unmodifiableList(names);
+
+		for (Lane lane : lanes) {
+			lane.thread.start();
+		}
+	}
+
+	/**
+	 * Opens a {@link SerialSession} per port; ports that can't be opened keep
+	 * retrying in the background
+	 * @param portNames one port per board, in chain order
+	 * @return the group
+	 */
+	public static TransmitterGroup ofPorts(List<String> portNames) {
+		List<SerialSession> sessions = new ArrayList<>();
+		for (String portName : portNames) {
+			sessions.add(new SerialSession(portName));
+		}
+		return new TransmitterGroup(sessions);
+	}
+
+	/**
+	 * Sends one frame per board, released to all the writers at the same time.
+	 * Board {@code i} gets {@code frames[offset + i * stride .. + 63]}, so the
+	 * output of {@code PanelWall.encode} can be passed directly with a stride of
+	 * 64 when every module has its own board.
+	 * @param frames
+	 * @param offset
+	 * @param stride       bytes between consecutive boards' frames, 0 to send
+	 *                     the same frame to all of them
+	 * @param timeoutNanos longest wait for the slowest board
+	 * @return boards that wrote their frame successfully within the timeout
+	 */
+	public int send(byte[] frames, int offset, int stride, long timeoutNanos) {
+		return send(frames, offset, FRAME_SIZE, stride, timeoutNanos);
+	}
+
+	/**
+	 * Sends the same message to every board, released to all the writers at the
+	 * same time; waits up to {@link #getTimeoutNanos()}
+	 * @return true if every board wrote it in time
+	 */
+	@Override
+	public boolean send(byte[] data, int offset, int length) {
+		return send(data, offset, length, 0, timeoutNanos) == lanes.size();
+	}
+
+	/**
+	 * Sends one message per board. Must be called from one thread at a time.
+	 * @param data
+	 * @param offset
+	 * @param length       bytes per board; exactly 64 are sent as complete
+	 *                     frames through {@link FrameSink#sendFrame(byte[], int)}
+	 * @param stride       bytes between consecutive boards' messages
+	 * @param timeoutNanos longest wait for the slowest board
+	 * @return boards that wrote their message successfully within the timeout
+	 */
+	public synchronized int send(byte[] data, int offset, int length, int stride, long timeoutNanos) {
+
+		if (!running) {
+			return 0;
+		}
+
+		coordinator = Thread.currentThread();
+		long next = ++generation;
+
+		// fill every idle lane first, then release them all together
+		for (int i = 0; i < lanes.size(); i++) {
+			Lane lane = lanes.get(i);
+			if (lane.assigned != lane.completed) {
+				// still writing an earlier frame
+				lane.skippedFrames++;
+				continue;
+			}
+			if (lane.buffer.length < length) {
+				lane.buffer = new byte[length];
+			}
+			System.arraycopy(data, offset + i * stride, lane.buffer, 0, length);
+			lane.length = length;
+			lane.completeFrame = length == FRAME_SIZE;
+			lane.assigned = next;
+		}
+
+		released = next;
+		for (Lane lane : lanes) {
+			LockSupport.unpark(lane.thread);
+		}
+
+		long deadline = System.nanoTime() + timeoutNanos;
+		while (completed(next) < assignedCount(next)) {
+			long left = deadline - System.nanoTime();
+			if (left <= 0) {
+				break;
+			}
+			LockSupport.parkNanos(this, left);
+		}
+		coordinator = null;
+		return succeeded(next);
+	}
+
+	private int completed(long generation) {
+		int count = 0;
+		for (Lane lane : lanes) {
+			if (lane.completed == generation) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/** Lanes that finished {@code generation} without an error */
+	private int succeeded(long generation) {
+		int count = 0;
+		for (Lane lane : lanes) {
+			if (lane.completed == generation && lane.succeeded == generation) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private int assignedCount(long generation) {
+		int count = 0;
+		for (Lane lane : lanes) {
+			if (lane.assigned == generation) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Opens the sinks that are closed
+	 * @return true if every board can take data now
+	 */
+	@Override
+	public boolean open() {
+		boolean open = true;
+		for (Lane lane : lanes) {
+			open &= lane.sink.open();
+		}
+		return open;
+	}
+
+	/**
+	 * @return true while at least one board can take data
+	 */
+	@Override
+	public boolean isOpen() {
+		for (Lane lane : lanes) {
+			if (lane.sink.isOpen()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Changes whenever any of the boards reconnects
+	 */
+	@Override
+	public int getConnectionCount() {
+		int count = 0;
+		for (Lane lane : lanes) {
+			count += lane.sink.getConnectionCount();
+		}
+		return count;
+	}
+
+	@Override
+	public String getName() {
+		return String.join(", ", names);
+	}
+
+	public List<String> getNames() {
+		return names;
+	}
+
+	public int size() {
+		return lanes.size();
+	}
+
+	public FrameSink getSink(int board) {
+		return lanes.get(board).sink;
+	}
+
+	public long getTimeoutNanos() {
+		return timeoutNanos;
+	}
+
+	/**
+	 * @return {@link #getTimeoutNanos()}; a busy board skips the frame instead
+	 *         of holding back the send
+	 */
+	@Override
+	public long getWriteTimeoutNanos() {
+		return timeoutNanos;
+	}
+
+	/**
+	 * @param timeoutNanos wait for the slowest board used by
+	 *                     {@link #send(byte[], int, int)}
+	 */
+	public void setTimeoutNanos(long timeoutNanos) {
+		this.timeoutNanos = timeoutNanos;
+	}
+
+	public long getFramesWritten(int board) {
+		return lanes.get(board).framesWritten;
+	}
+
+	public long getFailedFrames(int board) {
+		return lanes.get(board).failedFrames;
+	}
+
+	/**
+	 * @return frames not sent to this board because it was still busy
+	 */
+	public long getSkippedFrames(int board) {
+		return lanes.get(board).skippedFrames;
+	}
+
+	/**
+	 * Stops the writers and closes every sink
+	 */
+	@Override
+	public void close() {
+		running = false;
+		for (Lane lane : lanes) {
+			LockSupport.unpark(lane.thread);
+			lane.sink.close();
+		}
+	}
+
+}
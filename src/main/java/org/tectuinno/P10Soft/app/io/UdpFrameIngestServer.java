@@ -0,0 +1,322 @@
+/*
+ * This file is part of P10-Soft.
+ *
+ * P10-Soft is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful
+ * as a companion tool for the Tectuinno P10-Link chip, enabling users
+ * to design, visualize and transmit frames to P10 LED panels in real time.
+ * However, WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * As a special exception, you may use this file as part of a free software
+ * library without restriction. Specifically, if other files instantiate
+ * templates or use macros or inline functions from this file, or you compile
+ * this file and link it with other files to produce an executable, this
+ * file does not by itself cause the resulting executable to be covered by
+ * the GNU General Public License. This exception does not however
+ * invalidate any other reasons why the executable file might be covered by
+ * the GNU General Public License.
+ *
+ * Copyright 2025 Tectuinno Team (https://github.com/tectuinno)
+ */
+
+package org.tectuinno.P10Soft.app.io;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
+import org.tectuinno.P10Soft.app.core.PanelWall;
+
+/**
+ * Receives frames over UDP from other processes and forwards the newest one to
+ * a {@link FrameSink}.
+ * <p>
+ * Two datagram formats are accepted:
+ * </p>
+ * <table border="1">
+ * <tr><th>Datagram</th><th>Layout</th><th>Size</th></tr>
+ * <tr><td>Module</td><td>16 packed rows, 32 bit big endian, MSB = column 0, as
+ * in {@link org.tectuinno.P10Soft.app.core.BitFrame}</td><td>64</td></tr>
+ * <tr><td>Wall</td><td>{@code 'P'}, {@code 'W'}, modules wide, modules high,
+ * then every canvas row as one 32 bit big endian word per module column</td>
+ * <td>4 + 64n</td></tr>
+ * </table>
+ * <p>
+ * The receiver thread reads each datagram into a preallocated direct buffer,
+ * decodes the words straight from it and encodes the RAM frames into a back
+ * buffer that is then swapped with the pending one. A separate sender thread
+ * writes whatever is pending, so a datagram never waits for the serial link;
+ * frames that arrive while the link is busy replace the pending one and only
+ * the newest is sent. Nothing is allocated per datagram.
+ * </p>
+ */
+public class UdpFrameIngestServer implements AutoCloseable {
+
+	public static final int DEFAULT_PORT = 5010;
+	public static final int HEADER_SIZE = 4;
+	public static final byte MAGIC_0 = 'P';
+	public static final byte MAGIC_1 = 'W';
+
+	private final FrameSink sink;
+	private final PanelWall wall;
+	private final PanelMapping moduleMapping;
+	private final InetSocketAddress address;
+	private final ByteBuffer datagram;
+	private final int[] moduleRows = new int[16];
+	private final Object lock = new Object();
+
+	/** Owned by the receiver, the sender and shared between both */
+	private byte[] back;
+	private byte[] front;
+	private byte[] pending;
+	private int backLength;
+	private int frontLength;
+	private int pendingLength;
+	private boolean hasPending;
+
+	private DatagramChannel channel;
+	private Thread receiver;
+	private Thread sender;
+	private volatile boolean running;
+
+	private volatile long datagramsReceived;
+	private volatile long rejectedDatagrams;
+	private volatile long supersededFrames;
+	private volatile long framesSent;
+	private volatile long failedFrames;
+
+	/**
+	 * Listens on localhost at {@link #DEFAULT_PORT} for single modules
+	 * @param sink
+	 */
+	public UdpFrameIngestServer(FrameSink sink) {
+		this(sink, new PanelWall(1, 1), new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT));
+	}
+
+	/**
+	 * @param sink    receives the RAM frames, one message per datagram
+	 * @param wall    layout for wall datagrams; its mapping at chain position 0
+	 *                is also used for module datagrams. Used only by the
+	 *                receiver thread from now on.
+	 * @param address where to listen; port 0 picks a free one
+	 */
+	public UdpFrameIngestServer(FrameSink sink, PanelWall wall, InetSocketAddress address) {
+		this.sink = sink;
+		this.wall = wall;
+		this.moduleMapping = wall.getModuleMapping(0);
+		this.address = address;
+
+		int encoded = Math.max(wall.getEncodedSize(), FrameConverter.RAM_FRAME_SIZE);
+		// one spare byte tells an oversized datagram from one that fits exactly
+		this.datagram = ByteBuffer.allocateDirect(HEADER_SIZE + wall.getEncodedSize() + 1);
+		this.back = new byte[encoded];
+		this.front = new byte[encoded];
+		this.pending = new byte[encoded];
+	}
+
+	/**
+	 * Binds the socket and starts the receiver and sender threads
+	 * @throws IOException if the port can't be bound
+	 */
+	public synchronized void start() throws IOException {
+
+		if (running) {
+			return;
+		}
+
+		channel = DatagramChannel.open();
+		channel.bind(address);
+		running = true;
+
+		receiver = new Thread(this::receiveLoop, "p10-udp-receiver");
+		receiver.setDaemon(true);
+		sender = new Thread(this::sendLoop, "p10-udp-sender");
+		sender.setDaemon(true);
+		receiver.start();
+		sender.start();
+	}
+
+	/**
+	 * @return address actually bound, or null before {@link #start()}
+	 */
+	public synchronized InetSocketAddress getLocalAddress() {
+		try {
+			return channel == null ? null : (InetSocketAddress) channel.getLocalAddress();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public FrameSink getSink() {
+		return sink;
+	}
+
+	public long getDatagramsReceived() {
+		return datagramsReceived;
+	}
+
+	/**
+	 * @return datagrams with an unknown size or header
+	 */
+	public long getRejectedDatagrams() {
+		return rejectedDatagrams;
+	}
+
+	/**
+	 * @return frames replaced by a newer one before the sink took them
+	 */
+	public long getSupersededFrames() {
+		return supersededFrames;
+	}
+
+	public long getFramesSent() {
+		return framesSent;
+	}
+
+	public long getFailedFrames() {
+		return failedFrames;
+	}
+
+	/**
+	 * Closes the socket and stops both threads; the sink stays open
+	 */
+	@Override
+	public synchronized void close() {
+		running = false;
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				System.err.println("Error al cerrar el puerto UDP: " + e.getMessage());
+			}
+		}
+		if (sender != null) {
+			LockSupport.unpark(sender);
+		}
+	}
+
+	private void receiveLoop() {
+
+		while (running) {
+			datagram.clear();
+			try {
+				channel.receive(datagram);
+			} catch (ClosedChannelException e) {
+				return;
+			} catch (IOException e) {
+				System.err.println("Error al recibir por UDP: " + e.getMessage());
+				continue;
+			}
+			datagram.flip();
+			datagramsReceived++;
+
+			if (!decode()) {
+				rejectedDatagrams++;
+				continue;
+			}
+
+			synchronized (lock) {
+				if (hasPending) {
+					supersededFrames++;
+				}
+				byte[] swap = pending;
+				pending = back;
+				back = swap;
+				pendingLength = backLength;
+				hasPending = true;
+			}
+			LockSupport.unpark(sender);
+		}
+	}
+
+	/**
+	 * Encodes the datagram into {@link #back}
+	 * @return false if the datagram is not valid
+	 */
+	private boolean decode() {
+
+		int size = datagram.remaining();
+
+		if (size == FrameConverter.RAM_FRAME_SIZE) {
+			for (int row = 0; row < moduleRows.length; row++) {
+				moduleRows[row] = datagram.getInt();
+			}
+			moduleMapping.encode(moduleRows, 0, 1, back, 0);
+			backLength = FrameConverter.RAM_FRAME_SIZE;
+			return true;
+		}
+
+		if (size != HEADER_SIZE + wall.getEncodedSize() || datagram.get() != MAGIC_0 || datagram.get() != MAGIC_1
+				|| (datagram.get() & 0xFF) != wall.getModulesWide()
+				|| (datagram.get() & 0xFF) != wall.getModulesHigh()) {
+			return false;
+		}
+
+		for (int y = 0; y < wall.getHeight(); y++) {
+			for (int moduleX = 0; moduleX < wall.getModulesWide(); moduleX++) {
+				wall.setWord(moduleX, y, datagram.getInt());
+			}
+		}
+		wall.encode(back, 0);
+		backLength = wall.getEncodedSize();
+		return true;
+	}
+
+	private void sendLoop() {
+
+		while (running) {
+
+			synchronized (lock) {
+				if (hasPending) {
+					byte[] swap = front;
+					front = pending;
+					pending = swap;
+					frontLength = pendingLength;
+					hasPending = false;
+				} else {
+					frontLength = 0;
+				}
+			}
+
+			if (frontLength == 0) {
+				LockSupport.park(this);
+				continue;
+			}
+
+			boolean success;
+			try {
+				success = frontLength == FrameConverter.RAM_FRAME_SIZE ? sink.sendFrame(front, 0)
+						: sink.send(front, 0, frontLength);
+			} catch (RuntimeException e) {
+				// a bad datagram must not stop the sender
+				System.err.println("Error al escribir en " + sink.getName() + ": " + e.getMessage());
+				success = false;
+			}
+			if (success) {
+				framesSent++;
+			} else {
+				failedFrames++;
+			}
+		}
+	}
+
+}
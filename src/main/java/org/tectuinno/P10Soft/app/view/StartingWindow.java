@@ -33,7 +33,34 @@ package org.tectuinno.P10Soft.app.view;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.border.EmptyBorder;
+import org.tectuinno.P10Soft.app.core.BitFrame;
+import org.tectuinno.P10Soft.app.core.BitmapFont;
+import org.tectuinno.P10Soft.app.core.DeltaFrameEncoder;
+import org.tectuinno.P10Soft.app.core.EncodedFrameCache;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.FrameRingBuffer;
+import org.tectuinno.P10Soft.app.core.FrameSequence;
+import org.tectuinno.P10Soft.app.core.FrameSource;
+import org.tectuinno.P10Soft.app.core.GrayFrame;
+import org.tectuinno.P10Soft.app.core.ImageFrameImporter;
+import org.tectuinno.P10Soft.app.core.MarqueeSource;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
+import org.tectuinno.P10Soft.app.core.PanelOrientation;
+import org.tectuinno.P10Soft.app.core.PanelWall;
+import org.tectuinno.P10Soft.app.core.ParallelFrameEncoder;
+import org.tectuinno.P10Soft.app.core.ScanLayout;
+import org.tectuinno.P10Soft.app.core.SubframeSchedule;
+import org.tectuinno.P10Soft.app.io.AckFrameSink;
+import org.tectuinno.P10Soft.app.io.AckProtocol;
+import org.tectuinno.P10Soft.app.io.BufferedFrameWriter;
+import org.tectuinno.P10Soft.app.io.CoalescingFrameSink;
+import org.tectuinno.P10Soft.app.io.FrameSink;
+import org.tectuinno.P10Soft.app.io.GrayscaleTransmitter;
+import org.tectuinno.P10Soft.app.io.PlaybackEngine;
+import org.tectuinno.P10Soft.app.io.SerialSession;
 import org.tectuinno.P10Soft.app.io.SerialTransmitter;
+import org.tectuinno.P10Soft.app.io.TransmitterGroup;
+import org.tectuinno.P10Soft.app.io.UdpFrameIngestServer;
 import org.tectuinno.P10Soft.app.view.components.BinaryTablePixelPanelContainer;
 import org.tectuinno.P10Soft.app.view.components.CellPixelPanel;
 
@@ -44,22 +71,47 @@ import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
+import javax.swing.JProgressBar;
 import javax.swing.JSeparator;
 import java.awt.FlowLayout;
+import java.awt.GridLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
 import java.awt.Dimension;
+import javax.swing.JSpinner;
 import javax.swing.JSplitPane;
+import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
+import javax.swing.JList;
 import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
 import javax.swing.JTextArea;
 import javax.swing.JTabbedPane;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.Toolkit;
 
 /**
@@ -143,6 +195,8 @@ public class StartingWindow extends JFrame {
 	private boolean[][] binaryTable = new boolean[16][32];
 	private CellPixelPanel[][] cellsPixelPanels = new CellPixelPanel[16][32];
 	private String hexFrame;
+	/** Trama RAM del último frame convertido, enviada tal cual por "Enviar" */
+	private final byte[] convertedFrame = new byte[FrameConverter.RAM_FRAME_SIZE];
 	private List<String> aviablePortsName;
 	private final JPanel panelResultConsole = new JPanel();
 	private final JScrollPane scrollPaneConsoleContainer = new JScrollPane();
@@ -161,13 +215,60 @@ public class StartingWindow extends JFrame {
 	private static int oppenedFrames = 0;
 	private final JButton btnParar = new JButton("Parar");
 
-	/**
-	 * Usada para determinar si la animación se continua transmitiendo al chip o se
-	 * debe detener
-	 */
-	private boolean isAnimationRunning = true;
-	private List<String> hexFramesList;
-	private SerialTransmitter tx = new SerialTransmitter();
+	private final JButton btnPausa = new JButton("Pausa");
+	/** Reproductor asociado a {@code serialSession} */
+	private PlaybackEngine playbackEngine;
+	/** Frames por segundo de la animación serializada */
+	private double playbackFps = 2;
+	/** Duración de cada frame de un GIF importado como secuencia, o null */
+	private int[] frameHoldMillis;
+	private final JMenuItem jMenuItemVelocidad = new JMenuItem("Velocidad de reproducción...");
+	private final JMenuItem jMenuItemPuertosSalida = new JMenuItem("Puertos de salida...");
+	/** Placas que reciben los frames a la vez; {@code null} si se usa un solo puerto */
+	private TransmitterGroup transmitterGroup;
+	/** Animación serializada, comprimida con XOR entre frames y RLE */
+	private FrameSequence frameSequence;
+	private final JMenuItem jMenuItemExportarSecuencia = new JMenuItem("Exportar secuencia...");
+	private final JCheckBoxMenuItem jMenuItemTransmisionDelta = new JCheckBoxMenuItem("Transmisión delta");
+	private final JMenuItem jMenuItemIntervaloKeyframe = new JMenuItem("Intervalo de keyframe...");
+	/** Cada cuántos frames se envía un frame completo en modo delta */
+	private int keyframeInterval = 30;
+	/** Tramas codificadas compartidas entre pestañas con el mismo contenido */
+	private EncodedFrameCache frameCache = new EncodedFrameCache();
+	/** Esquema de barrido y orientación del panel conectado */
+	private PanelMapping panelMapping = PanelMapping.DEFAULT;
+	private final JMenuItem jMenuItemMontajePanel = new JMenuItem("Montaje del panel...");
+	private final ParallelFrameEncoder frameEncoder = new ParallelFrameEncoder();
+	private FrameSerializationWorker serializationWorker;
+	private final JProgressBar progressBarSerializacion = new JProgressBar(0, 100);
+	/** Conexión con la placa, abierta una sola vez y reutilizada entre envíos */
+	private SerialSession serialSession;
+	private final JCheckBoxMenuItem jMenuItemProtocoloAck = new JCheckBoxMenuItem("Confirmación de frames (ACK)");
+	/** Protocolo con confirmación sobre {@code serialSession}, o {@code null} */
+	private AckFrameSink ackSink;
+	private final JCheckBoxMenuItem jMenuItemRecepcionUdp = new JCheckBoxMenuItem(
+			"Recepción UDP (puerto " + UdpFrameIngestServer.DEFAULT_PORT + ")");
+	/** Servidor que reenvía a la placa los frames recibidos por UDP, o {@code null} */
+	private UdpFrameIngestServer udpServer;
+	private final JCheckBoxMenuItem jMenuItemEscalaGrises = new JCheckBoxMenuItem("Degradado en escala de grises");
+	/** Modulación de grises en curso, o {@code null} */
+	private GrayscaleTransmitter grayscaleTransmitter;
+	private final JMenuItem jMenuItemTextoDesplazable = new JMenuItem("Texto desplazable...");
+	private final JMenuItem jMenuItemMuroPaneles = new JMenuItem("Muro de paneles...");
+	/** Último muro enviado, para proponer sus medidas la próxima vez */
+	private PanelWall panelWall;
+	/** Hilo que envía los módulos del muro a {@code wallTarget}, o {@code null} */
+	private BufferedFrameWriter wallWriter;
+	/** Destino de los muros, abierto por {@link #openOutputSink()} */
+	private FrameSink wallTarget;
+	/** Agrupa los módulos de cada muro en una sola escritura, o {@code null} */
+	private CoalescingFrameSink wallSink;
+	private final JMenuItem jMenuItemImportarImagen = new JMenuItem("Importar imagen...");
+	/** Máximo de pestañas que se abren al importar una animación */
+	private static final int MAX_IMPORTED_TABS = 64;
+	/** Máximo de paneles por lado en "Muro de paneles..." */
+	private static final int MAX_WALL_MODULES = 16;
+	private ImageImportWorker imageImportWorker;
 
 	/**
 	 * Create the frame.
@@ -199,6 +300,22 @@ public class StartingWindow extends JFrame {
 		{
 			jMenuArchivo.add(jMenuItemGuardar);
 		}
+		{
+			jMenuItemExportarSecuencia.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					exportFrameSequence();
+				}
+			});
+			jMenuArchivo.add(jMenuItemExportarSecuencia);
+		}
+		{
+			jMenuItemImportarImagen.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					importImage();
+				}
+			});
+			jMenuArchivo.add(jMenuItemImportarImagen);
+		}
 		{
 			menuBar.add(jMenuHerramientas);
 		}
@@ -222,6 +339,76 @@ public class StartingWindow extends JFrame {
 			});
 			jMenuHerramientas.add(jMenuItemLimpiar);
 		}
+		{
+			jMenuItemMontajePanel.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					selectPanelMapping();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemMontajePanel);
+		}
+		{
+			jMenuHerramientas.add(jMenuItemTransmisionDelta);
+		}
+		{
+			jMenuHerramientas.add(jMenuItemProtocoloAck);
+		}
+		{
+			jMenuItemRecepcionUdp.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					toggleUdpIngest();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemRecepcionUdp);
+		}
+		{
+			jMenuItemEscalaGrises.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					toggleGrayscale();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemEscalaGrises);
+		}
+		{
+			jMenuItemIntervaloKeyframe.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					selectKeyframeInterval();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemIntervaloKeyframe);
+		}
+		{
+			jMenuItemVelocidad.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					selectPlaybackFps();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemVelocidad);
+		}
+		{
+			jMenuItemPuertosSalida.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					selectOutputPorts();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemPuertosSalida);
+		}
+		{
+			jMenuItemTextoDesplazable.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					playMarquee();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemTextoDesplazable);
+		}
+		{
+			jMenuItemMuroPaneles.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					sendWallText();
+				}
+			});
+			jMenuHerramientas.add(jMenuItemMuroPaneles);
+		}
 		{
 			menuBar.add(jMenuFrame);
 		}
@@ -339,12 +526,32 @@ public class StartingWindow extends JFrame {
 		{
 			btnParar.addActionListener(new ActionListener() {
 				public void actionPerformed(ActionEvent e) {
-					isAnimationRunning = false;
-					tx.closePort();
+					if (playbackEngine != null) {
+						playbackEngine.stop();
+					}
+					if (serializationWorker != null) {
+						serializationWorker.cancel(false);
+					}
+					if (imageImportWorker != null) {
+						imageImportWorker.cancel(false);
+					}
 				}
 			});
 			jPanelSuperiorBotones.add(btnParar);
 		}
+		{
+			btnPausa.addActionListener(new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					togglePause();
+				}
+			});
+			jPanelSuperiorBotones.add(btnPausa);
+		}
+		{
+			progressBarSerializacion.setStringPainted(true);
+			progressBarSerializacion.setVisible(false);
+			jPanelSuperiorBotones.add(progressBarSerializacion);
+		}
 		{
 			splitPaneTablaContenedor.setOrientation(JSplitPane.VERTICAL_SPLIT);
 			this.splitPaneTablaContenedor.setDividerLocation(410);
@@ -483,8 +690,9 @@ public class StartingWindow extends JFrame {
 	 * <p>
 	 * Obtiene el componente activo del panel con pestañas, ejecuta su conversión
 	 * mediante {@link BinaryTablePixelPanelContainer#convertCurrentFrame()} y
-	 * almacena el resultado en {@code hexFrame}. Finalmente, muestra la trama
-	 * generada en la consola del IDE.
+	 * almacena el resultado en {@code hexFrame}, junto con una copia binaria en
+	 * {@code convertedFrame} que es la que se envía al puerto. Finalmente, muestra
+	 * la trama generada en la consola del IDE.
 	 * </p>
 	 *
 	 * <h2>Flujo resumido</h2>
@@ -517,6 +725,7 @@ public class StartingWindow extends JFrame {
 					.getSelectedComponent();
 			currentPixelContainer.convertCurrentFrame();
 			this.hexFrame = currentPixelContainer.getHexFrame();
+			System.arraycopy(currentPixelContainer.getRamFrame(), 0, this.convertedFrame, 0, this.convertedFrame.length);
 
 			this.writteResultInConsole("Trama obtenida");
 			this.writteResultInConsole(hexFrame);
@@ -543,35 +752,359 @@ public class StartingWindow extends JFrame {
 
 	}
 
+	/**
+	 * Serializa todas las pestañas abiertas en {@code frameSequence} para su
+	 * reproducción, sin bloquear el hilo de eventos de Swing.
+	 * <p>
+	 * En el EDT solo se toma una copia inmutable ({@link BitFrame}) de cada frame
+	 * modificado desde la última serialización
+	 * ({@link BinaryTablePixelPanelContainer#isDirty()}). Las copias se codifican en
+	 * paralelo con {@link ParallelFrameEncoder} dentro de un
+	 * {@link FrameSerializationWorker}, que informa el progreso en
+	 * {@code progressBarSerializacion} y puede cancelarse con el botón "Parar". Los
+	 * resultados se asignan de nuevo a las pestañas en su orden original.
+	 * </p>
+	 *
+	 * @see FrameSerializationWorker
+	 * @since 1.0
+	 */
 	private void convertAllFrames() {
 
+		if (this.serializationWorker != null && !this.serializationWorker.isDone()) {
+			this.writteResultInConsole("Ya hay una serialización en curso");
+			return;
+		}
+
 		List<BinaryTablePixelPanelContainer> containersList = this.getAllPixelPanelContainers();
-		List<String> hexFramesList = new ArrayList<>();
+		List<BinaryTablePixelPanelContainer> dirtyContainers = new ArrayList<>();
+		List<BitFrame> snapshots = new ArrayList<>();
+		List<Integer> revisions = new ArrayList<>();
+
+		for (BinaryTablePixelPanelContainer container : containersList) {
+			if (container.isDirty() || container.getSerializedFrame() == null) {
+				dirtyContainers.add(container);
+				snapshots.add(container.snapshotFrame());
+				revisions.add(container.getRevision());
+			}
+		}
 
-		this.writteResultInConsole("Iniciando serialización...");
+		this.writteResultInConsole("Iniciando serialización de " + snapshots.size() + " de " + containersList.size()
+				+ " frames...");
 
-		try {
+		this.serializationWorker = new FrameSerializationWorker(containersList, dirtyContainers, snapshots, revisions);
+		this.btnNewButton.setEnabled(false);
+		this.progressBarSerializacion.setValue(0);
+		this.progressBarSerializacion.setVisible(true);
+		this.serializationWorker.execute();
+
+	}
+
+	/**
+	 * Tarea en segundo plano que codifica las copias de los frames modificados y
+	 * publica el resultado en el EDT al terminar.
+	 *
+	 * @see StartingWindow#convertAllFrames()
+	 * @since 1.0
+	 */
+	private class FrameSerializationWorker extends SwingWorker<List<String>, Void> {
+
+		private final List<BinaryTablePixelPanelContainer> containersList;
+		private final List<BinaryTablePixelPanelContainer> dirtyContainers;
+		private final List<BitFrame> snapshots;
+		private final List<Integer> revisions;
+		private final EncodedFrameCache cache = frameCache;
+		private List<byte[]> encodedFrames;
+
+		FrameSerializationWorker(List<BinaryTablePixelPanelContainer> containersList,
+				List<BinaryTablePixelPanelContainer> dirtyContainers, List<BitFrame> snapshots,
+				List<Integer> revisions) {
+			this.containersList = containersList;
+			this.dirtyContainers = dirtyContainers;
+			this.snapshots = snapshots;
+			this.revisions = revisions;
+			this.addPropertyChangeListener(evt -> {
+				if ("progress".equals(evt.getPropertyName())) {
+					progressBarSerializacion.setValue((Integer) evt.getNewValue());
+				}
+			});
+		}
 
-			for (BinaryTablePixelPanelContainer container : containersList) {
+		@Override
+		protected List<String> doInBackground() throws Exception {
 
-				System.out.println(container.getHexFrame());
-				container.convertCurrentFrame();
-				hexFramesList.add(container.getHexFrame());
-				this.writteResultInConsole("Frame: " + container.getHexFrame());
+			this.encodedFrames = frameEncoder.encodeAll(this.snapshots, this.cache,
+					(done, total) -> setProgress(total == 0 ? 100 : done * 100 / total), this::isCancelled);
 
+			List<String> hexFrames = new ArrayList<>(this.encodedFrames.size());
+			for (byte[] encoded : this.encodedFrames) {
+				hexFrames.add(FrameConverter.toHexString(encoded));
 			}
+			return hexFrames;
+		}
 
-			this.hexFramesList = hexFramesList;
+		@Override
+		protected void done() {
 
-			this.writteResultInConsole("Serialización terminada...");
+			btnNewButton.setEnabled(true);
+			progressBarSerializacion.setVisible(false);
 
-		} catch (Exception e) {
+			try {
+
+				List<String> hexFrames = this.get();
+
+				for (int i = 0; i < this.dirtyContainers.size(); i++) {
+					this.dirtyContainers.get(i).setSerializedFrame(this.encodedFrames.get(i), hexFrames.get(i),
+							this.revisions.get(i));
+					writteResultInConsole("Frame: " + hexFrames.get(i));
+				}
+
+				FrameSequence frameSequence = new FrameSequence();
+				List<BitFrame> liveFrames = new ArrayList<>(this.containersList.size());
+				for (BinaryTablePixelPanelContainer container : this.containersList) {
+					frameSequence.append(container.getSerializedFrame(), 0);
+					liveFrames.add(container.getFrame());
+				}
+				this.cache.retainOnly(liveFrames);
+				StartingWindow.this.frameSequence = frameSequence;
+				StartingWindow.this.frameHoldMillis = null;
+
+				writteResultInConsole("Serialización terminada: " + this.containersList.size() + " frames, "
+						+ this.dirtyContainers.size() + " actualizados");
+
+			} catch (CancellationException e) {
+
+				writteResultInConsole("Serialización cancelada");
+
+			} catch (Exception e) {
+
+				e.printStackTrace();
+				writteResultInConsole("Error durante serialización: " + e.getMessage());
+
+			}
+		}
+	}
+
+	/**
+	 * Importa una imagen PNG, BMP o GIF (animado o no) y la abre como pestañas
+	 * editables o como secuencia lista para reproducir.
+	 * <p>
+	 * La imagen se escala a 16x32 manteniendo su proporción y se reduce a
+	 * blanco y negro con el tramado elegido. Los GIF se decodifican frame a frame
+	 * en segundo plano mediante {@link ImageFrameImporter}, sin cargar la
+	 * animación completa en memoria. Como pestañas se abren a lo sumo
+	 * {@value #MAX_IMPORTED_TABS} frames; para animaciones más largas conviene
+	 * importarlas como secuencia.
+	 * </p>
+	 *
+	 * @see ImageFrameImporter
+	 * @since 1.0
+	 */
+	private void importImage() {
+
+		if (this.imageImportWorker != null && !this.imageImportWorker.isDone()) {
+			this.writteResultInConsole("Ya hay una importación en curso");
+			return;
+		}
+
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(new FileNameExtensionFilter("Imágenes (*.png, *.bmp, *.gif)", "png", "bmp", "gif"));
+		if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+
+		JComboBox<ImageFrameImporter.Dithering> cmbTramado = new JComboBox<ImageFrameImporter.Dithering>(
+				ImageFrameImporter.Dithering.values());
+		cmbTramado.setSelectedItem(ImageFrameImporter.Dithering.FLOYD_STEINBERG);
+		JComboBox<String> cmbDestino = new JComboBox<String>(
+				new String[] { "Pestañas", "Secuencia de reproducción" });
+		JCheckBox chkInvertir = new JCheckBox("Invertir", false);
+
+		JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+		panel.add(new JLabel("Tramado:"));
+		panel.add(cmbTramado);
+		panel.add(new JLabel("Abrir como:"));
+		panel.add(cmbDestino);
+		panel.add(new JLabel());
+		panel.add(chkInvertir);
+
+		int result = JOptionPane.showConfirmDialog(this, panel, "Importar imagen", JOptionPane.OK_CANCEL_OPTION,
+				JOptionPane.PLAIN_MESSAGE);
+		if (result != JOptionPane.OK_OPTION)
+			return;
+
+		ImageFrameImporter importer = new ImageFrameImporter();
+		importer.setDithering((ImageFrameImporter.Dithering) cmbTramado.getSelectedItem());
+		importer.setInverted(chkInvertir.isSelected());
+
+		this.writteResultInConsole("Importando " + chooser.getSelectedFile().getName() + "...");
+
+		this.imageImportWorker = new ImageImportWorker(chooser.getSelectedFile(), importer,
+				cmbDestino.getSelectedIndex() == 0);
+		this.progressBarSerializacion.setIndeterminate(true);
+		this.progressBarSerializacion.setVisible(true);
+		this.imageImportWorker.execute();
+
+	}
+
+	/**
+	 * Tarea en segundo plano que convierte los frames de una imagen y los
+	 * publica como pestañas en el EDT o los acumula en una {@link FrameSequence}.
+	 *
+	 * @see StartingWindow#importImage()
+	 * @since 1.0
+	 */
+	private class ImageImportWorker extends SwingWorker<FrameSequence, BitFrame> {
+
+		private final File file;
+		private final ImageFrameImporter importer;
+		private final boolean asTabs;
+		private final PanelMapping mapping = panelMapping;
+		private int frameCount;
+		private int[] delays = new int[64];
+		private boolean hasDelays;
+
+		ImageImportWorker(File file, ImageFrameImporter importer, boolean asTabs) {
+			this.file = file;
+			this.importer = importer;
+			this.asTabs = asTabs;
+		}
+
+		@Override
+		protected FrameSequence doInBackground() throws Exception {
+
+			final FrameSequence sequence = this.asTabs ? null : new FrameSequence();
+			final byte[] encoded = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+			this.frameCount = this.importer.read(this.file, (index, rows, delayMillis) -> {
+				BitFrame frame = new BitFrame();
+				for (int r = 0; r < BitFrame.ROWS; r++) {
+					frame.setRow(r, rows[r]);
+				}
+				if (sequence == null) {
+					if (index < MAX_IMPORTED_TABS) {
+						publish(frame);
+					}
+				} else {
+					this.mapping.encode(frame, encoded, 0);
+					sequence.append(encoded, 0);
+					if (index >= this.delays.length) {
+						this.delays = Arrays.copyOf(this.delays, this.delays.length * 2);
+					}
+					this.delays[index] = delayMillis;
+					this.hasDelays |= delayMillis > 0;
+				}
+			}, this::isCancelled);
+
+			return sequence;
+		}
+
+		@Override
+		protected void process(List<BitFrame> frames) {
+
+			for (BitFrame frame : frames) {
+				BinaryTablePixelPanelContainer container = new BinaryTablePixelPanelContainer(frame);
+				container.setPanelMapping(panelMapping);
+				oppenedFrames++;
+				tabbedPaneContainer.addTab("Frame: " + oppenedFrames, container);
+			}
+
+			btnCerrarFrame.setEnabled(tabbedPaneContainer.getTabCount() > 0);
+			btnDuplicarFrameActual.setEnabled(tabbedPaneContainer.getTabCount() > 0);
+		}
+
+		@Override
+		protected void done() {
+
+			progressBarSerializacion.setIndeterminate(false);
+			progressBarSerializacion.setVisible(false);
+
+			try {
+
+				FrameSequence sequence = this.get();
+
+				if (sequence != null) {
+					StartingWindow.this.frameSequence = sequence;
+					StartingWindow.this.frameHoldMillis = this.hasDelays ? Arrays.copyOf(this.delays, this.frameCount)
+							: null;
+					writteResultInConsole("Imagen importada como secuencia: " + sequence.size() + " frames, "
+							+ sequence.getCompressedSize() + " bytes");
+				} else if (this.frameCount > MAX_IMPORTED_TABS) {
+					writteResultInConsole("Imagen importada: " + this.frameCount + " frames, solo se abrieron los primeros "
+							+ MAX_IMPORTED_TABS + " como pestañas");
+				} else {
+					writteResultInConsole("Imagen importada: " + this.frameCount + " frames");
+				}
+
+			} catch (CancellationException e) {
+
+				writteResultInConsole("Importación cancelada");
+
+			} catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+
+			} catch (ExecutionException e) {
+
+				e.printStackTrace();
+				writteResultInConsole("Error al importar la imagen: " + e.getCause().getMessage());
+
+			}
+		}
+	}
+
+	/**
+	 * Permite elegir el esquema de barrido (1/2, 1/4, 1/8, 1/16) y la orientación
+	 * de montaje del panel.
+	 * <p>
+	 * La combinación elegida se aplica a todas las pestañas abiertas y nuevas
+	 * mediante {@link BinaryTablePixelPanelContainer#setPanelMapping(PanelMapping)};
+	 * como la permutación se precalcula en {@link PanelMapping}, el cambio no
+	 * añade coste a la codificación de cada frame. La caché de tramas se reinicia
+	 * y todos los frames quedan pendientes de serializar.
+	 * </p>
+	 * <p>
+	 * Los giros de 90° y 270° no se ofrecen: esperan un dibujo vertical de 32x16
+	 * y el editor solo dispone de la rejilla horizontal de 16x32.
+	 * </p>
+	 *
+	 * @see PanelMapping#of(ScanLayout, PanelOrientation)
+	 * @since 1.0
+	 */
+	private void selectPanelMapping() {
+
+		JComboBox<ScanLayout> cmbScan = new JComboBox<ScanLayout>(ScanLayout.values());
+		// el editor dibuja en 16x32: los giros de 90° necesitan un lienzo vertical
+		List<PanelOrientation> orientations = new ArrayList<PanelOrientation>();
+		for (PanelOrientation orientation : PanelOrientation.values()) {
+			if (!orientation.isPortrait()) {
+				orientations.add(orientation);
+			}
+		}
+		JComboBox<PanelOrientation> cmbOrientation = new JComboBox<PanelOrientation>(
+				orientations.toArray(new PanelOrientation[0]));
+		cmbScan.setSelectedItem(this.panelMapping.getLayout());
+		cmbOrientation.setSelectedItem(this.panelMapping.getOrientation());
+
+		JPanel panel = new JPanel(new GridLayout(2, 2, 5, 5));
+		panel.add(new JLabel("Barrido:"));
+		panel.add(cmbScan);
+		panel.add(new JLabel("Orientación:"));
+		panel.add(cmbOrientation);
+
+		int result = JOptionPane.showConfirmDialog(this, panel, "Montaje del panel", JOptionPane.OK_CANCEL_OPTION,
+				JOptionPane.PLAIN_MESSAGE);
+		if (result != JOptionPane.OK_OPTION)
+			return;
 
-			e.printStackTrace();
-			this.writteResultInConsole("Error durante serialización: " + e.getMessage());
+		this.panelMapping = PanelMapping.of((ScanLayout) cmbScan.getSelectedItem(),
+				(PanelOrientation) cmbOrientation.getSelectedItem());
+		this.frameCache = new EncodedFrameCache(this.panelMapping);
 
+		for (BinaryTablePixelPanelContainer container : this.getAllPixelPanelContainers()) {
+			container.setPanelMapping(this.panelMapping);
 		}
 
+		this.writteResultInConsole("Montaje del panel: " + this.panelMapping);
+
 	}
 
 	/**
@@ -628,7 +1161,7 @@ public class StartingWindow extends JFrame {
 
 	private void sendData() {
 
-		if (this.aviablePortsName == null || this.aviablePortsName.size() < 0) {
+		if (this.aviablePortsName == null || this.aviablePortsName.isEmpty()) {
 			this.writteResultInConsole("No se detectaron dispositivos conectados");
 			return;
 		}
@@ -638,73 +1171,714 @@ public class StartingWindow extends JFrame {
 			return;
 		}
 
-		SerialTransmitter tx = new SerialTransmitter();
-		if (tx.openPort(this.cmbDispositivosCOMDisponibles.getSelectedItem().toString())) {
-			this.writteResultInConsole("Puerto abierto: " + this.cmbDispositivosCOMDisponibles.getSelectedItem());
-			boolean success = tx.sendHexFrame(this.hexFrame);
-			this.writteResultInConsole("Envio: " + (success ? "OK" : "Fallido"));
-			tx.closePort();
+		FrameSink sink = this.openOutputSink();
+		if (sink == null) {
+			return;
+		}
+
+		boolean success = sink.sendFrame(this.convertedFrame, 0);
+		this.writteResultInConsole("Envio: " + (success ? "OK" : "Fallido"));
+
+	}
+
+	/**
+	 * Devuelve el destino de los frames: el grupo de puertos elegido en "Puertos
+	 * de salida..." o, si no lo hay, la sesión del puerto seleccionado.
+	 * <p>
+	 * Con "Confirmación de frames (ACK)" activa, la sesión se envuelve en un
+	 * {@link AckFrameSink}: cada frame lleva número de secuencia y CRC, y la placa
+	 * debe confirmarlo. Cambiar la opción reabre el puerto.
+	 * </p>
+	 *
+	 * @return el destino abierto, o {@code null} si no hay puerto seleccionado.
+	 * @see #selectOutputPorts()
+	 * @see AckProtocol
+	 * @since 1.0
+	 */
+	private FrameSink openOutputSink() {
+
+		if (this.transmitterGroup != null) {
+			this.transmitterGroup.open();
+			return this.transmitterGroup;
+		}
+
+		SerialSession session = this.openSerialSession();
+		boolean ack = this.jMenuItemProtocoloAck.isSelected();
+		if (this.ackSink != null && (!ack || this.ackSink.getLink() != session)) {
+			this.ackSink.close();
+			this.ackSink = null;
+			if (session != null) {
+				session.open();
+			}
+		}
+		if (session == null || !ack) {
+			return session;
+		}
+
+		if (this.ackSink == null) {
+			this.ackSink = new AckFrameSink(session);
+			this.writteResultInConsole("Protocolo con confirmación activo en " + session.getPortName());
+		}
+		return this.ackSink;
+
+	}
+
+	/**
+	 * Permite elegir varios puertos para controlar a la vez varias placas
+	 * P10-Link con el mismo contenido.
+	 * <p>
+	 * Con dos o más puertos se crea un {@link TransmitterGroup}, que escribe en
+	 * todos en paralelo y los sincroniza al inicio de cada frame; con uno solo se
+	 * vuelve al modo normal con ese puerto seleccionado.
+	 * </p>
+	 *
+	 * @see TransmitterGroup
+	 * @since 1.0
+	 */
+	private void selectOutputPorts() {
+
+		if (this.aviablePortsName == null || this.aviablePortsName.isEmpty()) {
+			this.writteResultInConsole("Primero escanee los puertos COM");
+			return;
+		}
+
+		JList<String> lstPuertos = new JList<String>(this.aviablePortsName.toArray(new String[0]));
+		lstPuertos.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+		if (this.transmitterGroup != null) {
+			for (int i = 0; i < this.aviablePortsName.size(); i++) {
+				if (this.transmitterGroup.getNames().contains(this.aviablePortsName.get(i))) {
+					lstPuertos.addSelectionInterval(i, i);
+				}
+			}
+		} else {
+			lstPuertos.setSelectedValue(this.cmbDispositivosCOMDisponibles.getSelectedItem(), true);
+		}
+
+		JPanel panel = new JPanel(new BorderLayout(0, 5));
+		panel.add(new JLabel("Puertos (Ctrl + clic para elegir varios):"), BorderLayout.NORTH);
+		panel.add(new JScrollPane(lstPuertos), BorderLayout.CENTER);
+
+		int result = JOptionPane.showConfirmDialog(this, panel, "Puertos de salida", JOptionPane.OK_CANCEL_OPTION,
+				JOptionPane.PLAIN_MESSAGE);
+		List<String> selected = lstPuertos.getSelectedValuesList();
+		if (result != JOptionPane.OK_OPTION || selected.isEmpty())
+			return;
+
+		if (this.playbackEngine != null) {
+			this.playbackEngine.stop();
+			this.playbackEngine = null;
+		}
+		if (this.transmitterGroup != null) {
+			this.transmitterGroup.close();
+			this.transmitterGroup = null;
+		}
+		if (this.udpServer != null) {
+			this.udpServer.close();
+			this.udpServer = null;
+			this.jMenuItemRecepcionUdp.setSelected(false);
+		}
+		this.stopGrayscale();
+		this.closeWallWriter();
+		if (this.ackSink != null) {
+			this.ackSink.close();
+			this.ackSink = null;
+		}
+		if (this.serialSession != null) {
+			this.serialSession.close();
+			this.serialSession = null;
+		}
+
+		if (selected.size() == 1) {
+			this.cmbDispositivosCOMDisponibles.setSelectedItem(selected.get(0));
+			this.writteResultInConsole("Puerto de salida: " + selected.get(0));
+			return;
+		}
+
+		this.transmitterGroup = TransmitterGroup.ofPorts(selected);
+		this.writteResultInConsole("Transmitiendo a " + selected.size() + " puertos: " + this.transmitterGroup.getName());
+
+	}
+
+	/**
+	 * Devuelve la sesión serie del puerto seleccionado, abriéndolo solo la primera
+	 * vez.
+	 * <p>
+	 * La sesión permanece abierta entre envíos y reproducciones; si se selecciona
+	 * otro puerto la anterior se cierra. Ante una desconexión {@link SerialSession}
+	 * reintenta en segundo plano y los cambios de estado se muestran en la
+	 * consola.
+	 * </p>
+	 *
+	 * @return la sesión, o {@code null} si no hay puerto seleccionado.
+	 * @see SerialSession
+	 * @since 1.0
+	 */
+	private SerialSession openSerialSession() {
+
+		Object selected = this.cmbDispositivosCOMDisponibles.getSelectedItem();
+		if (selected == null) {
+			this.writteResultInConsole("No se detectaron dispositivos conectados");
+			return null;
+		}
+
+		String portName = selected.toString();
+		if (this.serialSession == null || !this.serialSession.getPortName().equals(portName)) {
+			if (this.serialSession != null) {
+				this.serialSession.close();
+			}
+			this.serialSession = new SerialSession(portName);
+			this.serialSession.setStateListener((session, state) -> SwingUtilities
+					.invokeLater(() -> writteResultInConsole("Puerto " + session.getPortName() + ": " + state)));
+		}
+
+		if (!this.serialSession.open()) {
+			this.writteResultInConsole("No se pudo abrir " + portName + ", reintentando en segundo plano");
 		}
 
+		return this.serialSession;
+
 	}
 
+	/**
+	 * Reproduce en bucle los frames serializados enviándolos al puerto
+	 * seleccionado.
+	 * <p>
+	 * Con la opción "Transmisión delta" activa, cada frame se compara con el
+	 * anterior mediante {@link DeltaFrameEncoder} y solo se envían las filas de RAM
+	 * modificadas, con un frame completo cada {@code keyframeInterval} frames.
+	 * </p>
+	 * <p>
+	 * Los frames se muestran a {@code playbackFps}, salvo los de un GIF importado
+	 * como secuencia, que conservan la duración indicada en el archivo.
+	 * </p>
+	 *
+	 * @see DeltaFrameEncoder
+	 * @see PlaybackEngine
+	 * @since 1.0
+	 */
 	private void sendAllFrames() {
 
-		if (this.aviablePortsName == null || this.aviablePortsName.size() < 0) {
+		if (this.frameSequence == null || this.frameSequence.isEmpty()) {
+			this.writteResultInConsole("Los datos son Null o incompletos");
+			return;
+		}
+
+		this.playFrameSource(this.frameSequence.cursor(), this.frameHoldMillis, true, this.playbackFps);
+
+	}
+
+	/**
+	 * Solicita un texto y lo reproduce como marquesina desplazable en el panel.
+	 * <p>
+	 * El mensaje se dibuja una sola vez con la fuente incorporada de 5x7 y
+	 * {@link MarqueeSource} recorta en cada frame la ventana visible de 32
+	 * columnas, por lo que un texto largo no genera ni almacena frames por
+	 * adelantado.
+	 * </p>
+	 *
+	 * @see MarqueeSource
+	 * @see BitmapFont#getDefault()
+	 * @since 1.0
+	 */
+	private void playMarquee() {
+
+		JTextField txtMensaje = new JTextField(30);
+		JComboBox<MarqueeSource.Direction> cmbDireccion = new JComboBox<MarqueeSource.Direction>(
+				MarqueeSource.Direction.values());
+		JSpinner spnVelocidad = new JSpinner(new SpinnerNumberModel(1, 1, MarqueeSource.MAX_SPEED, 1));
+		JSpinner spnFps = new JSpinner(new SpinnerNumberModel(20, 1, (int) PlaybackEngine.MAX_FPS, 1));
+		JCheckBox chkRepetir = new JCheckBox("Repetir", true);
+
+		JPanel panel = new JPanel(new GridLayout(5, 2, 5, 5));
+		panel.add(new JLabel("Texto:"));
+		panel.add(txtMensaje);
+		panel.add(new JLabel("Dirección:"));
+		panel.add(cmbDireccion);
+		panel.add(new JLabel("Pixeles por frame:"));
+		panel.add(spnVelocidad);
+		panel.add(new JLabel("Frames por segundo:"));
+		panel.add(spnFps);
+		panel.add(new JLabel());
+		panel.add(chkRepetir);
+
+		int result = JOptionPane.showConfirmDialog(this, panel, "Texto desplazable", JOptionPane.OK_CANCEL_OPTION,
+				JOptionPane.PLAIN_MESSAGE);
+		if (result != JOptionPane.OK_OPTION || txtMensaje.getText().isEmpty())
+			return;
+
+		MarqueeSource marquee = new MarqueeSource(BitmapFont.getDefault(), txtMensaje.getText(), this.panelMapping);
+		marquee.setDirection((MarqueeSource.Direction) cmbDireccion.getSelectedItem());
+		marquee.setSpeed((Integer) spnVelocidad.getValue());
+		marquee.setLooping(chkRepetir.isSelected());
+
+		this.writteResultInConsole("Marquesina: " + marquee.size() + " frames por pasada");
+		this.playFrameSource(marquee, null, false, (Integer) spnFps.getValue());
+
+	}
+
+	/**
+	 * Solicita las medidas de un muro de paneles encadenados y un texto, lo dibuja
+	 * sobre el lienzo completo y lo envía en una sola escritura.
+	 * <p>
+	 * El texto se dibuja una vez en el lienzo de {@code 32 * columnas} por
+	 * {@code 16 * filas} píxeles de {@link PanelWall}, por lo que puede cruzar el
+	 * borde entre módulos sin una pestaña por panel. El muro se codifica a un
+	 * bloque de 64 bytes por módulo en el orden de la cadena de datos, con el
+	 * montaje del panel elegido en "Montaje del panel...".
+	 * </p>
+	 * <p>
+	 * Los módulos se encolan en un {@link BufferedFrameWriter}, de modo que la
+	 * interfaz no espera al puerto, y un {@link CoalescingFrameSink} con el tamaño
+	 * del muro los reúne de nuevo en una sola escritura. Con "Confirmación de
+	 * frames (ACK)" cada módulo viaja en su propio paquete confirmado.
+	 * </p>
+	 *
+	 * @see PanelWall#encode()
+	 * @see #openWallWriter(FrameSink)
+	 * @see BitmapFont#drawString(PanelWall, CharSequence, int, int)
+	 * @since 1.0
+	 */
+	private void sendWallText() {
+
+		PanelWall previous = this.panelWall;
+		JSpinner spnColumnas = new JSpinner(
+				new SpinnerNumberModel(previous != null ? previous.getModulesWide() : 4, 1, MAX_WALL_MODULES, 1));
+		JSpinner spnFilas = new JSpinner(
+				new SpinnerNumberModel(previous != null ? previous.getModulesHigh() : 1, 1, MAX_WALL_MODULES, 1));
+		JComboBox<PanelWall.ChainOrder> cmbCableado = new JComboBox<PanelWall.ChainOrder>(
+				PanelWall.ChainOrder.values());
+		if (previous != null) {
+			cmbCableado.setSelectedItem(previous.getChainOrder());
+		}
+		JTextField txtMensaje = new JTextField(30);
+
+		JPanel panel = new JPanel(new GridLayout(4, 2, 5, 5));
+		panel.add(new JLabel("Paneles a lo ancho:"));
+		panel.add(spnColumnas);
+		panel.add(new JLabel("Paneles a lo alto:"));
+		panel.add(spnFilas);
+		panel.add(new JLabel("Cableado:"));
+		panel.add(cmbCableado);
+		panel.add(new JLabel("Texto:"));
+		panel.add(txtMensaje);
+
+		int result = JOptionPane.showConfirmDialog(this, panel, "Muro de paneles", JOptionPane.OK_CANCEL_OPTION,
+				JOptionPane.PLAIN_MESSAGE);
+		if (result != JOptionPane.OK_OPTION)
+			return;
+
+		PanelWall wall = new PanelWall((Integer) spnColumnas.getValue(), (Integer) spnFilas.getValue(),
+				(PanelWall.ChainOrder) cmbCableado.getSelectedItem());
+		for (int i = 0; i < wall.getModuleCount(); i++) {
+			wall.setModuleMapping(i, this.panelMapping);
+		}
+		BitmapFont font = BitmapFont.getDefault();
+		font.drawString(wall, txtMensaje.getText(), 1, (wall.getHeight() - font.getHeight()) / 2);
+		this.panelWall = wall;
+
+		FrameSink sink = this.openOutputSink();
+		if (sink == null) {
+			return;
+		}
+		if (this.playbackEngine != null) {
+			this.playbackEngine.stop();
+		}
+
+		this.openWallWriter(sink);
+		FrameRingBuffer ring = this.wallWriter.getRing();
+		if (ring.getCapacity() - ring.size() < wall.getModuleCount()) {
+			this.writteResultInConsole("El muro anterior todavía se está enviando");
+			return;
+		}
+
+		byte[] data = wall.encode();
+		if (this.wallSink != null) {
+			this.wallSink.setFlushBytes(data.length);
+		}
+		for (int i = 0; i < wall.getModuleCount(); i++) {
+			ring.offer(data, i * FrameConverter.RAM_FRAME_SIZE);
+		}
+		this.writteResultInConsole("Muro de " + wall.getModulesWide() + "x" + wall.getModulesHigh()
+				+ " paneles en cola (" + data.length + " bytes)");
+
+	}
+
+	/**
+	 * Prepara el hilo de envío de muros sobre {@code sink}, reutilizando el
+	 * anterior mientras el destino no cambie.
+	 * <p>
+	 * Si el destino cambió (otro puerto, o "Confirmación de frames (ACK)"
+	 * activada o desactivada), el envío anterior se cierra junto con su destino y
+	 * {@code sink} se vuelve a abrir. Un {@link AckFrameSink} recibe los módulos
+	 * sin agrupar: sus paquetes admiten como mucho
+	 * {@link AckProtocol#MAX_PAYLOAD} bytes.
+	 * </p>
+	 *
+	 * @param sink destino abierto por {@link #openOutputSink()}
+	 * @see #closeWallWriter()
+	 * @since 1.0
+	 */
+	private void openWallWriter(FrameSink sink) {
+
+		if (this.wallWriter != null && this.wallTarget != sink) {
+			this.closeWallWriter();
+			sink.open();
+		}
+		if (this.wallWriter != null) {
+			return;
+		}
+
+		this.wallTarget = sink;
+		FrameSink out = sink;
+		if (!(sink instanceof AckFrameSink)) {
+			this.wallSink = new CoalescingFrameSink(sink, FrameConverter.RAM_FRAME_SIZE, 0);
+			out = this.wallSink;
+		}
+		this.wallWriter = new BufferedFrameWriter(
+				new FrameRingBuffer(MAX_WALL_MODULES * MAX_WALL_MODULES, FrameRingBuffer.Policy.DROP_NEWEST), out);
+		// the wall size is the flush size; a module drained early must not go out alone
+		this.wallWriter.setFlushWhenEmpty(this.wallSink == null);
+		this.wallWriter.start();
+
+	}
+
+	/**
+	 * Termina de enviar los muros en cola, cierra el envío (y su destino, si los
+	 * módulos se agrupaban) y muestra cuántos módulos se enviaron.
+	 *
+	 * @since 1.0
+	 */
+	private void closeWallWriter() {
+
+		if (this.wallWriter == null)
+			return;
+
+		try {
+			this.wallWriter.stop(2000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (this.wallSink != null) {
+			this.wallSink.close();
+		}
+		this.writteResultInConsole("Muro: " + this.wallWriter.getFramesWritten() + " módulos enviados, "
+				+ this.wallWriter.getFailedFrames() + " fallidos");
+		this.wallWriter = null;
+		this.wallTarget = null;
+		this.wallSink = null;
+
+	}
+
+	/**
+	 * Carga {@code source} en el motor de reproducción de la sesión serie actual y
+	 * lo inicia.
+	 * <p>
+	 * El motor envía cada frame en su instante exacto según {@code System.nanoTime()},
+	 * sin acumular el tiempo de escritura del puerto, y admite pausa, detención y
+	 * cambio de velocidad mientras reproduce.
+	 * </p>
+	 *
+	 * @param source     frames ya codificados para la RAM del panel
+	 * @param holdMillis duración propia de cada frame, o {@code null} para usar
+	 *                   {@code fps}
+	 * @param loop       si es {@code true} la fuente se rebobina al terminar
+	 * @param fps        frames por segundo
+	 * @see PlaybackEngine
+	 * @since 1.0
+	 */
+	private void playFrameSource(FrameSource source, int[] holdMillis, boolean loop, double fps) {
+
+		if (this.aviablePortsName == null || this.aviablePortsName.isEmpty()) {
 			this.writteResultInConsole("No se detectaron dispositivos conectados");
 			return;
 		}
 
-		if (this.hexFramesList == null || this.hexFramesList.isEmpty()) {
-			this.writteResultInConsole("Los datos son Null o incompletos");
+		FrameSink sink = this.openOutputSink();
+		if (sink == null) {
 			return;
 		}
+		this.stopGrayscale();
+
+		if (this.playbackEngine == null || this.playbackEngine.getSink() != sink) {
+			if (this.playbackEngine != null) {
+				this.playbackEngine.stop();
+			}
+			this.playbackEngine = new PlaybackEngine(sink);
+			// un adaptador bloqueado no debe congelar la reproducción ni "Parar";
+			// los puertos con tiempo de escritura propio ya lo garantizan
+			this.playbackEngine.setAsyncWrites(sink.getWriteTimeoutNanos() == 0);
+			this.playbackEngine.setPlaybackListener((engine, state) -> SwingUtilities
+					.invokeLater(() -> playbackStateChanged(engine, state)));
+		}
+
+		this.playbackEngine.stop();
+		this.playbackEngine.setFps(fps);
+		this.playbackEngine.setDeltaKeyframeInterval(
+				this.jMenuItemTransmisionDelta.isSelected() ? this.keyframeInterval : -1);
+		this.playbackEngine.load(source, holdMillis, loop);
+		this.playbackEngine.resetStatistics();
+		this.playbackEngine.play();
+
+	}
 
-		this.isAnimationRunning = true;
+	/**
+	 * Muestra en la consola los cambios de estado del reproductor y, al
+	 * detenerse, las estadísticas de la reproducción.
+	 *
+	 * @param engine motor que cambió de estado.
+	 * @param state  nuevo estado.
+	 * @since 1.0
+	 */
+	private void playbackStateChanged(PlaybackEngine engine, PlaybackEngine.State state) {
 
-		
+		this.btnPausa.setText(state == PlaybackEngine.State.PAUSED ? "Reanudar" : "Pausa");
 
-		if (!tx.openPort(this.cmbDispositivosCOMDisponibles.getSelectedItem().toString())) {
+		if (state != PlaybackEngine.State.STOPPED) {
+			this.writteResultInConsole("Reproducción: " + state);
 			return;
 		}
 
-		writteResultInConsole("Puerto abierto: " + cmbDispositivosCOMDisponibles.getSelectedItem());
+		this.writteResultInConsole(String.format("Reproducción detenida: %d frames enviados, %d fallidos, %d tardíos,"
+				+ " jitter medio %.1f µs, máximo %.1f µs", engine.getFramesSent(), engine.getFailedFrames(),
+				engine.getLateFrames(), engine.getMeanJitterNanos() / 1000.0, engine.getMaxJitterNanos() / 1000.0));
 
-		new Thread(new Runnable() {
+	}
 
-			@Override
-			public void run() {
+	/**
+	 * Alterna entre pausa y reproducción del motor actual.
+	 *
+	 * @since 1.0
+	 */
+	private void togglePause() {
+
+		if (this.playbackEngine == null)
+			return;
+
+		if (this.playbackEngine.getState() == PlaybackEngine.State.PLAYING) {
+			this.playbackEngine.pause();
+		} else if (this.playbackEngine.getState() == PlaybackEngine.State.PAUSED) {
+			this.playbackEngine.play();
+		}
+
+	}
+
+	/**
+	 * Inicia o detiene la recepción de frames por UDP según la opción "Recepción
+	 * UDP".
+	 * <p>
+	 * Mientras está activa, otros programas pueden enviar frames empaquetados de
+	 * 64 bytes a {@code localhost}; el más reciente se codifica con el montaje
+	 * del panel y se envía al destino de salida. La reproducción en curso se
+	 * detiene para que no compitan por el puerto.
+	 * </p>
+	 *
+	 * @see UdpFrameIngestServer
+	 * @since 1.0
+	 */
+	private void toggleUdpIngest() {
 
-				try {
+		if (this.udpServer != null) {
+			this.udpServer.close();
+			this.writteResultInConsole("Recepción UDP detenida: " + this.udpServer.getFramesSent() + " frames enviados, "
+					+ this.udpServer.getSupersededFrames() + " reemplazados");
+			this.udpServer = null;
+		}
+		if (!this.jMenuItemRecepcionUdp.isSelected()) {
+			return;
+		}
 
-					int i = 0;
+		FrameSink sink = this.openOutputSink();
+		if (sink == null) {
+			this.jMenuItemRecepcionUdp.setSelected(false);
+			return;
+		}
+		if (this.playbackEngine != null) {
+			this.playbackEngine.stop();
+		}
 
-					while (isAnimationRunning) {
+		PanelWall wall = new PanelWall(1, 1);
+		wall.setModuleMapping(0, this.panelMapping);
+		UdpFrameIngestServer server = new UdpFrameIngestServer(sink, wall,
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), UdpFrameIngestServer.DEFAULT_PORT));
+		try {
+			server.start();
+		} catch (IOException e) {
+			this.writteResultInConsole("No se pudo abrir el puerto UDP: " + e.getMessage());
+			this.jMenuItemRecepcionUdp.setSelected(false);
+			return;
+		}
 
-						boolean success = tx.sendHexFrame(hexFramesList.get(i));
-						writteResultInConsole("Envio: " + (success ? "OK" : "Fallido"));
-						Thread.sleep(500);
+		this.udpServer = server;
+		this.writteResultInConsole("Recibiendo frames en " + server.getLocalAddress());
 
-						if (i == hexFramesList.size() - 1) {
-							i = 0;
-						} else {
-							i++;
-						}
-					}
+	}
 
-				} catch (Exception e) {
+	/**
+	 * Inicia o detiene la prueba de escala de grises según la opción "Degradado en
+	 * escala de grises".
+	 * <p>
+	 * El panel muestra un degradado horizontal con la profundidad elegida. Cada
+	 * nivel se obtiene por modulación de código binario: {@link GrayscaleTransmitter}
+	 * envía en un hilo propio los planos de bits precalculados, cada uno durante
+	 * un tiempo proporcional a su peso. La unidad de tiempo debe cubrir al menos
+	 * el envío de un frame (unos 6 ms a 115200 baudios); al detener la prueba se
+	 * muestran los periodos completados y los intervalos con retraso.
+	 * </p>
+	 *
+	 * @see GrayscaleTransmitter
+	 * @see SubframeSchedule
+	 * @since 1.0
+	 */
+	private void toggleGrayscale() {
 
-					Thread.currentThread().interrupt();
-					e.printStackTrace();
-					tx.closePort();
+		this.stopGrayscale();
+		if (!this.jMenuItemEscalaGrises.isSelected()) {
+			return;
+		}
 
-				}
+		JSpinner spnBits = new JSpinner(new SpinnerNumberModel(3, GrayFrame.MIN_DEPTH, GrayFrame.MAX_DEPTH, 1));
+		JSpinner spnUnidad = new JSpinner(new SpinnerNumberModel(6, 1, 100, 1));
+
+		JPanel panel = new JPanel(new GridLayout(2, 2, 5, 5));
+		panel.add(new JLabel("Bits por píxel:"));
+		panel.add(spnBits);
+		panel.add(new JLabel("Unidad de tiempo (ms):"));
+		panel.add(spnUnidad);
+
+		int result = JOptionPane.showConfirmDialog(this, panel, "Degradado en escala de grises",
+				JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+		FrameSink sink = result == JOptionPane.OK_OPTION ? this.openOutputSink() : null;
+		if (sink == null) {
+			this.jMenuItemEscalaGrises.setSelected(false);
+			return;
+		}
+		if (this.playbackEngine != null) {
+			this.playbackEngine.stop();
+		}
+
+		GrayFrame gradient = new GrayFrame((Integer) spnBits.getValue());
+		int levels = gradient.getMaxLevel() + 1;
+		for (int row = 0; row < BitFrame.ROWS; row++) {
+			for (int col = 0; col < BitFrame.COLS; col++) {
+				gradient.setLevel(row, col, col * levels / BitFrame.COLS);
+			}
+		}
+
+		GrayscaleTransmitter transmitter = new GrayscaleTransmitter(sink, this.panelMapping,
+				TimeUnit.MILLISECONDS.toNanos((Integer) spnUnidad.getValue()));
+		transmitter.submit(gradient);
+		Thread thread = new Thread(transmitter, "p10-grayscale");
+		thread.setDaemon(true);
+		thread.start();
+
+		this.grayscaleTransmitter = transmitter;
+		this.writteResultInConsole("Degradado de " + levels + " niveles en " + sink.getName());
+
+	}
+
+	/**
+	 * Detiene la prueba de escala de grises, si la hay, y muestra sus
+	 * estadísticas.
+	 *
+	 * @since 1.0
+	 */
+	private void stopGrayscale() {
 
+		if (this.grayscaleTransmitter == null)
+			return;
+
+		this.grayscaleTransmitter.stop();
+		this.writteResultInConsole("Degradado detenido: " + this.grayscaleTransmitter.getPeriods() + " periodos, "
+				+ this.grayscaleTransmitter.getLateSlots() + " con retraso, "
+				+ this.grayscaleTransmitter.getFailedSubframes() + " fallidos");
+		this.grayscaleTransmitter = null;
+		this.jMenuItemEscalaGrises.setSelected(false);
+
+	}
+
+	/**
+	 * Solicita la velocidad de reproducción de la animación serializada. Si hay
+	 * una reproducción en curso, el cambio se aplica desde el siguiente frame.
+	 *
+	 * @since 1.0
+	 */
+	private void selectPlaybackFps() {
+
+		String value = JOptionPane.showInputDialog(this, "Frames por segundo (" + PlaybackEngine.MIN_FPS + " - "
+				+ PlaybackEngine.MAX_FPS + "):", this.playbackFps);
+		if (value == null)
+			return;
+
+		try {
+			double fps = Double.parseDouble(value.trim().replace(',', '.'));
+			if (!(fps >= PlaybackEngine.MIN_FPS && fps <= PlaybackEngine.MAX_FPS))
+				throw new NumberFormatException(value);
+			this.playbackFps = fps;
+			if (this.playbackEngine != null) {
+				this.playbackEngine.setFps(fps);
 			}
-		}).start();
+			this.writteResultInConsole("Velocidad de reproducción: " + fps + " FPS");
+		} catch (NumberFormatException e) {
+			this.writteResultInConsole("Velocidad no válida: " + value);
+		}
+
+	}
+
+	/**
+	 * Guarda la animación serializada en un archivo de secuencia {@code .p10s},
+	 * reproducible también sin interfaz gráfica.
+	 *
+	 * @see FrameSequence#writeTo(java.io.OutputStream)
+	 * @since 1.0
+	 */
+	private void exportFrameSequence() {
+
+		if (this.frameSequence == null || this.frameSequence.isEmpty()) {
+			this.writteResultInConsole("Primero serialice los frames");
+			return;
+		}
 
-		if(!this.isAnimationRunning) {
-			tx.closePort();
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(new FileNameExtensionFilter("Secuencia P10 (*.p10s)", "p10s"));
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+
+		File file = chooser.getSelectedFile();
+		if (!file.getName().toLowerCase().endsWith(".p10s")) {
+			file = new File(file.getParentFile(), file.getName() + ".p10s");
+		}
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			this.frameSequence.writeTo(out);
+			this.writteResultInConsole("Secuencia exportada: " + file.getAbsolutePath() + " ("
+					+ this.frameSequence.size() + " frames, " + this.frameSequence.getCompressedSize() + " bytes)");
+		} catch (IOException e) {
+			this.writteResultInConsole("Error al exportar la secuencia: " + e.getMessage());
+		}
+
+	}
+
+	/**
+	 * Solicita al usuario el intervalo de keyframes usado por la transmisión
+	 * delta.
+	 *
+	 * @since 1.0
+	 */
+	private void selectKeyframeInterval() {
+
+		String value = JOptionPane.showInputDialog(this, "Enviar un frame completo cada N frames (0 = solo al inicio):",
+				this.keyframeInterval);
+		if (value == null)
+			return;
+
+		try {
+			int interval = Integer.parseInt(value.trim());
+			if (interval < 0)
+				throw new NumberFormatException(value);
+			this.keyframeInterval = interval;
+			this.writteResultInConsole("Intervalo de keyframe: " + interval);
+		} catch (NumberFormatException e) {
+			this.writteResultInConsole("Intervalo no válido: " + value);
 		}
 
 	}
@@ -753,6 +1927,7 @@ public class StartingWindow extends JFrame {
 		try {
 
 			BinaryTablePixelPanelContainer container = new BinaryTablePixelPanelContainer();
+			container.setPanelMapping(this.panelMapping);
 			oppenedFrames++;
 			this.tabbedPaneContainer.addTab("Frame: " + oppenedFrames, container);
 
@@ -781,9 +1956,9 @@ public class StartingWindow extends JFrame {
 	 * <h2>Flujo resumido</h2>
 	 * <ol>
 	 * <li>Obtiene el contenedor actualmente seleccionado.</li>
-	 * <li>Extrae su matriz de celdas y su tabla binaria.</li>
+	 * <li>Extrae su matriz de celdas y su frame empaquetado.</li>
 	 * <li>Crea una copia con
-	 * {@link BinaryTablePixelPanelContainer#BinaryTablePixelPanelContainer(CellPixelPanel[][], boolean[][])}.</li>
+	 * {@link BinaryTablePixelPanelContainer#BinaryTablePixelPanelContainer(CellPixelPanel[][], BitFrame)}.</li>
 	 * <li>Agrega la copia como una nueva pestaña en el
 	 * {@code tabbedPaneContainer}.</li>
 	 * <li>Actualiza el estado de los botones relacionados con la gestión de
@@ -792,7 +1967,7 @@ public class StartingWindow extends JFrame {
 	 *
 	 * @see BinaryTablePixelPanelContainer
 	 * @see BinaryTablePixelPanelContainer#BinaryTablePixelPanelContainer(CellPixelPanel[][],
-	 *      boolean[][])
+	 *      BitFrame)
 	 * @since 1.0
 	 */
 	private void duplicateCurrentFrame() {
@@ -802,9 +1977,10 @@ public class StartingWindow extends JFrame {
 			BinaryTablePixelPanelContainer currentContainer = (BinaryTablePixelPanelContainer) this.tabbedPaneContainer
 					.getSelectedComponent();
 			CellPixelPanel[][] currentPixelPanel = currentContainer.getCellPixelPanels();
-			boolean[][] currentBinaryTable = currentContainer.getBinaryTable();
+			BitFrame currentFrame = currentContainer.getFrame();
 			BinaryTablePixelPanelContainer copyContaiener = new BinaryTablePixelPanelContainer(currentPixelPanel,
-					currentBinaryTable);
+					currentFrame);
+			copyContaiener.setPanelMapping(this.panelMapping);
 			oppenedFrames++;
 			this.tabbedPaneContainer.addTab("Freame: " + oppenedFrames, copyContaiener);
 
@@ -35,12 +35,15 @@ import java.awt.GridLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.Arrays;
 
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.border.LineBorder;
 
+import org.tectuinno.P10Soft.app.core.BitFrame;
 import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
 
 /**
  * Componente visual reutilizable que representa una tabla binaria de píxeles
@@ -57,7 +60,7 @@ import org.tectuinno.P10Soft.app.core.FrameConverter;
  * <h2>Características principales</h2>
  * <ul>
  *   <li>Disposición en cuadrícula ({@link java.awt.GridLayout}) de 16×32 celdas.</li>
- *   <li>Sincronización directa entre la vista ({@code cellsPixelPanels}) y el modelo lógico ({@code binaryTable}).</li>
+ *   <li>Sincronización directa entre la vista ({@code cellsPixelPanels}) y el modelo lógico empaquetado ({@code frame}).</li>
  *   <li>Compatibilidad con operaciones de conversión y limpieza independientes por frame.</li>
  *   <li>Capacidad para integrarse dinámicamente dentro de un {@link javax.swing.JTabbedPane} en la ventana principal.</li>
  * </ul>
@@ -65,8 +68,9 @@ import org.tectuinno.P10Soft.app.core.FrameConverter;
  * <h2>Estructura interna</h2>
  * <table border="1" cellpadding="4" cellspacing="0">
  *   <tr><th>Campo</th><th>Tipo</th><th>Descripción</th></tr>
- *   <tr><td>{@code binaryTable}</td><td>{@code boolean[16][32]}</td><td>Modelo lógico que almacena el estado ON/OFF de cada píxel.</td></tr>
+ *   <tr><td>{@code frame}</td><td>{@link BitFrame}</td><td>Modelo lógico empaquetado (64 bytes) que almacena el estado ON/OFF de cada píxel.</td></tr>
  *   <tr><td>{@code cellsPixelPanels}</td><td>{@code CellPixelPanel[16][32]}</td><td>Elementos visuales individuales de la cuadrícula.</td></tr>
+ *   <tr><td>{@code ramFrame}</td><td>{@code byte[64]}</td><td>Trama codificada en orden RAM, actualizada de forma incremental en cada clic.</td></tr>
  *   <tr><td>{@code hexFrame}</td><td>{@link String}</td><td>Trama hexadecimal resultante generada a partir de la matriz binaria.</td></tr>
  * </table>
  *
@@ -84,7 +88,13 @@ import org.tectuinno.P10Soft.app.core.FrameConverter;
 public class BinaryTablePixelPanelContainer extends JPanel {
 
 	private static final long serialVersionUID = 1L;
-	private boolean[][] binaryTable;
+	private BitFrame frame;
+	private final byte[] ramFrame = new byte[FrameConverter.RAM_FRAME_SIZE];
+	private PanelMapping panelMapping = PanelMapping.DEFAULT;
+	/** Contador de ediciones; el frame está sucio si difiere de {@code serializedRevision} */
+	private int revision = 0;
+	private int serializedRevision = -1;
+	private byte[] serializedFrame;
 	private CellPixelPanel[][] cellsPixelPanels;
 	private String hexFrame;
 	
@@ -98,16 +108,16 @@ public class BinaryTablePixelPanelContainer extends JPanel {
      * </p>
      *
      * @param cellPixelPanels matriz original de celdas {@link CellPixelPanel} a duplicar.
-     * @param binaryTable matriz binaria correspondiente al estado lógico de las celdas.
-     * @see #buildTableFromDuplicate(CellPixelPanel[][], boolean[][])
+     * @param frame frame empaquetado correspondiente al estado lógico de las celdas.
+     * @see #buildTableFromDuplicate(CellPixelPanel[][], BitFrame)
      * @since 1.0
      */
-	public BinaryTablePixelPanelContainer(CellPixelPanel[][] cellPixelPanels, boolean[][] binaryTable) {
+	public BinaryTablePixelPanelContainer(CellPixelPanel[][] cellPixelPanels, BitFrame frame) {
 		
 		this.setLayout(new GridLayout(16,32));	
-		this.binaryTable = new boolean[16][32];
+		this.frame = new BitFrame();
 		this.cellsPixelPanels = new CellPixelPanel[16][32];
-		buildTableFromDuplicate(cellPixelPanels,binaryTable);
+		buildTableFromDuplicate(cellPixelPanels,frame);
 		
 	}
 	
@@ -117,12 +127,27 @@ public class BinaryTablePixelPanelContainer extends JPanel {
 	public BinaryTablePixelPanelContainer() {
 		
 		this.setLayout(new GridLayout(16, 32));
-		this.binaryTable = new boolean[16][32];
+		this.frame = new BitFrame();
 		this.cellsPixelPanels = new CellPixelPanel[16][32];
 		this.buildTable();
 		
 	}
 	
+	/**
+	 * Crea un contenedor cuyas celdas reflejan un frame generado fuera del
+	 * editor, por ejemplo una imagen importada.
+	 *
+	 * @param frame contenido inicial; se copia.
+	 * @see #setFrame(BitFrame)
+	 * @since 1.0
+	 */
+	public BinaryTablePixelPanelContainer(BitFrame frame) {
+		
+		this();
+		this.setFrame(frame);
+		
+	}
+	
 	
 	
 	/**
@@ -134,7 +159,7 @@ public class BinaryTablePixelPanelContainer extends JPanel {
      * es un componente {@link CellPixelPanel} que simula un píxel encendido o apagado.
      * Además, asigna listeners de clic a cada celda para permitir la interacción
      * directa del usuario y mantener sincronizado el modelo lógico
-     * ({@code binaryTable}) con la vista ({@code panelGridLayOutTablaBinaria}).
+     * ({@code frame}) con la vista ({@code panelGridLayOutTablaBinaria}).
      * </p>
      *
      * <h2>Flujo de ejecución</h2>
@@ -148,7 +173,7 @@ public class BinaryTablePixelPanelContainer extends JPanel {
      *       <li>Se inicializa el estado del píxel como apagado (<code>false</code>).</li>
      *       <li>Se agrega un {@link MouseListener} que invoca {@link #cellClickedEvent(CellPixelPanel)} al hacer clic.</li>
      *       <li>El panel es añadido al contenedor principal {@code panelGridLayOutTablaBinaria}.</li>
-     *       <li>Se actualizan las matrices lógicas {@code binaryTable} y {@code cellsPixelPanels}.</li>
+     *       <li>Se actualizan el modelo lógico {@code frame} y la matriz {@code cellsPixelPanels}.</li>
      *     </ul>
      *   </li>
      * </ol>
@@ -161,8 +186,8 @@ public class BinaryTablePixelPanelContainer extends JPanel {
      *     <th>Descripción</th>
      *   </tr>
      *   <tr>
-     *     <td>{@code binaryTable}</td>
-     *     <td>{@code boolean[16][32]}</td>
+     *     <td>{@code frame}</td>
+     *     <td>{@link BitFrame}</td>
      *     <td>Almacena el estado lógico (encendido/apagado) de cada píxel de la cuadrícula.</td>
      *   </tr>
      *   <tr>
@@ -207,7 +232,7 @@ public class BinaryTablePixelPanelContainer extends JPanel {
 					this.add(cellPanel);
 					
 					
-					this.binaryTable[i][j] = cellPanel.isPixelOn() ? true : false;
+					this.frame.set(i, j, cellPanel.isPixelOn());
 					this.cellsPixelPanels[i][j] = cellPanel;
 					// jpanelList.add(cellPanel);
 				}
@@ -233,12 +258,12 @@ public class BinaryTablePixelPanelContainer extends JPanel {
      * </p>
      *
      * @param copyContainer matriz original de celdas a replicar.
-     * @param copyBinaryTable matriz lógica de referencia que contiene los estados binarios.
+     * @param copyFrame frame empaquetado de referencia que contiene los estados binarios.
      * @throws RuntimeException si ocurre un error durante la construcción del duplicado.
      * @see CellPixelPanel
      * @since 1.0
      */
-	private void buildTableFromDuplicate(CellPixelPanel[][] copyContainer, boolean[][] copyBinaryTable) {
+	private void buildTableFromDuplicate(CellPixelPanel[][] copyContainer, BitFrame copyFrame) {
 		
 		try {
 			
@@ -255,11 +280,13 @@ public class BinaryTablePixelPanelContainer extends JPanel {
 					});
 					this.add(cellPanel);
 					
-					this.binaryTable[i][j] = copyBinaryTable[i][j];
 					this.cellsPixelPanels[i][j] = cellPanel;
 				}
 			}
 			
+			this.frame.copyFrom(copyFrame);
+			this.panelMapping.encode(this.frame, this.ramFrame, 0);
+			
 		}catch (Exception e) {
 			JOptionPane.showMessageDialog(this, "Ha ocurrido un error:" + e.getMessage(), "Error de UI",
 					JOptionPane.ERROR_MESSAGE);
@@ -270,7 +297,12 @@ public class BinaryTablePixelPanelContainer extends JPanel {
 	
 	/**
      * Alterna el estado lógico y visual de una celda al hacer clic,
-     * actualizando simultáneamente su valor correspondiente en la matriz binaria.
+     * actualizando simultáneamente su valor correspondiente en el frame empaquetado.
+     * <p>
+     * La trama codificada {@code ramFrame} se mantiene al día modificando solo el
+     * bit afectado, localizado con {@link PanelMapping#ramOffset(int, int)} y
+     * {@link PanelMapping#ramMask(int, int)} del montaje del panel.
+     * </p>
      *
      * @param panel celda {@link CellPixelPanel} seleccionada por el usuario.
      * @see CellPixelPanel#setOn(boolean)
@@ -278,64 +310,44 @@ public class BinaryTablePixelPanelContainer extends JPanel {
      */
 	private void cellClickedEvent(CellPixelPanel panel) {
 		
-		panel.setOn(!panel.isPixelOn());
-		
-		if(panel.isPixelOn()) {		
-			this.binaryTable[panel.getRow()][panel.getColumn()] = true;
-			return;
-		}
+		int row = panel.getRow();
+		int column = panel.getColumn();
 		
-		if(!panel.isPixelOn()) {			
-			this.binaryTable[panel.getRow()][panel.getColumn()] = false;
-			return;
-		}
+		panel.setOn(this.frame.toggle(row, column));
+		this.ramFrame[this.panelMapping.ramOffset(row, column)] ^= this.panelMapping.ramMask(row, column);
+		this.revision++;
 	}
 	
 	/**
-     * Convierte la tabla binaria actual en su representación hexadecimal y
-     * genera la trama final de 64 bytes lista para transmisión al chip P10-Link.
+     * Genera la representación hexadecimal de la trama de 64 bytes lista para
+     * transmisión al chip P10-Link.
      * <p>
-     * El proceso incluye la impresión en consola de la matriz binaria y su
-     * conversión a formato hexadecimal mediante {@link FrameConverter}.
+     * La trama en orden RAM ya se mantiene codificada en cada clic, por lo que
+     * este paso solo la formatea mediante {@link FrameConverter#toHexString(byte[])}.
      * El resultado se almacena en {@code hexFrame}.
      * </p>
      *
      * @throws RuntimeException si ocurre un error inesperado durante la conversión.
      * @throws Exception si {@link FrameConverter} detecta una inconsistencia
      *                   en los datos de entrada o en el formato de la matriz.
-     * @see FrameConverter#convertBinaryMatrixToHex(boolean[][])
-     * @see FrameConverter#getRamArrayFrame(String[][])
+     * @see #getRamFrame()
+     * @see FrameConverter#toHexString(byte[])
      * @since 1.0
      */
 	public void convertCurrentFrame() throws RuntimeException, Exception {
 		
-		/*for(int i = 0; i < this.binaryTable.length; i++) {
-			for(int j = 0; j < this.binaryTable[i].length ; j++) {
-				System.out.print(this.binaryTable[i][j]? 1 + " " : 0 + " ");
-			}
-			System.out.println();
-		}*/
-		
-		String[][] hexMatrix = FrameConverter.convertBinaryMatrixToHex(binaryTable);
-		for(int i = 0; i< hexMatrix.length; i++) {
-			for(int j = 0; j < hexMatrix[i].length; j++) {
-				System.out.print(" " + hexMatrix[i][j]);
-			}
-			System.out.println();
-		}
-		
-		this.hexFrame = FrameConverter.getRamArrayFrame(hexMatrix);
+		this.hexFrame = FrameConverter.toHexString(this.ramFrame);
 		
 	}
 		
 	
 	/**
      * Limpia completamente la tabla de píxeles actual, apagando todas las celdas
-     * visuales y restableciendo la matriz binaria a {@code false}.
+     * visuales y restableciendo el frame empaquetado a {@code false}.
      * <p>
      * Recorre toda la cuadrícula de {@link CellPixelPanel} asignando cada píxel
      * a estado apagado, manteniendo sincronizado el modelo lógico
-     * ({@code binaryTable}) con la vista.
+     * ({@code frame}) con la vista.
      * </p>
      *
      * @see CellPixelPanel#setOn(boolean)
@@ -345,14 +357,147 @@ public class BinaryTablePixelPanelContainer extends JPanel {
 		for(int i = 0; i < this.cellsPixelPanels.length; i++) {
 			for(int j = 0; j < this.cellsPixelPanels[i].length; j++) {
 				this.cellsPixelPanels[i][j].setOn(false);
-				this.binaryTable[i][j] = false;
 			}
 		}
+		this.frame.clear();
+		Arrays.fill(this.ramFrame, (byte) 0);
+		this.revision++;
+	}
+	
+	/**
+	 * Reemplaza el contenido completo del frame y actualiza las celdas y la trama
+	 * RAM de una sola vez.
+	 *
+	 * @param frame nuevo contenido; se copia.
+	 * @since 1.0
+	 */
+	public void setFrame(BitFrame frame) {
+		
+		this.frame.copyFrom(frame);
+		for (int i = 0; i < 16; i++) {
+			for (int j = 0; j < 32; j++) {
+				this.cellsPixelPanels[i][j].setOn(this.frame.get(i, j));
+			}
+		}
+		this.panelMapping.encode(this.frame, this.ramFrame, 0);
+		this.revision++;
+		
+	}
+	
+	/**
+	 * Cambia el esquema de barrido y la orientación con que se codifica el frame,
+	 * recodificando la trama completa y marcando el frame como modificado.
+	 *
+	 * @param panelMapping tabla de permutación del panel destino.
+	 * @see PanelMapping#of(org.tectuinno.P10Soft.app.core.ScanLayout,
+	 *      org.tectuinno.P10Soft.app.core.PanelOrientation)
+	 * @since 1.0
+	 */
+	public void setPanelMapping(PanelMapping panelMapping) {
+		this.panelMapping = panelMapping;
+		this.panelMapping.encode(this.frame, this.ramFrame, 0);
+		this.revision++;
+	}
+	
+	public PanelMapping getPanelMapping() {
+		return this.panelMapping;
 	}
 	
+	/**
+	 * Indica si el frame ha cambiado desde la última serialización registrada con
+	 * {@link #setSerializedFrame(byte[], String, int)}.
+	 *
+	 * @return {@code true} si hay ediciones sin serializar.
+	 * @since 1.0
+	 */
+	public boolean isDirty() {
+		return this.revision != this.serializedRevision;
+	}
+	
+	/**
+	 * Devuelve el número de revisión actual del frame, que aumenta con cada
+	 * edición.
+	 *
+	 * @return revisión actual.
+	 * @since 1.0
+	 */
+	public int getRevision() {
+		return this.revision;
+	}
+	
+	/**
+	 * Toma una copia inmutable del frame para serializarla fuera del hilo de
+	 * eventos de Swing.
+	 *
+	 * @return copia independiente del {@link BitFrame} actual.
+	 * @since 1.0
+	 */
+	public BitFrame snapshotFrame() {
+		return this.frame.copy();
+	}
+	
+	/**
+	 * Registra el resultado de una serialización hecha a partir de una copia
+	 * tomada en la revisión {@code revision}.
+	 * <p>
+	 * Si el usuario editó el frame mientras tanto, el contenedor sigue marcado
+	 * como sucio y se volverá a serializar en la próxima ejecución.
+	 * </p>
+	 *
+	 * @param encoded  trama compartida de solo lectura.
+	 * @param hexFrame representación hexadecimal de {@code encoded}.
+	 * @param revision revisión en la que se tomó la copia.
+	 * @see #snapshotFrame()
+	 * @since 1.0
+	 */
+	public void setSerializedFrame(byte[] encoded, String hexFrame, int revision) {
+		this.serializedFrame = encoded;
+		this.hexFrame = hexFrame;
+		this.serializedRevision = revision;
+	}
+	
+	/**
+	 * Devuelve la trama compartida obtenida en la última serialización.
+	 *
+	 * @return buffer de solo lectura, o {@code null} si nunca se serializó.
+	 * @since 1.0
+	 */
+	public byte[] getSerializedFrame() {
+		return this.serializedFrame;
+	}
+	
+	/**
+	 * Devuelve una copia del frame en el formato heredado {@code boolean[16][32]}.
+	 * Los cambios sobre la matriz devuelta no afectan al modelo.
+	 *
+	 * @return matriz binaria equivalente al frame actual.
+	 * @see #getFrame()
+	 * @since 1.0
+	 */
 	public boolean[][] getBinaryTable(){
 				
-		return this.binaryTable;
+		return this.frame.toMatrix();
+	}
+	
+	/**
+	 * Devuelve el modelo lógico empaquetado de esta tabla.
+	 *
+	 * @return el {@link BitFrame} asociado a la cuadrícula.
+	 * @since 1.0
+	 */
+	public BitFrame getFrame() {
+		return this.frame;
+	}
+	
+	/**
+	 * Devuelve la trama codificada en orden RAM que se mantiene sincronizada con
+	 * el frame. El arreglo es el buffer interno: no debe modificarse.
+	 *
+	 * @return los 64 bytes listos para enviarse al chip P10-Link.
+	 * @since 1.0
+	 */
+	public byte[] getRamFrame() {
+		return this.ramFrame;
 	}
 	
 	public String getHexFrame() {
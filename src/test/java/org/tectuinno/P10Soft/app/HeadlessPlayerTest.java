@@ -0,0 +1,133 @@
+package org.tectuinno.P10Soft.app;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.FrameSequence;
+import org.tectuinno.P10Soft.app.io.LoopbackFrameSink;
+
+/**
+ * Command line parsing and playback of the headless player.
+ */
+public class HeadlessPlayerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void parsesOptions() {
+        HeadlessPlayer.Options options = HeadlessPlayer
+                .parse(new String[] { "--port", "ttyUSB0", "--fps", "25", "--loop", "--stats", "0", "show.p10s" });
+        assertEquals("ttyUSB0", options.port);
+        assertEquals(25, options.fps);
+        assertTrue(options.loop);
+        assertEquals(0, options.statsSeconds);
+        assertEquals("show.p10s", options.file.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> HeadlessPlayer.parse(new String[] { "show.p10s" }));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeadlessPlayer.parse(new String[] { "--port", "COM3", "--fps", "500", "show.p10s" }));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeadlessPlayer.parse(new String[] { "--port", "COM3", "--bogus", "show.p10s" }));
+    }
+
+    private Path writeSequence(ByteArrayOutputStream expected) throws Exception {
+        FrameSequence sequence = new FrameSequence();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < 6; i++) {
+            frame[i] = (byte) (i + 1);
+            sequence.append(frame, 0);
+            expected.write(frame);
+        }
+        Path file = dir.resolve("show.p10s");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            sequence.writeTo(out);
+        }
+        return file;
+    }
+
+    @Test
+    public void playsASavedSequenceOnce() throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Path file = writeSequence(expected);
+
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        HeadlessPlayer.Options options = HeadlessPlayer
+                .parse(new String[] { "--port", "loopback", "--fps", "20", "--stats", "0", file.toString() });
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(log, true);
+
+        assertEquals(0, HeadlessPlayer.play(options, HeadlessPlayer.load(file, out), sink, out, out));
+        assertArrayEquals(expected.toByteArray(), sink.toByteArray());
+        assertTrue(log.toString().contains("6 enviados"));
+    }
+
+    @Test
+    public void badFilesAreRejectedBeforeThePortIsOpened() throws Exception {
+        Path corrupt = dir.resolve("corrupt.p10s");
+        Files.write(corrupt, new byte[] { 'P', '1', '0', 'S', 0, 0, 0, 99 });
+        Path missing = dir.resolve("missing.p10s");
+
+        for (Path file : new Path[] { corrupt, missing }) {
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(log, true);
+
+            assertEquals(1, HeadlessPlayer.run(new String[] { "--port", "P10-TEST", file.toString() }, out, out));
+            assertFalse(log.toString().contains("Puerto"), log.toString());
+            assertTrue(log.toString().contains("No se pudo leer"), log.toString());
+        }
+    }
+
+    @Test
+    public void shutdownHookWaitsForTheFinalStatistics() throws Exception {
+        Path file = writeSequence(new ByteArrayOutputStream());
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        HeadlessPlayer.Options options = HeadlessPlayer
+                .parse(new String[] { "--port", "loopback", "--fps", "100", "--loop", "--stats", "0", file.toString() });
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(log, true);
+
+        // what run does around play
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger exitCode = new AtomicInteger(-1);
+        Thread main = new Thread(() -> {
+            try {
+                exitCode.set(HeadlessPlayer.play(options, HeadlessPlayer.load(file, out), sink, out, out));
+            } finally {
+                sink.close();
+                finished.countDown();
+            }
+        });
+        main.start();
+        while (sink.getMessageCount() < 3) {
+            Thread.sleep(5);
+        }
+
+        Thread hook = HeadlessPlayer.shutdownHook(main, finished);
+        hook.start();
+        hook.join(5000);
+
+        assertFalse(hook.isAlive());
+        assertEquals(0, finished.getCount());
+        assertFalse(sink.isOpen());
+        assertEquals(0, exitCode.get());
+        assertTrue(log.toString().contains("enviados"));
+        main.join(5000);
+    }
+}
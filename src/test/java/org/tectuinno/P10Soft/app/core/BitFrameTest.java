@@ -0,0 +1,102 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bit layout, toggling, equality and matrix conversion of a packed frame.
+ */
+public class BitFrameTest {
+
+    @Test
+    public void columnZeroIsTheMostSignificantBit() {
+        BitFrame frame = new BitFrame();
+        frame.set(3, 0, true);
+        frame.set(3, 31, true);
+
+        assertEquals(0x80000001, frame.getRow(3));
+        assertTrue(frame.get(3, 0));
+        assertFalse(frame.get(3, 1));
+        frame.set(3, 0, false);
+        assertEquals(0x00000001, frame.getRow(3));
+    }
+
+    @Test
+    public void toggleFlipsOnePixelAndReturnsItsState() {
+        BitFrame frame = new BitFrame();
+
+        assertTrue(frame.toggle(5, 9));
+        assertTrue(frame.get(5, 9));
+        assertEquals(0x80000000 >>> 9, frame.getRow(5));
+        assertFalse(frame.toggle(5, 9));
+        assertTrue(frame.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> frame.toggle(0, BitFrame.COLS));
+        assertThrows(IndexOutOfBoundsException.class, () -> frame.toggle(0, -1));
+    }
+
+    @Test
+    public void equalFramesHaveEqualHashCodes() {
+        BitFrame a = new BitFrame();
+        a.set(0, 0, true);
+        a.set(15, 31, true);
+        BitFrame b = a.copy();
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a, new BitFrame(a));
+
+        b.toggle(7, 7);
+        assertNotEquals(a, b);
+        assertNotEquals(a, null);
+        assertNotEquals(a, "frame");
+
+        b.copyFrom(a);
+        assertEquals(a, b);
+        b.clear();
+        assertEquals(new BitFrame(), b);
+    }
+
+    @Test
+    public void matrixRoundTrip() {
+        boolean[][] matrix = new boolean[BitFrame.ROWS][BitFrame.COLS];
+        matrix[0][0] = true;
+        matrix[9][17] = true;
+        matrix[15][31] = true;
+
+        BitFrame frame = BitFrame.fromMatrix(matrix);
+
+        assertTrue(frame.get(9, 17));
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            assertArrayEquals(matrix[row], frame.toMatrix()[row], "row " + row);
+        }
+    }
+
+    @Test
+    public void undersizeMatrixLeavesTheRestOff() {
+        boolean[][] matrix = new boolean[2][4];
+        matrix[1][3] = true;
+
+        BitFrame frame = BitFrame.fromMatrix(matrix);
+
+        assertTrue(frame.get(1, 3));
+        assertEquals(0x80000000 >>> 3, frame.getRow(1));
+        for (int row = 2; row < BitFrame.ROWS; row++) {
+            assertEquals(0, frame.getRow(row));
+        }
+        assertEquals(BitFrame.ROWS, frame.toMatrix().length);
+        assertEquals(BitFrame.COLS, frame.toMatrix()[0].length);
+    }
+
+    @Test
+    public void oversizeMatrixIsRejected() {
+        assertThrows(RuntimeException.class, () -> BitFrame.fromMatrix(new boolean[BitFrame.ROWS + 1][BitFrame.COLS]));
+        assertThrows(RuntimeException.class, () -> BitFrame.fromMatrix(new boolean[BitFrame.ROWS][BitFrame.COLS + 1]));
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks glyph packing and clipping of the text renderer.
+ */
+public class BitmapFontTest {
+
+    private static final String BDF = String.join("\n",
+            "STARTFONT 2.1",
+            "FONTBOUNDINGBOX 3 4 0 -1",
+            "FONT_ASCENT 3",
+            "FONT_DESCENT 1",
+            "CHARS 1",
+            "STARTCHAR L",
+            "ENCODING 76",
+            "DWIDTH 4 0",
+            "BBX 2 3 1 0",
+            "BITMAP",
+            "80",
+            "80",
+            "C0",
+            "ENDCHAR",
+            "ENDFONT");
+
+    @Test
+    public void drawsStraddlingWordsOnTheWall() {
+        BitmapFont font = BitmapFont.getDefault();
+        PanelWall wall = new PanelWall(2, 1);
+
+        int end = font.drawString(wall, "II", 29, 0);
+
+        assertEquals(29 + 2 * 6, end);
+        // 'I' has a blank first column, a 3 pixel serif and its stem in the middle
+        for (int x = 30; x <= 32; x++) {
+            assertTrue(wall.get(x, 0));
+        }
+        assertFalse(wall.get(29, 0));
+        assertTrue(wall.get(31, 3));
+        assertFalse(wall.get(32, 3));
+        assertTrue(wall.get(37, 3));
+    }
+
+    @Test
+    public void clipsOutsideTheFrame() {
+        BitFrame frame = new BitFrame();
+        BitmapFont.getDefault().drawString(frame, "Hola", -3, 12);
+
+        // 'H' is cut to its last two columns and the bottom three rows are lost
+        assertTrue(frame.get(12, 1));
+        assertFalse(frame.get(12, 0));
+        assertEquals(0, frame.getRow(11));
+        assertEquals(24, BitmapFont.getDefault().measure("Hola"));
+    }
+
+    @Test
+    public void loadsBdfGlyphsOnTheBaseline() throws IOException {
+        BitmapFont font = BitmapFont.loadBdf(new ByteArrayInputStream(BDF.getBytes(StandardCharsets.US_ASCII)));
+        BitFrame frame = new BitFrame();
+
+        assertEquals(4, font.getHeight());
+        assertTrue(font.hasGlyph('L'));
+        assertEquals(4, font.drawString(frame, "L", 0, 0));
+
+        assertEquals(0x40000000, frame.getRow(0));
+        assertEquals(0x40000000, frame.getRow(1));
+        assertEquals(0x60000000, frame.getRow(2));
+        assertEquals(0, frame.getRow(3));
+    }
+
+    @Test
+    public void rejectsBdfWithoutGlyphs() {
+        String empty = String.join("\n", "STARTFONT 2.1", "FONTBOUNDINGBOX 3 4 0 -1", "CHARS 0", "ENDFONT");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BitmapFont.loadBdf(new ByteArrayInputStream(empty.getBytes(StandardCharsets.US_ASCII))));
+        assertEquals("El archivo BDF no contiene caracteres", e.getMessage());
+    }
+}
@@ -0,0 +1,68 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round trips the delta wire format through the reference decoder.
+ */
+public class DeltaFrameCodecTest {
+
+    @Test
+    public void sparseAnimationRoundTrips() {
+        Random random = new Random(8L);
+        DeltaFrameEncoder encoder = new DeltaFrameEncoder(10);
+        DeltaFrameDecoder decoder = new DeltaFrameDecoder();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        byte[] wire = new byte[DeltaFrameEncoder.MAX_MESSAGE_SIZE];
+        random.nextBytes(frame);
+
+        int wireBytes = 0;
+        int keyframes = 0;
+        for (int i = 0; i < 500; i++) {
+            for (int changes = random.nextInt(4); changes > 0; changes--) {
+                frame[random.nextInt(frame.length)] ^= (byte) (1 << random.nextInt(8));
+            }
+
+            int length = encoder.encode(frame, 0, wire, 0);
+            if (length > 0) {
+                if ((wire[0] & 0xFF) == DeltaFrameEncoder.KEYFRAME) {
+                    keyframes++;
+                }
+                assertEquals(length, decoder.decode(wire, 0, length));
+            }
+            wireBytes += length;
+            assertArrayEquals(frame, decoder.getFrame());
+        }
+
+        assertEquals(50, keyframes);
+        assertTrue(wireBytes < 500 * FrameConverter.RAM_FRAME_SIZE / 2, "delta stream too large: " + wireBytes);
+    }
+
+    @Test
+    public void unchangedFrameProducesNoMessage() {
+        DeltaFrameEncoder encoder = new DeltaFrameEncoder(0);
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        byte[] wire = new byte[DeltaFrameEncoder.MAX_MESSAGE_SIZE];
+
+        assertEquals(DeltaFrameEncoder.MAX_MESSAGE_SIZE, encoder.encode(frame, 0, wire, 0));
+        assertEquals(0, encoder.encode(frame, 0, wire, 0));
+
+        frame[17] = 1;
+        assertEquals(3 + DeltaFrameEncoder.ROW_SIZE, encoder.encode(frame, 0, wire, 0));
+        assertEquals(0x08, wire[1] & 0xFF);
+        assertEquals(0x00, wire[2] & 0xFF);
+    }
+
+    @Test
+    public void decoderRejectsDeltaBeforeKeyframe() {
+        byte[] delta = { (byte) DeltaFrameEncoder.DELTA, 0, 0 };
+        assertThrows(IllegalStateException.class, () -> new DeltaFrameDecoder().decode(delta, 0, delta.length));
+    }
+}
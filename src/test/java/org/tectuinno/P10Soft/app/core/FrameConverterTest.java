@@ -0,0 +1,111 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks the packed encoders against the original String based conversion.
+ */
+public class FrameConverterTest {
+
+    private static final int FRAMES = 200;
+
+    private static boolean[][][] randomMatrices(long seed) {
+        Random random = new Random(seed);
+        boolean[][][] matrices = new boolean[FRAMES][16][32];
+        for (boolean[][] matrix : matrices) {
+            for (boolean[] row : matrix) {
+                for (int col = 0; col < row.length; col++) {
+                    row[col] = random.nextBoolean();
+                }
+            }
+        }
+        return matrices;
+    }
+
+    /**
+     * The vector encoder only exists when built with {@code -Pvector}; without
+     * it the case is skipped instead of silently testing the scalar fallback.
+     */
+    private static FrameBatchEncoder select(String name) {
+        FrameBatchEncoder encoder = FrameConverter.selectBatchEncoder(name);
+        if (!"auto".equals(name)) {
+            assumeTrue(name.equals(encoder.getName()), "Codificador " + name + " no disponible");
+        }
+        return encoder;
+    }
+
+    private static String legacyFrame(boolean[][] matrix) throws Exception {
+        return FrameConverter.getRamArrayFrame(FrameConverter.convertBinaryMatrixToHex(matrix));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 1L, 42L, 2025L })
+    public void singleFrameEncoderMatchesLegacyHex(long seed) throws Exception {
+        byte[] out = new byte[FrameConverter.RAM_FRAME_SIZE + 3];
+        for (boolean[][] matrix : randomMatrices(seed)) {
+            FrameConverter.encodeRamFrame(BitFrame.fromMatrix(matrix), out, 3);
+            assertEquals(legacyFrame(matrix), FrameConverter.toHexString(out, 3, FrameConverter.RAM_FRAME_SIZE));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "scalar", "vector", "auto" })
+    public void batchEncoderMatchesLegacyHex(String encoderName) throws Exception {
+        FrameBatchEncoder encoder = select(encoderName);
+
+        boolean[][][] matrices = randomMatrices(7L);
+        BitFrame[] frames = new BitFrame[FRAMES];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < FRAMES; i++) {
+            frames[i] = BitFrame.fromMatrix(matrices[i]);
+            expected.append(legacyFrame(matrices[i]));
+        }
+
+        byte[] out = new byte[FRAMES * FrameConverter.RAM_FRAME_SIZE];
+        encoder.encode(frames, 0, FRAMES, out, 0);
+
+        assertEquals(expected.toString(), FrameConverter.toHexString(out));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "scalar", "vector" })
+    public void batchEncoderHonoursRangeAndOffset(String encoderName) {
+        FrameBatchEncoder encoder = select(encoderName);
+        boolean[][][] matrices = randomMatrices(99L);
+        BitFrame[] frames = new BitFrame[4];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = BitFrame.fromMatrix(matrices[i]);
+        }
+
+        byte[] out = new byte[5 + 2 * FrameConverter.RAM_FRAME_SIZE];
+        encoder.encode(frames, 1, 2, out, 5);
+
+        byte[] expected = new byte[out.length];
+        FrameConverter.encodeRamFrame(frames[1], expected, 5);
+        FrameConverter.encodeRamFrame(frames[2], expected, 5 + FrameConverter.RAM_FRAME_SIZE);
+        assertArrayEquals(expected, out);
+    }
+
+    @Test
+    public void incrementalPatchMatchesFullEncode() {
+        Random random = new Random(5L);
+        BitFrame frame = new BitFrame();
+        byte[] live = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+        for (int i = 0; i < 2000; i++) {
+            int row = random.nextInt(16);
+            int col = random.nextInt(32);
+            frame.toggle(row, col);
+            live[FrameConverter.ramOffset(row, col)] ^= FrameConverter.ramMask(col);
+            assertArrayEquals(FrameConverter.encodeRamFrame(frame), live);
+        }
+    }
+}
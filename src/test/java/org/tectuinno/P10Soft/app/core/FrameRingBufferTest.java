@@ -0,0 +1,90 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises the backpressure policies of the frame ring.
+ */
+public class FrameRingBufferTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void blockingPipelineKeepsEveryFrameInOrder() throws Exception {
+        FrameRingBuffer ring = new FrameRingBuffer(8, FrameRingBuffer.Policy.BLOCK);
+        int frames = 20_000;
+
+        Thread producer = new Thread(() -> {
+            byte[] frame = new byte[FrameRingBuffer.SLOT_SIZE];
+            for (int i = 0; i < frames; i++) {
+                stamp(frame, i);
+                ring.offer(frame, 0);
+            }
+        });
+        producer.start();
+
+        byte[] frame = new byte[FrameRingBuffer.SLOT_SIZE];
+        for (int i = 0; i < frames; i++) {
+            assertTrue(ring.take(frame, 0, TIMEOUT));
+            assertEquals(i, stampOf(frame));
+            assertEquals((byte) i, frame[63]);
+        }
+        producer.join();
+
+        assertEquals(0, ring.getDroppedCount());
+        assertFalse(ring.poll(frame, 0));
+    }
+
+    @Test
+    public void dropNewestKeepsTheFirstFrames() {
+        FrameRingBuffer ring = new FrameRingBuffer(3, FrameRingBuffer.Policy.DROP_NEWEST);
+        byte[] frame = new byte[FrameRingBuffer.SLOT_SIZE];
+
+        assertEquals(4, ring.getCapacity());
+        for (int i = 0; i < 10; i++) {
+            stamp(frame, i);
+            assertEquals(i < 4, ring.offer(frame, 0));
+        }
+
+        assertEquals(6, ring.getFullCount());
+        assertEquals(6, ring.getDroppedCount());
+        assertTrue(ring.poll(frame, 0));
+        assertEquals(0, stampOf(frame));
+    }
+
+    @Test
+    public void dropOldestKeepsTheLatestFrames() {
+        FrameRingBuffer ring = new FrameRingBuffer(4, FrameRingBuffer.Policy.DROP_OLDEST);
+        byte[] frame = new byte[FrameRingBuffer.SLOT_SIZE];
+
+        for (int i = 0; i < 10; i++) {
+            stamp(frame, i);
+            assertTrue(ring.offer(frame, 0));
+        }
+
+        assertEquals(6, ring.getDroppedCount());
+        for (int i = 6; i < 10; i++) {
+            assertTrue(ring.poll(frame, 0));
+            assertEquals(i, stampOf(frame));
+        }
+        assertFalse(ring.poll(frame, 0));
+    }
+
+    private static void stamp(byte[] frame, int value) {
+        frame[0] = (byte) (value >>> 24);
+        frame[1] = (byte) (value >>> 16);
+        frame[2] = (byte) (value >>> 8);
+        frame[3] = (byte) value;
+        frame[63] = (byte) value;
+    }
+
+    private static int stampOf(byte[] frame) {
+        return (frame[0] & 0xFF) << 24 | (frame[1] & 0xFF) << 16 | (frame[2] & 0xFF) << 8 | frame[3] & 0xFF;
+    }
+}
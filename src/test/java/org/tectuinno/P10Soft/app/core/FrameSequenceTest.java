@@ -0,0 +1,136 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compressed sequence storage and streaming cursor.
+ */
+public class FrameSequenceTest {
+
+    private static List<byte[]> animation(int frames) {
+        Random random = new Random(4L);
+        List<byte[]> reference = new ArrayList<>();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        random.nextBytes(frame);
+        for (int i = 0; i < frames; i++) {
+            if (random.nextInt(5) == 0) {
+                frame[random.nextInt(frame.length)] ^= (byte) random.nextInt(256);
+            }
+            if (i % 300 == 7) {
+                random.nextBytes(frame);
+            }
+            reference.add(frame.clone());
+        }
+        return reference;
+    }
+
+    private static void assertSequence(List<byte[]> reference, FrameSequence sequence) {
+        FrameSequence.Cursor cursor = sequence.cursor();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (byte[] expected : reference) {
+            assertTrue(cursor.next(frame, 0));
+            assertArrayEquals(expected, frame);
+        }
+        assertFalse(cursor.next(frame, 0));
+    }
+
+    @Test
+    public void streamsBackWhatWasAppended() throws IOException {
+        List<byte[]> reference = animation(1000);
+        FrameSequence sequence = new FrameSequence();
+        for (byte[] frame : reference) {
+            sequence.append(frame, 0);
+        }
+
+        assertEquals(1000, sequence.size());
+        assertTrue(sequence.getCompressedSize() < 1000 * FrameConverter.RAM_FRAME_SIZE / 8);
+        assertSequence(reference, sequence);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sequence.writeTo(out);
+        assertSequence(reference, FrameSequence.readFrom(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void seekLandsOnTheRequestedFrame() {
+        List<byte[]> reference = animation(500);
+        FrameSequence sequence = new FrameSequence();
+        for (byte[] frame : reference) {
+            sequence.append(frame, 0);
+        }
+
+        Random random = new Random(9L);
+        FrameSequence.Cursor cursor = sequence.cursor();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < 200; i++) {
+            int index = random.nextInt(reference.size());
+            cursor.seek(index);
+            assertTrue(cursor.next(frame, 0));
+            assertArrayEquals(reference.get(index), frame);
+        }
+    }
+
+    @Test
+    public void worstCaseFramesFitTheReservedSpace() {
+        // 1 byte literal then a 2 byte run: 4 packed bytes for every 3, the
+        // worst PackBits case
+        byte[] pattern = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = (byte) (i % 3 == 0 ? 2 * (i / 3) + 1 : 2 * (i / 3) + 2);
+        }
+        byte[] blank = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+        // alternating with a blank frame keeps every XOR difference at the pattern
+        List<byte[]> reference = new ArrayList<>();
+        FrameSequence sequence = new FrameSequence();
+        for (int i = 0; i < 500; i++) {
+            byte[] frame = i % 2 == 0 ? pattern : blank;
+            sequence.append(frame, 0);
+            reference.add(frame);
+        }
+
+        assertEquals(500 * 86, sequence.getCompressedSize());
+        assertSequence(reference, sequence);
+    }
+
+    @Test
+    public void readRejectsFrameCountBeyondTheData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream stream = new DataOutputStream(out);
+        stream.writeInt(0x50313053);
+        stream.writeShort(1);
+        stream.writeInt(Integer.MAX_VALUE);
+        stream.writeInt(2);
+        stream.write(new byte[] { (byte) 0xBF, 0 });
+
+        assertThrows(IOException.class, () -> FrameSequence.readFrom(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void readRejectsTruncatedData() throws IOException {
+        FrameSequence sequence = new FrameSequence();
+        for (byte[] frame : animation(10)) {
+            sequence.append(frame, 0);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sequence.writeTo(out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 5);
+
+        assertThrows(IOException.class, () -> FrameSequence.readFrom(new ByteArrayInputStream(truncated)));
+    }
+}
@@ -0,0 +1,51 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Gray levels and bitplane extraction.
+ */
+public class GrayFrameTest {
+
+    @Test
+    public void bitplanesHoldEachBitOfTheLevels() {
+        GrayFrame frame = new GrayFrame(3);
+        frame.setLevel(0, 0, 7);
+        frame.setLevel(0, 1, 5);
+        frame.setLevel(3, 31, 2);
+        frame.setLevel(15, 16, 1);
+
+        BitFrame plane = new BitFrame();
+        frame.getBitplane(0, plane);
+        assertEquals(0xC0000000, plane.getRow(0));
+        assertEquals(0, plane.getRow(3));
+        assertEquals(0x00008000, plane.getRow(15));
+
+        frame.getBitplane(1, plane);
+        assertEquals(0x80000000, plane.getRow(0));
+        assertEquals(0x00000001, plane.getRow(3));
+        assertEquals(0, plane.getRow(15));
+
+        frame.getBitplane(2, plane);
+        assertEquals(0xC0000000, plane.getRow(0));
+        assertEquals(0, plane.getRow(3));
+        assertEquals(0, plane.getRow(15));
+    }
+
+    @Test
+    public void levelsAreBoundByTheDepth() {
+        GrayFrame frame = new GrayFrame(2);
+
+        assertEquals(3, frame.getMaxLevel());
+        assertEquals(15, new GrayFrame(4).getMaxLevel());
+        assertThrows(IllegalArgumentException.class, () -> frame.setLevel(0, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> frame.setLevel(0, 0, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> frame.setLevel(16, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new GrayFrame(1));
+        assertThrows(IllegalArgumentException.class, () -> new GrayFrame(5));
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Imports small generated images and checks the packed result.
+ */
+public class ImageFrameImporterTest {
+
+    @Test
+    public void scalesAndThresholdsPng() throws IOException {
+        BufferedImage image = new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB);
+        fill(image, 0, 0, 16, 32, Color.WHITE);
+
+        ImageFrameImporter importer = new ImageFrameImporter();
+        importer.setDithering(ImageFrameImporter.Dithering.THRESHOLD);
+        List<int[]> frames = importAll(importer, encode(image, "png"));
+
+        assertEquals(1, frames.size());
+        for (int row : frames.get(0)) {
+            assertEquals(0xFF000000, row);
+        }
+    }
+
+    @Test
+    public void orderedDitherHalfGrayLightsHalfThePixels() throws IOException {
+        BufferedImage image = new BufferedImage(64, 16, BufferedImage.TYPE_INT_RGB);
+        fill(image, 0, 0, 64, 16, new Color(128, 128, 128));
+
+        ImageFrameImporter importer = new ImageFrameImporter(2, 1);
+        importer.setDithering(ImageFrameImporter.Dithering.ORDERED);
+        int[] rows = importAll(importer, encode(image, "bmp")).get(0);
+
+        assertEquals(32, rows.length);
+        int lit = 0;
+        for (int row : rows) {
+            lit += Integer.bitCount(row);
+        }
+        assertEquals(64 * 16 / 2, lit);
+    }
+
+    @Test
+    public void streamsAnimatedGifFrames() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < 20; i++) {
+                BufferedImage image = new BufferedImage(32, 16, BufferedImage.TYPE_BYTE_INDEXED);
+                fill(image, i, 0, 1, 16, Color.WHITE);
+                writer.writeToSequence(new IIOImage(image, null, null), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+
+        List<int[]> frames = importAll(new ImageFrameImporter(), bytes.toByteArray());
+
+        assertEquals(20, frames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            assertEquals(0x80000000 >>> i, frames.get(i)[7], "frame " + i);
+        }
+    }
+
+    private static void fill(BufferedImage image, int x, int y, int w, int h, Color color) {
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(x, y, w, h);
+        g.dispose();
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, format, bytes);
+        return bytes.toByteArray();
+    }
+
+    private static List<int[]> importAll(ImageFrameImporter importer, byte[] data) throws IOException {
+        List<int[]> frames = new ArrayList<>();
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            importer.read(in, (index, rows, delay) -> {
+                assertEquals(frames.size(), index);
+                frames.add(rows);
+            }, () -> false);
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,56 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the marquee windows with the text drawn directly at each offset.
+ */
+public class MarqueeSourceTest {
+
+    private static final String TEXT = "Bienvenidos a Tectuinno";
+
+    @Test
+    public void windowsMatchDirectRendering() {
+        BitmapFont font = BitmapFont.getDefault();
+        PanelMapping mapping = PanelMapping.of(ScanLayout.QUARTER, PanelOrientation.ROTATE_180);
+        MarqueeSource marquee = new MarqueeSource(font, TEXT, mapping);
+        marquee.setSpeed(3);
+
+        byte[] actual = new byte[FrameConverter.RAM_FRAME_SIZE];
+        byte[] expected = new byte[FrameConverter.RAM_FRAME_SIZE];
+        int frames = 0;
+        while (marquee.next(actual, 0)) {
+            BitFrame frame = new BitFrame();
+            font.drawString(frame, TEXT, BitFrame.COLS - 3 * frames, (BitFrame.ROWS - font.getHeight()) / 2);
+            mapping.encode(frame, expected, 0);
+            assertArrayEquals(expected, actual, "frame " + frames);
+            frames++;
+        }
+
+        assertEquals(marquee.size(), frames);
+    }
+
+    @Test
+    public void rightScrollLoopsBackToTheStart() {
+        MarqueeSource marquee = new MarqueeSource(BitmapFont.getDefault(), TEXT);
+        marquee.setDirection(MarqueeSource.Direction.RIGHT);
+        byte[] first = new byte[FrameConverter.RAM_FRAME_SIZE];
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+        marquee.seek(40);
+        assertTrue(marquee.next(first, 0));
+        marquee.seek(marquee.size());
+        assertFalse(marquee.next(frame, 0));
+
+        marquee.setLooping(true);
+        for (int i = 0; i <= 40; i++) {
+            assertTrue(marquee.next(frame, 0));
+        }
+        assertArrayEquals(first, frame);
+    }
+}
@@ -0,0 +1,85 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Scan layout and orientation tables.
+ */
+public class PanelMappingTest {
+
+    private static BitFrame randomFrame(Random random) {
+        BitFrame frame = new BitFrame();
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            frame.setRow(row, random.nextInt());
+        }
+        return frame;
+    }
+
+    private static byte[] encode(PanelMapping mapping, BitFrame frame) {
+        byte[] out = new byte[FrameConverter.RAM_FRAME_SIZE];
+        mapping.encode(frame, out, 0);
+        return out;
+    }
+
+    @Test
+    public void defaultMappingMatchesLegacyEncoder() {
+        Random random = new Random(3L);
+        for (int i = 0; i < 100; i++) {
+            BitFrame frame = randomFrame(random);
+            assertArrayEquals(FrameConverter.encodeRamFrame(frame), encode(PanelMapping.DEFAULT, frame));
+        }
+    }
+
+    @Test
+    public void everyMappingIsAPermutation() {
+        for (ScanLayout layout : ScanLayout.values()) {
+            for (PanelOrientation orientation : PanelOrientation.values()) {
+                PanelMapping mapping = PanelMapping.of(layout, orientation);
+                boolean[] seen = new boolean[BitFrame.ROWS * BitFrame.COLS];
+                for (int row = 0; row < BitFrame.ROWS; row++) {
+                    for (int col = 0; col < BitFrame.COLS; col++) {
+                        int bit = 8 * mapping.ramOffset(row, col) + Integer.numberOfLeadingZeros(mapping.ramMask(row, col)) - 24;
+                        assertFalse(seen[bit], mapping.toString());
+                        seen[bit] = true;
+
+                        BitFrame single = new BitFrame();
+                        single.set(row, col, true);
+                        byte[] out = encode(mapping, single);
+                        assertEquals(mapping.ramMask(row, col), out[mapping.ramOffset(row, col)] & 0xFF, mapping.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rotate180MatchesRotatedDrawing() {
+        Random random = new Random(11L);
+        BitFrame frame = randomFrame(random);
+        BitFrame rotated = new BitFrame();
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            rotated.setRow(BitFrame.ROWS - 1 - row, Integer.reverse(frame.getRow(row)));
+        }
+
+        assertArrayEquals(FrameConverter.encodeRamFrame(rotated),
+                encode(PanelMapping.of(ScanLayout.QUARTER, PanelOrientation.ROTATE_180), frame));
+    }
+
+    @Test
+    public void sixteenthScanKeepsRowsInOrder() {
+        BitFrame frame = new BitFrame();
+        frame.setRow(5, 0x12345678);
+        byte[] out = encode(PanelMapping.of(ScanLayout.SIXTEENTH, PanelOrientation.NORMAL), frame);
+
+        assertEquals(0x78, out[20] & 0xFF);
+        assertEquals(0x56, out[21] & 0xFF);
+        assertEquals(0x34, out[22] & 0xFF);
+        assertEquals(0x12, out[23] & 0xFF);
+    }
+}
@@ -0,0 +1,127 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Chain order, serpentine wiring and per-module encoding of a wall.
+ */
+public class PanelWallTest {
+
+    private static BitFrame randomFrame(Random random) {
+        BitFrame frame = new BitFrame();
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            frame.setRow(row, random.nextInt());
+        }
+        return frame;
+    }
+
+    private static byte[] encode(PanelMapping mapping, BitFrame frame) {
+        byte[] out = new byte[FrameConverter.RAM_FRAME_SIZE];
+        mapping.encode(frame, out, 0);
+        return out;
+    }
+
+    private static byte[] module(byte[] encoded, int chainIndex) {
+        int offset = chainIndex * FrameConverter.RAM_FRAME_SIZE;
+        return Arrays.copyOfRange(encoded, offset, offset + FrameConverter.RAM_FRAME_SIZE);
+    }
+
+    @Test
+    public void rowMajorChainRunsEveryRowLeftToRight() {
+        PanelWall wall = new PanelWall(3, 2);
+
+        int[][] expected = { { 0, 0 }, { 1, 0 }, { 2, 0 }, { 0, 1 }, { 1, 1 }, { 2, 1 } };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], wall.moduleX(i), "x of module " + i);
+            assertEquals(expected[i][1], wall.moduleY(i), "y of module " + i);
+        }
+    }
+
+    @Test
+    public void serpentineChainReversesOddRows() {
+        PanelWall wall = new PanelWall(3, 3, PanelWall.ChainOrder.SERPENTINE);
+
+        int[][] expected = { { 0, 0 }, { 1, 0 }, { 2, 0 }, { 2, 1 }, { 1, 1 }, { 0, 1 }, { 0, 2 }, { 1, 2 }, { 2, 2 } };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], wall.moduleX(i), "x of module " + i);
+            assertEquals(expected[i][1], wall.moduleY(i), "y of module " + i);
+        }
+    }
+
+    @Test
+    public void canvasPixelsLandInTheirModule() {
+        PanelWall wall = new PanelWall(2, 2);
+        wall.set(33, 17, true);
+
+        BitFrame frame = new BitFrame();
+        wall.getModuleFrame(1, 1, frame);
+        assertTrue(frame.get(1, 1));
+        wall.getModuleFrame(0, 1, frame);
+        assertEquals(0, frame.getRow(1));
+
+        assertTrue(wall.get(33, 17));
+        assertFalse(wall.toggle(33, 17));
+        assertThrows(IndexOutOfBoundsException.class, () -> wall.set(64, 0, true));
+    }
+
+    @Test
+    public void eachModuleIsEncodedWithItsOwnMapping() {
+        Random random = new Random(8L);
+        PanelWall wall = new PanelWall(2, 2, PanelWall.ChainOrder.SERPENTINE);
+        BitFrame[][] frames = new BitFrame[2][2];
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                frames[y][x] = randomFrame(random);
+                wall.setModuleFrame(x, y, frames[y][x]);
+            }
+        }
+        PanelMapping upsideDown = PanelMapping.of(ScanLayout.QUARTER, PanelOrientation.ROTATE_180);
+        wall.setModuleMapping(2, upsideDown);
+        wall.setModuleMapping(3, upsideDown);
+
+        byte[] encoded = wall.encode();
+
+        assertEquals(4 * FrameConverter.RAM_FRAME_SIZE, encoded.length);
+        assertArrayEquals(encode(PanelMapping.DEFAULT, frames[0][0]), module(encoded, 0));
+        assertArrayEquals(encode(PanelMapping.DEFAULT, frames[0][1]), module(encoded, 1));
+        assertArrayEquals(encode(upsideDown, frames[1][1]), module(encoded, 2));
+        assertArrayEquals(encode(upsideDown, frames[1][0]), module(encoded, 3));
+    }
+
+    @Test
+    public void encodeModuleMatchesWholeWall() {
+        Random random = new Random(21L);
+        PanelWall wall = new PanelWall(4, 1);
+        for (int y = 0; y < wall.getHeight(); y++) {
+            for (int x = 0; x < wall.getModulesWide(); x++) {
+                wall.setWord(x, y, random.nextInt());
+            }
+        }
+
+        byte[] encoded = new byte[wall.getEncodedSize() + 3];
+        wall.encode(encoded, 3);
+        byte[] single = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < wall.getModuleCount(); i++) {
+            wall.encodeModule(i, single, 0);
+            assertArrayEquals(single, Arrays.copyOfRange(encoded, 3 + 64 * i, 3 + 64 * (i + 1)), "module " + i);
+        }
+    }
+
+    @Test
+    public void encodeRejectsShortBuffer() {
+        PanelWall wall = new PanelWall(2, 1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> wall.encode(new byte[wall.getEncodedSize() - 1], 0));
+        assertThrows(IllegalArgumentException.class, () -> new PanelWall(0, 1));
+    }
+
+}
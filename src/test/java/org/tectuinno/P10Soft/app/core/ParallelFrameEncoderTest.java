@@ -0,0 +1,60 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Parallel encoding of snapshots, including a second pass with nothing dirty.
+ */
+public class ParallelFrameEncoderTest {
+
+    @Test
+    public void reserializingWithNothingDirtyIsANoOp() {
+        ParallelFrameEncoder encoder = new ParallelFrameEncoder();
+        EncodedFrameCache cache = new EncodedFrameCache();
+        AtomicInteger lastPercent = new AtomicInteger(-1);
+        ParallelFrameEncoder.ProgressListener listener = (done, total) -> lastPercent.set(done * 100 / total);
+
+        List<BitFrame> frames = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            BitFrame frame = new BitFrame();
+            frame.setRow(i % BitFrame.ROWS, i * 0x01010101);
+            frames.add(frame);
+        }
+        List<byte[]> first = encoder.encodeAll(frames, cache, listener, () -> false);
+        assertEquals(100, first.size());
+        assertEquals(100, lastPercent.get());
+
+        // no tab edited since the first pass
+        lastPercent.set(-1);
+        List<byte[]> second = encoder.encodeAll(Collections.emptyList(), cache, listener, () -> false);
+        assertTrue(second.isEmpty());
+        assertEquals(-1, lastPercent.get());
+    }
+
+    @Test
+    public void resultsKeepInputOrder() {
+        List<BitFrame> frames = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            BitFrame frame = new BitFrame();
+            frame.setRow(0, i);
+            frames.add(frame);
+        }
+
+        List<byte[]> encoded = new ParallelFrameEncoder().encodeAll(frames, new EncodedFrameCache(), null, null);
+
+        byte[] expected = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < frames.size(); i++) {
+            FrameConverter.encodeRamFrame(frames.get(i), expected, 0);
+            assertArrayEquals(expected, encoded.get(i));
+        }
+    }
+}
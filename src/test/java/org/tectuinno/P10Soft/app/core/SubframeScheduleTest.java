@@ -0,0 +1,93 @@
+package org.tectuinno.P10Soft.app.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Weighted bitplane order of the modulation period.
+ */
+public class SubframeScheduleTest {
+
+    private static GrayFrame randomFrame(int depth, Random random) {
+        GrayFrame frame = new GrayFrame(depth);
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            for (int col = 0; col < BitFrame.COLS; col++) {
+                frame.setLevel(row, col, random.nextInt(frame.getMaxLevel() + 1));
+            }
+        }
+        return frame;
+    }
+
+    private static int[] bits(SubframeSchedule schedule) {
+        int[] bits = new int[schedule.getSlotCount()];
+        for (int slot = 0; slot < bits.length; slot++) {
+            bits[slot] = schedule.getSubframeOffset(slot) / FrameConverter.RAM_FRAME_SIZE;
+        }
+        return bits;
+    }
+
+    private static int[] units(SubframeSchedule schedule) {
+        int[] units = new int[schedule.getSlotCount()];
+        for (int slot = 0; slot < units.length; slot++) {
+            units[slot] = schedule.getUnits(slot);
+        }
+        return units;
+    }
+
+    @Test
+    public void periodIsTheBrightestLevel() {
+        Random random = new Random(5L);
+        for (int depth = GrayFrame.MIN_DEPTH; depth <= GrayFrame.MAX_DEPTH; depth++) {
+            SubframeSchedule schedule = SubframeSchedule.of(randomFrame(depth, random), PanelMapping.DEFAULT);
+
+            assertEquals((1 << depth) - 1, schedule.getPeriodUnits(), "depth " + depth);
+            int[] weight = new int[depth];
+            for (int slot = 0; slot < schedule.getSlotCount(); slot++) {
+                weight[schedule.getSubframeOffset(slot) / FrameConverter.RAM_FRAME_SIZE] += schedule.getUnits(slot);
+            }
+            for (int bit = 0; bit < depth; bit++) {
+                assertEquals(1 << bit, weight[bit], "depth " + depth + ", bit " + bit);
+            }
+        }
+    }
+
+    @Test
+    public void slotsSplitTheMostSignificantPlane() {
+        Random random = new Random(6L);
+
+        SubframeSchedule two = SubframeSchedule.of(randomFrame(2, random), PanelMapping.DEFAULT);
+        assertArrayEquals(new int[] { 1, 0 }, bits(two));
+        assertArrayEquals(new int[] { 2, 1 }, units(two));
+
+        SubframeSchedule three = SubframeSchedule.of(randomFrame(3, random), PanelMapping.DEFAULT);
+        assertArrayEquals(new int[] { 2, 0, 2, 1 }, bits(three));
+        assertArrayEquals(new int[] { 2, 1, 2, 2 }, units(three));
+
+        SubframeSchedule four = SubframeSchedule.of(randomFrame(4, random), PanelMapping.DEFAULT);
+        assertArrayEquals(new int[] { 3, 0, 1, 3, 2 }, bits(four));
+        assertArrayEquals(new int[] { 4, 1, 2, 4, 4 }, units(four));
+    }
+
+    @Test
+    public void subframesAreTheEncodedBitplanes() {
+        GrayFrame frame = randomFrame(4, new Random(7L));
+        PanelMapping mapping = PanelMapping.of(ScanLayout.QUARTER, PanelOrientation.ROTATE_180);
+        SubframeSchedule schedule = SubframeSchedule.of(frame, mapping);
+
+        BitFrame plane = new BitFrame();
+        byte[] expected = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int bit = 0; bit < frame.getDepth(); bit++) {
+            frame.getBitplane(bit, plane);
+            mapping.encode(plane, expected, 0);
+            int offset = bit * FrameConverter.RAM_FRAME_SIZE;
+            assertArrayEquals(expected, Arrays.copyOfRange(schedule.getSubframes(), offset,
+                    offset + FrameConverter.RAM_FRAME_SIZE), "bit " + bit);
+        }
+    }
+
+}
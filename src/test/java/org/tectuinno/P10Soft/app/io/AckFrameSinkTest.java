@@ -0,0 +1,131 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Runs the acknowledged protocol against the simulated board.
+ */
+public class AckFrameSinkTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    public void crcDetectsDamage() {
+        byte[] payload = "P10-Link".getBytes();
+        byte[] packet = new byte[AckProtocol.MAX_PACKET_SIZE];
+        int size = AckProtocol.encode(130, payload, 0, payload.length, packet, 0);
+
+        assertEquals(payload.length + AckProtocol.OVERHEAD, size);
+        assertEquals(2, packet[1]);
+        assertTrue(AckProtocol.isValid(packet, 0));
+        packet[5] ^= 0x10;
+        assertTrue(!AckProtocol.isValid(packet, 0));
+        // CRC-16/CCITT-FALSE check value
+        assertEquals(0x29B1, AckProtocol.crc16("123456789".getBytes(), 0, 9));
+    }
+
+    @Test
+    public void deliversEveryFrameOnceOnACleanLink() throws Exception {
+        SimulatedBoard board = new SimulatedBoard();
+        board.open();
+        byte[] expected = sendFrames(board, 4, 100, new Random(1));
+
+        assertArrayEquals(expected, board.getDisplay().toByteArray());
+    }
+
+    @Test
+    public void recoversFromDamagedPacketsAndLostReplies() throws Exception {
+        SimulatedBoard board = new SimulatedBoard(7);
+        board.open();
+        board.setCorruptionRate(0.1);
+        board.setReplyLossRate(0.05);
+
+        try (AckFrameSink sink = new AckFrameSink(board, board, 8)) {
+            sink.setAckTimeoutNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+            Random random = new Random(2);
+            for (int i = 0; i < 300; i++) {
+                random.nextBytes(frame);
+                expected.write(frame);
+                sink.sendFrame(frame, 0);
+                if (i == 150) {
+                    board.reset();
+                }
+            }
+            assertTrue(sink.awaitAcknowledged(TIMEOUT));
+            assertTrue(sink.getRetransmissions() > 0);
+            assertTrue(board.getCorruptedPackets() > 0);
+
+            // only the window in flight at the reset may be shown twice or lost
+            byte[] shown = board.getDisplay().toByteArray();
+            byte[] all = expected.toByteArray();
+            int head = (150 - 8) * FrameConverter.RAM_FRAME_SIZE;
+            int tail = 140 * FrameConverter.RAM_FRAME_SIZE;
+            assertArrayEquals(Arrays.copyOf(all, head), Arrays.copyOf(shown, head));
+            assertArrayEquals(Arrays.copyOfRange(all, all.length - tail, all.length),
+                    Arrays.copyOfRange(shown, shown.length - tail, shown.length));
+        }
+    }
+
+    @Test
+    public void longMessagesAreSplitIntoPackets() throws Exception {
+        SimulatedBoard board = new SimulatedBoard();
+        board.open();
+        // a 4x1 wall is already over one packet
+        byte[] wall = new byte[10 * FrameConverter.RAM_FRAME_SIZE];
+        new Random(4).nextBytes(wall);
+
+        try (AckFrameSink sink = new AckFrameSink(board, board, 2)) {
+            assertTrue(sink.send(wall, 0, wall.length));
+            assertTrue(sink.awaitAcknowledged(TIMEOUT));
+            assertEquals(3, sink.getAcknowledgedPackets());
+        }
+        assertArrayEquals(wall, board.getDisplay().toByteArray());
+        assertEquals(3, board.getDisplay().getMessageCount());
+    }
+
+    @Test
+    public void windowHidesReplyLatency() throws Exception {
+        long stopAndWait = timeFrames(1);
+        long pipelined = timeFrames(8);
+        assertTrue(pipelined * 3 < stopAndWait, pipelined + " vs " + stopAndWait);
+    }
+
+    private static long timeFrames(int window) throws Exception {
+        SimulatedBoard board = new SimulatedBoard();
+        board.open();
+        board.setLatencyNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        long start = System.nanoTime();
+        sendFrames(board, window, 40, new Random(3));
+        assertEquals(40, board.getDisplay().getMessageCount());
+        return System.nanoTime() - start;
+    }
+
+    private static byte[] sendFrames(SimulatedBoard board, int window, int count, Random random)
+            throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        try (AckFrameSink sink = new AckFrameSink(board, board, window)) {
+            for (int i = 0; i < count; i++) {
+                random.nextBytes(frame);
+                expected.write(frame);
+                assertTrue(sink.sendFrame(frame, 0));
+            }
+            assertTrue(sink.awaitAcknowledged(TIMEOUT));
+            assertEquals(0, sink.getRetransmissions());
+            assertEquals(count, sink.getAcknowledgedPackets());
+        }
+        return expected.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.FrameSequence;
+import org.tectuinno.P10Soft.app.io.AsyncFrameWriter.Status;
+import org.tectuinno.P10Soft.app.io.AsyncFrameWriter.WriteResult;
+
+/**
+ * Deadlines, partial writes and cancellation of the asynchronous writer.
+ */
+public class AsyncFrameWriterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** Sink whose writes hang until released, like a wedged adapter */
+    private static class WedgedSink extends LoopbackFrameSink {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        @Override
+        public boolean send(byte[] data, int offset, int length) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.send(data, offset, length);
+        }
+    }
+
+    @Test
+    public void completesWrittenFrames() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        frame[5] = 42;
+
+        try (AsyncFrameWriter writer = new AsyncFrameWriter(sink)) {
+            CompletableFuture<WriteResult> future = writer.submitFrame(frame, 0, SECOND);
+            frame[5] = 0; // the writer works on its own copy
+            WriteResult result = future.get(1, TimeUnit.SECONDS);
+            assertEquals(Status.COMPLETE, result.getStatus());
+            assertEquals(FrameConverter.RAM_FRAME_SIZE, result.getBytesWritten());
+        }
+        assertEquals(42, sink.toByteArray()[5]);
+    }
+
+    @Test
+    public void wedgedDeviceTimesOutWithoutBlockingTheCaller() throws Exception {
+        WedgedSink sink = new WedgedSink();
+        sink.open();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+        try (AsyncFrameWriter writer = new AsyncFrameWriter(sink)) {
+            long start = System.nanoTime();
+            CompletableFuture<WriteResult> first = writer.submitFrame(frame, 0, TimeUnit.MILLISECONDS.toNanos(20));
+            assertTrue(sink.entered.await(1, TimeUnit.SECONDS));
+            CompletableFuture<WriteResult> second = writer.submitFrame(frame, 0, TimeUnit.MILLISECONDS.toNanos(20));
+
+            assertEquals(Status.TIMED_OUT, first.get(1, TimeUnit.SECONDS).getStatus());
+            assertEquals(Status.TIMED_OUT, second.get(1, TimeUnit.SECONDS).getStatus());
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+
+            sink.release.countDown();
+            long deadline = System.nanoTime() + SECOND;
+            while (writer.getSkippedRequests() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, writer.getLateWrites());
+            assertEquals(1, writer.getSkippedRequests());
+            assertEquals(1, sink.getMessageCount());
+        }
+    }
+
+    @Test
+    public void reportsPartialWrites() throws Exception {
+        FrameSink half = new LoopbackFrameSink() {
+            @Override
+            public int write(byte[] data, int offset, int length) {
+                super.send(data, offset, length / 2);
+                return length / 2;
+            }
+        };
+        half.open();
+
+        try (AsyncFrameWriter writer = new AsyncFrameWriter(half)) {
+            WriteResult result = writer.submit(new byte[10], 0, 10, SECOND).get(1, TimeUnit.SECONDS);
+            assertEquals(Status.PARTIAL, result.getStatus());
+            assertEquals(5, result.getBytesWritten());
+            assertEquals(1, writer.getFailedWrites());
+        }
+    }
+
+    @Test
+    public void cancelledAndDisplacedRequestsAreNeverWritten() throws Exception {
+        WedgedSink sink = new WedgedSink();
+        sink.open();
+        byte[] data = new byte[] { 1 };
+
+        try (AsyncFrameWriter writer = new AsyncFrameWriter(sink, 1)) {
+            writer.submit(data, 0, 1, SECOND);
+            assertTrue(sink.entered.await(1, TimeUnit.SECONDS));
+
+            data[0] = 2;
+            CompletableFuture<WriteResult> cancelled = writer.submit(data, 0, 1, SECOND);
+            cancelled.cancel(false);
+            data[0] = 3;
+            CompletableFuture<WriteResult> displaced = writer.submit(data, 0, 1, SECOND);
+            data[0] = 4;
+            CompletableFuture<WriteResult> last = writer.submit(data, 0, 1, SECOND);
+            assertEquals(Status.CANCELLED, displaced.get(1, TimeUnit.SECONDS).getStatus());
+
+            sink.release.countDown();
+            assertEquals(Status.COMPLETE, last.get(1, TimeUnit.SECONDS).getStatus());
+        }
+        assertArrayEquals(new byte[] { 1, 4 }, sink.toByteArray());
+    }
+
+    @Test
+    public void asyncPlaybackSurvivesAWedgedDevice() throws Exception {
+        WedgedSink sink = new WedgedSink();
+        sink.open();
+        FrameSequence sequence = new FrameSequence();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < 10; i++) {
+            sequence.append(frame, 0);
+        }
+
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setAsyncWrites(true);
+        engine.setFps(100);
+        engine.load(sequence.cursor(), null, false);
+        long start = System.nanoTime();
+        engine.play();
+        while (engine.getState() != PlaybackEngine.State.STOPPED && System.nanoTime() - start < SECOND) {
+            Thread.sleep(5);
+        }
+        sink.release.countDown();
+
+        assertEquals(PlaybackEngine.State.STOPPED, engine.getState());
+        assertEquals(10, engine.getFailedFrames());
+        assertEquals(0, engine.getFramesSent());
+    }
+}
@@ -0,0 +1,212 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameRingBuffer;
+
+/**
+ * Writer thread draining a frame ring into a sink.
+ */
+public class BufferedFrameWriterTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    /** Loopback sink that also logs sends and flushes in order */
+    private static final class LoggingSink extends LoopbackFrameSink {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public boolean send(byte[] data, int offset, int length) {
+            synchronized (events) {
+                events.add("frame " + data[offset]);
+            }
+            return super.send(data, offset, length);
+        }
+
+        @Override
+        public boolean flush() {
+            synchronized (events) {
+                events.add("flush");
+            }
+            return true;
+        }
+
+        List<String> events() {
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+    }
+
+    private static void offer(FrameRingBuffer ring, int frames) {
+        byte[] frame = new byte[FrameRingBuffer.SLOT_SIZE];
+        for (int i = 0; i < frames; i++) {
+            frame[0] = (byte) i;
+            assertTrue(ring.offer(frame, 0));
+        }
+    }
+
+    private static void awaitWritten(BufferedFrameWriter writer, long frames) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (writer.getFramesWritten() + writer.getFailedFrames() < frames && System.currentTimeMillis() < deadline) {
+            Thread.sleep(2);
+        }
+        assertEquals(frames, writer.getFramesWritten() + writer.getFailedFrames());
+    }
+
+    private static void awaitEvents(LoggingSink sink, int events) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (sink.events().size() < events && System.currentTimeMillis() < deadline) {
+            Thread.sleep(2);
+        }
+    }
+
+    @Test
+    public void stopDrainsQueuedFrames() throws Exception {
+        FrameRingBuffer ring = new FrameRingBuffer(64, FrameRingBuffer.Policy.BLOCK);
+        // about 5.6 ms per frame, so most of them are still queued at stop
+        LoopbackFrameSink sink = new LoopbackFrameSink(115200);
+        sink.open();
+        BufferedFrameWriter writer = new BufferedFrameWriter(ring, sink);
+        offer(ring, 40);
+
+        writer.start();
+        writer.stop(TIMEOUT_MILLIS);
+
+        assertEquals(40, writer.getFramesWritten());
+        assertEquals(0, writer.getFailedFrames());
+        assertEquals(0, ring.size());
+        assertTrue(ring.isClosed());
+        byte[] written = sink.toByteArray();
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, written[i * FrameRingBuffer.SLOT_SIZE]);
+        }
+        assertFalse(ring.offer(new byte[FrameRingBuffer.SLOT_SIZE], 0));
+    }
+
+    @Test
+    public void refusedFramesAreCountedAsFailed() throws Exception {
+        FrameRingBuffer ring = new FrameRingBuffer(8, FrameRingBuffer.Policy.BLOCK);
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        BufferedFrameWriter writer = new BufferedFrameWriter(ring, sink);
+        writer.start();
+
+        offer(ring, 3);
+        awaitWritten(writer, 3);
+        sink.setFailing(true);
+        offer(ring, 2);
+        awaitWritten(writer, 5);
+        writer.stop(TIMEOUT_MILLIS);
+
+        assertEquals(3, writer.getFramesWritten());
+        assertEquals(2, writer.getFailedFrames());
+    }
+
+    @Test
+    public void flushesOnlyWhenTheRingRunsEmpty() throws Exception {
+        FrameRingBuffer ring = new FrameRingBuffer(8, FrameRingBuffer.Policy.BLOCK);
+        LoggingSink sink = new LoggingSink();
+        sink.open();
+        BufferedFrameWriter writer = new BufferedFrameWriter(ring, sink);
+
+        // a backlog of three frames, then a lone one
+        offer(ring, 3);
+        writer.start();
+        awaitEvents(sink, 4);
+        byte[] frame = new byte[FrameRingBuffer.SLOT_SIZE];
+        frame[0] = 9;
+        ring.offer(frame, 0);
+        awaitEvents(sink, 6);
+        writer.stop(TIMEOUT_MILLIS);
+
+        assertArrayEquals(new String[] { "frame 0", "frame 1", "frame 2", "flush", "frame 9", "flush" },
+                sink.events().toArray(new String[0]));
+    }
+
+    @Test
+    public void sinkExceptionsAreCountedAsFailed() throws Exception {
+        FrameRingBuffer ring = new FrameRingBuffer(8, FrameRingBuffer.Policy.BLOCK);
+        LoopbackFrameSink sink = new LoopbackFrameSink() {
+            @Override
+            public boolean send(byte[] data, int offset, int length) {
+                if (data[offset] == 1) {
+                    throw new IllegalStateException("frame 1");
+                }
+                return super.send(data, offset, length);
+            }
+        };
+        sink.open();
+        BufferedFrameWriter writer = new BufferedFrameWriter(ring, sink);
+        writer.start();
+
+        offer(ring, 4);
+        awaitWritten(writer, 4);
+        writer.stop(TIMEOUT_MILLIS);
+
+        assertEquals(3, writer.getFramesWritten());
+        assertEquals(1, writer.getFailedFrames());
+        assertEquals(3, sink.getMessageCount());
+    }
+
+    @Test
+    public void wallCoalescedForAnAckSinkReachesTheBoard() throws Exception {
+        SimulatedBoard board = new SimulatedBoard();
+        board.open();
+        AckFrameSink ack = new AckFrameSink(board, board, AckFrameSink.DEFAULT_WINDOW);
+        // a 4x1 wall, one byte over a packet
+        int modules = 4;
+        CoalescingFrameSink coalescer = new CoalescingFrameSink(ack, modules * FrameRingBuffer.SLOT_SIZE, 0);
+        FrameRingBuffer ring = new FrameRingBuffer(8, FrameRingBuffer.Policy.BLOCK);
+        BufferedFrameWriter writer = new BufferedFrameWriter(ring, coalescer);
+        writer.setFlushWhenEmpty(false);
+        writer.start();
+
+        byte[] wall = new byte[modules * FrameRingBuffer.SLOT_SIZE];
+        new Random(9L).nextBytes(wall);
+        for (int i = 0; i < modules; i++) {
+            assertTrue(ring.offer(wall, i * FrameRingBuffer.SLOT_SIZE));
+        }
+        awaitWritten(writer, modules);
+        writer.stop(TIMEOUT_MILLIS);
+
+        assertEquals(modules, writer.getFramesWritten());
+        assertEquals(0, writer.getFailedFrames());
+        assertTrue(ack.awaitAcknowledged(TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)));
+        assertArrayEquals(wall, board.getDisplay().toByteArray());
+        coalescer.close();
+    }
+
+    @Test
+    public void wallModulesTrickledInStillGoOutInOneWrite() throws Exception {
+        FrameRingBuffer ring = new FrameRingBuffer(8, FrameRingBuffer.Policy.BLOCK);
+        LoopbackFrameSink loopback = new LoopbackFrameSink();
+        loopback.open();
+        CoalescingFrameSink coalescer = new CoalescingFrameSink(loopback, 4 * FrameRingBuffer.SLOT_SIZE, 0);
+        BufferedFrameWriter writer = new BufferedFrameWriter(ring, coalescer);
+        writer.setFlushWhenEmpty(false);
+        writer.start();
+
+        // each module is drained before the next one is queued
+        for (int i = 1; i <= 4; i++) {
+            offer(ring, 1);
+            awaitWritten(writer, i);
+        }
+        writer.stop(TIMEOUT_MILLIS);
+
+        assertEquals(1, loopback.getMessageCount());
+        assertEquals(4 * FrameRingBuffer.SLOT_SIZE, loopback.getBytesWritten());
+        coalescer.close();
+    }
+
+}
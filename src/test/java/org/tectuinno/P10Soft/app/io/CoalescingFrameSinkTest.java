@@ -0,0 +1,113 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.FrameRingBuffer;
+
+/**
+ * Batching by size, by time and behind a backlogged ring.
+ */
+public class CoalescingFrameSinkTest {
+
+    private static final int FRAME = FrameConverter.RAM_FRAME_SIZE;
+
+    @Test
+    public void flushesWhenTheBatchIsFull() {
+        LoopbackFrameSink loopback = new LoopbackFrameSink();
+        loopback.open();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        byte[] frame = new byte[FRAME];
+        Random random = new Random(5);
+
+        try (CoalescingFrameSink sink = new CoalescingFrameSink(loopback, 4 * FRAME, 0)) {
+            for (int i = 0; i < 10; i++) {
+                random.nextBytes(frame);
+                expected.write(frame, 0, FRAME);
+                assertTrue(sink.sendFrame(frame, 0));
+            }
+            assertEquals(2, loopback.getMessageCount());
+            assertEquals(2, sink.getSizeFlushes());
+
+            assertTrue(sink.flush());
+            assertEquals(3, loopback.getMessageCount());
+            assertEquals(10, sink.getMessagesWritten());
+            assertEquals(10.0 / 3, sink.getMessagesPerFlush(), 1e-9);
+        }
+        assertArrayEquals(expected.toByteArray(), loopback.toByteArray());
+    }
+
+    @Test
+    public void raisingTheFlushSizeGrowsTheBuffer() {
+        LoopbackFrameSink loopback = new LoopbackFrameSink();
+        loopback.open();
+        byte[] frame = new byte[FRAME];
+
+        try (CoalescingFrameSink sink = new CoalescingFrameSink(loopback, FRAME, 0)) {
+            assertTrue(sink.sendFrame(frame, 0));
+            assertTrue(sink.send(frame, 0, 10));
+            assertEquals(1, loopback.getMessageCount());
+
+            // a 12 module wall in one write, with 10 bytes already buffered
+            sink.setFlushBytes(12 * FRAME);
+            assertEquals(12 * FRAME, sink.getFlushBytes());
+            for (int i = 0; i < 11; i++) {
+                assertTrue(sink.sendFrame(frame, 0));
+            }
+            assertEquals(1, loopback.getMessageCount());
+            assertTrue(sink.sendFrame(frame, 0));
+
+            assertEquals(2, loopback.getMessageCount());
+            assertEquals(2, sink.getSizeFlushes());
+            assertEquals(FRAME + 10 + 12 * FRAME, loopback.getBytesWritten());
+        }
+    }
+
+    @Test
+    public void flushesAfterTheMaximumDelay() throws Exception {
+        LoopbackFrameSink loopback = new LoopbackFrameSink();
+        loopback.open();
+
+        try (CoalescingFrameSink sink = new CoalescingFrameSink(loopback, 16 * FRAME,
+                TimeUnit.MILLISECONDS.toNanos(5))) {
+            sink.send(new byte[] { 1, 2, 3 }, 0, 3);
+            sink.send(new byte[] { 4 }, 0, 1);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (loopback.getMessageCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, sink.getTimeFlushes());
+            assertArrayEquals(new byte[] { 1, 2, 3, 4 }, loopback.toByteArray());
+        }
+    }
+
+    @Test
+    public void batchesOnlyWhileTheRingIsBacklogged() throws Exception {
+        LoopbackFrameSink loopback = new LoopbackFrameSink();
+        loopback.open();
+        FrameRingBuffer ring = new FrameRingBuffer(128, FrameRingBuffer.Policy.BLOCK);
+        byte[] frame = new byte[FRAME];
+        for (int i = 0; i < 100; i++) {
+            frame[0] = (byte) i;
+            ring.offer(frame, 0);
+        }
+
+        CoalescingFrameSink sink = new CoalescingFrameSink(loopback, 8 * FRAME, 0);
+        BufferedFrameWriter writer = new BufferedFrameWriter(ring, sink);
+        writer.start();
+        writer.stop(5000);
+
+        assertEquals(100, writer.getFramesWritten());
+        assertEquals(100 * FRAME, loopback.getBytesWritten());
+        assertEquals(13, loopback.getMessageCount());
+        sink.close();
+    }
+}
@@ -0,0 +1,88 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.GrayFrame;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
+import org.tectuinno.P10Soft.app.core.SubframeSchedule;
+
+/**
+ * Modulation loop writing into a loopback sink.
+ */
+public class GrayscaleTransmitterTest {
+
+    private static final long UNIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private static GrayFrame gradient() {
+        GrayFrame frame = new GrayFrame(3);
+        for (int col = 0; col < 32; col++) {
+            frame.setLevel(col % 16, col, col % 8);
+        }
+        return frame;
+    }
+
+    private static Thread start(GrayscaleTransmitter transmitter) {
+        Thread thread = new Thread(transmitter, "p10-grayscale-test");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitPeriods(GrayscaleTransmitter transmitter, long periods) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (transmitter.getPeriods() < periods && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(transmitter.getPeriods() >= periods, "periods " + transmitter.getPeriods());
+    }
+
+    @Test
+    public void writesSubframesInSlotOrder() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        GrayFrame frame = gradient();
+        SubframeSchedule schedule = SubframeSchedule.of(frame, PanelMapping.DEFAULT);
+
+        GrayscaleTransmitter transmitter = new GrayscaleTransmitter(sink, PanelMapping.DEFAULT, UNIT_NANOS);
+        transmitter.submit(frame);
+        Thread thread = start(transmitter);
+        awaitPeriods(transmitter, 3);
+        transmitter.stop();
+        thread.join(TIMEOUT_MILLIS);
+
+        byte[] written = sink.toByteArray();
+        int size = FrameConverter.RAM_FRAME_SIZE;
+        for (int i = 0; i < 3 * schedule.getSlotCount(); i++) {
+            int offset = schedule.getSubframeOffset(i % schedule.getSlotCount());
+            assertArrayEquals(Arrays.copyOfRange(schedule.getSubframes(), offset, offset + size),
+                    Arrays.copyOfRange(written, i * size, (i + 1) * size), "message " + i);
+        }
+        assertEquals(0, transmitter.getFailedSubframes());
+    }
+
+    @Test
+    public void refusedSubframesAreCounted() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        sink.setFailing(true);
+
+        GrayscaleTransmitter transmitter = new GrayscaleTransmitter(sink, PanelMapping.DEFAULT, UNIT_NANOS);
+        transmitter.submit(gradient());
+        Thread thread = start(transmitter);
+        awaitPeriods(transmitter, 2);
+        transmitter.stop();
+        thread.join(TIMEOUT_MILLIS);
+
+        assertTrue(transmitter.getFailedSubframes() >= 2 * 4);
+        assertEquals(0, sink.getMessageCount());
+    }
+
+}
@@ -0,0 +1,239 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.DeltaFrameEncoder;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.FrameSequence;
+
+/**
+ * Plays sequences into a loopback sink and checks content and timing.
+ */
+public class PlaybackEngineTest {
+
+    @Test
+    public void playsEveryFrameOnceWithoutLoop() throws Exception {
+        Random random = new Random(17L);
+        FrameSequence sequence = new FrameSequence();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < 5; i++) {
+            random.nextBytes(frame);
+            sequence.append(frame, 0);
+            expected.write(frame);
+        }
+
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setFps(100);
+        engine.load(sequence.cursor(), null, false);
+        engine.play();
+        awaitStop(engine);
+
+        assertArrayEquals(expected.toByteArray(), sink.toByteArray());
+        assertEquals(5, engine.getFramesSent());
+        assertEquals(0, engine.getFailedFrames());
+    }
+
+    @Test
+    public void writeTimeDoesNotAccumulateAsDrift() throws Exception {
+        FrameSequence sequence = new FrameSequence();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < 31; i++) {
+            frame[0] = (byte) i;
+            sequence.append(frame, 0);
+        }
+
+        // every frame takes about 5.6 ms on the emulated wire
+        LoopbackFrameSink sink = new LoopbackFrameSink(115200);
+        sink.open();
+        long[] times = new long[31];
+        int[] count = new int[1];
+        sink.setMessageListener((data, offset, length) -> times[count[0]++] = System.nanoTime());
+
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setFps(60);
+        engine.load(sequence.cursor(), null, false);
+        engine.play();
+        awaitStop(engine);
+
+        assertEquals(31, count[0]);
+        long elapsed = times[30] - times[0];
+        long ideal = TimeUnit.SECONDS.toNanos(30) / 60;
+        assertTrue(Math.abs(elapsed - ideal) < TimeUnit.MILLISECONDS.toNanos(40), "elapsed " + elapsed);
+    }
+
+    @Test
+    public void holdTimesOverrideTheFrameRate() throws Exception {
+        FrameSequence sequence = new FrameSequence();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        sequence.append(frame, 0);
+        sequence.append(frame, 0);
+
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setFps(1);
+        engine.load(sequence.cursor(), new int[] { 20, 20 }, false);
+
+        long start = System.nanoTime();
+        engine.play();
+        awaitStop(engine);
+
+        assertEquals(2, sink.getMessageCount());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void pauseHoldsAndPlayResumesWhereItLeft() throws Exception {
+        FrameSequence sequence = numbered(20);
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setFps(50);
+        engine.load(sequence.cursor(), null, false);
+        engine.play();
+
+        awaitMessages(sink, 3);
+        engine.pause();
+        assertEquals(PlaybackEngine.State.PAUSED, engine.getState());
+        // a write already started may still land
+        Thread.sleep(20);
+        long paused = sink.getMessageCount();
+        Thread.sleep(100);
+        assertEquals(paused, sink.getMessageCount());
+
+        engine.play();
+        awaitStop(engine);
+
+        // every frame exactly once and in order, across the pause
+        byte[] written = sink.toByteArray();
+        assertEquals(20 * FrameConverter.RAM_FRAME_SIZE, written.length);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, written[i * FrameConverter.RAM_FRAME_SIZE]);
+        }
+    }
+
+    @Test
+    public void seekMovesToTheRequestedFrame() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setFps(100);
+        engine.load(numbered(20).cursor(), null, false);
+        engine.seek(15);
+        engine.play();
+        awaitStop(engine);
+
+        byte[] written = sink.toByteArray();
+        assertEquals(5 * FrameConverter.RAM_FRAME_SIZE, written.length);
+        assertEquals(15, written[0]);
+        assertEquals(20, engine.getPosition());
+        assertThrows(IndexOutOfBoundsException.class, () -> engine.seek(-1));
+    }
+
+    @Test
+    public void loopRewindsUntilStopped() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        List<PlaybackEngine.State> states = new CopyOnWriteArrayList<>();
+        engine.setPlaybackListener((e, state) -> states.add(state));
+        engine.setFps(100);
+        engine.load(numbered(3).cursor(), null, true);
+        engine.play();
+
+        awaitMessages(sink, 8);
+        engine.stop();
+        assertEquals(PlaybackEngine.State.STOPPED, engine.getState());
+        Thread.sleep(50);
+        long stopped = sink.getMessageCount();
+        Thread.sleep(50);
+        assertEquals(stopped, sink.getMessageCount());
+
+        byte[] written = sink.toByteArray();
+        for (int i = 0; i < written.length / FrameConverter.RAM_FRAME_SIZE; i++) {
+            assertEquals(i % 3, written[i * FrameConverter.RAM_FRAME_SIZE]);
+        }
+        assertEquals(List.of(PlaybackEngine.State.PLAYING, PlaybackEngine.State.STOPPED), states);
+    }
+
+    @Test
+    public void refusedWritesAreCountedAsFailed() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        sink.setFailing(true);
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setFps(100);
+        engine.load(numbered(5).cursor(), null, false);
+        engine.play();
+        awaitStop(engine);
+
+        assertEquals(0, engine.getFramesSent());
+        assertEquals(5, engine.getFailedFrames());
+        assertThrows(IllegalArgumentException.class, () -> engine.setFps(PlaybackEngine.MAX_FPS + 1));
+    }
+
+    @Test
+    public void failedDeltaRestartsFromAKeyframe() throws Exception {
+        List<Integer> headers = new CopyOnWriteArrayList<>();
+        LoopbackFrameSink sink = new LoopbackFrameSink() {
+            @Override
+            public boolean send(byte[] data, int offset, int length) {
+                headers.add(data[offset] & 0xFF);
+                // a busy board skips the third message
+                return headers.size() != 3 && super.send(data, offset, length);
+            }
+        };
+        sink.open();
+        PlaybackEngine engine = new PlaybackEngine(sink);
+        engine.setFps(100);
+        engine.setDeltaKeyframeInterval(100);
+        engine.load(numbered(6).cursor(), null, false);
+        engine.play();
+        awaitStop(engine);
+
+        int keyframe = DeltaFrameEncoder.KEYFRAME;
+        int delta = DeltaFrameEncoder.DELTA;
+        assertEquals(List.of(keyframe, delta, delta, keyframe, delta, delta), headers);
+        assertEquals(5, engine.getFramesSent());
+        assertEquals(1, engine.getFailedFrames());
+    }
+
+    private static FrameSequence numbered(int frames) {
+        FrameSequence sequence = new FrameSequence();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < frames; i++) {
+            frame[0] = (byte) i;
+            sequence.append(frame, 0);
+        }
+        return sequence;
+    }
+
+    private static void awaitMessages(LoopbackFrameSink sink, long messages) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sink.getMessageCount() < messages && System.nanoTime() < deadline) {
+            Thread.sleep(2);
+        }
+        assertTrue(sink.getMessageCount() >= messages, "messages " + sink.getMessageCount());
+    }
+
+    private static void awaitStop(PlaybackEngine engine) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.getState() != PlaybackEngine.State.STOPPED && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(PlaybackEngine.State.STOPPED, engine.getState());
+    }
+}
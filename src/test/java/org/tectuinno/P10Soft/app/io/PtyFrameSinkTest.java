@@ -0,0 +1,79 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Pseudo-terminal pair; skipped where {@code socat} is not installed.
+ */
+public class PtyFrameSinkTest {
+
+    private static final int BAUD_RATE = 9600;
+    private static final int FRAMES = 10;
+
+    private static boolean socatAvailable() {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        for (String directory : path.split(File.pathSeparator)) {
+            if (new File(directory, "socat").canExecute()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void deviceEndReceivesFramesAtTheBaudRate() throws Exception {
+        assumeTrue(socatAvailable(), "socat no está instalado");
+
+        PtyFrameSink sink = new PtyFrameSink(BAUD_RATE);
+        try {
+            assertTrue(sink.open());
+            byte[] frames = new byte[FRAMES * FrameConverter.RAM_FRAME_SIZE];
+            new Random(2L).nextBytes(frames);
+
+            AtomicReference<byte[]> received = new AtomicReference<>();
+            try (InputStream device = new FileInputStream(sink.getDevicePath().toFile())) {
+                Thread reader = new Thread(() -> {
+                    try {
+                        received.set(device.readNBytes(frames.length));
+                    } catch (Exception e) {
+                        received.set(new byte[0]);
+                    }
+                }, "pty-reader");
+                reader.setDaemon(true);
+                reader.start();
+
+                long start = System.nanoTime();
+                for (int i = 0; i < FRAMES; i++) {
+                    assertTrue(sink.sendFrame(frames, i * FrameConverter.RAM_FRAME_SIZE));
+                }
+                long elapsed = System.nanoTime() - start;
+                reader.join(5000);
+
+                // 10 bits per byte on the emulated wire
+                long expected = TimeUnit.SECONDS.toNanos(1) * 10 * frames.length / BAUD_RATE;
+                assertTrue(elapsed >= expected * 9 / 10, "elapsed " + elapsed + " ns, expected " + expected);
+                assertArrayEquals(frames, received.get());
+            }
+        } finally {
+            sink.close();
+        }
+        assertFalse(sink.isOpen());
+    }
+
+}
@@ -0,0 +1,211 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Reconnect, backoff and resend of a session over a fake port.
+ */
+public class SerialSessionTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Port that records writes and can refuse opens or lose the link. Like
+     * jSerialComm, closing the port joins the event thread of a pending
+     * disconnect.
+     */
+    private static final class FakeTransmitter extends SerialTransmitter {
+
+        private static final long serialVersionUID = 1L;
+
+        final List<Long> openTimes = new ArrayList<>();
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        volatile int openFailures;
+        volatile boolean open;
+        volatile Runnable disconnectListener;
+        volatile boolean disconnectOnClose;
+        volatile boolean eventThreadStuck;
+
+        @Override
+        public synchronized boolean openPort(String portName) {
+            openTimes.add(System.nanoTime());
+            if (openFailures > 0) {
+                openFailures--;
+                return false;
+            }
+            open = true;
+            return true;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public synchronized int write(byte[] data, int offset, int length) {
+            if (!open) {
+                return 0;
+            }
+            written.write(data, offset, length);
+            return length;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return -1;
+        }
+
+        @Override
+        public boolean setDisconnectListener(Runnable listener) {
+            disconnectListener = listener;
+            return true;
+        }
+
+        @Override
+        public void closePort() {
+            if (disconnectOnClose) {
+                disconnectOnClose = false;
+                Thread event = unplug();
+                try {
+                    event.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                eventThreadStuck = event.isAlive();
+            }
+            open = false;
+        }
+
+        /** Drops the link and reports it from an event thread */
+        Thread unplug() {
+            open = false;
+            Thread event = new Thread(disconnectListener, "fake-serial-event");
+            event.setDaemon(true);
+            event.start();
+            return event;
+        }
+
+        synchronized int opens() {
+            return openTimes.size();
+        }
+
+        synchronized byte[] lastWrite(int length) {
+            byte[] all = written.toByteArray();
+            return Arrays.copyOfRange(all, all.length - length, all.length);
+        }
+    }
+
+    private static void awaitConnections(SerialSession session, int connections) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while ((session.getConnectionCount() < connections || !session.isConnected())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(connections, session.getConnectionCount());
+        assertTrue(session.isConnected());
+    }
+
+    private static byte[] frame(int seed) {
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        Arrays.fill(frame, (byte) seed);
+        return frame;
+    }
+
+    @Test
+    public void reconnectsAfterUnplugAndResendsTheLastFrame() throws Exception {
+        FakeTransmitter port = new FakeTransmitter();
+        SerialSession session = new SerialSession("FAKE", port);
+        List<SerialSession.State> states = new ArrayList<>();
+        session.setStateListener((s, state) -> {
+            synchronized (states) {
+                states.add(state);
+            }
+        });
+
+        assertTrue(session.open());
+        assertTrue(session.sendFrame(frame(7), 0));
+
+        port.unplug().join(TIMEOUT_MILLIS);
+        awaitConnections(session, 2);
+
+        assertArrayEquals(frame(7), port.lastWrite(FrameConverter.RAM_FRAME_SIZE));
+        assertEquals(2 * FrameConverter.RAM_FRAME_SIZE, port.written.size());
+        synchronized (states) {
+            assertEquals(List.of(SerialSession.State.CONNECTED, SerialSession.State.RECONNECTING,
+                    SerialSession.State.CONNECTED), states);
+        }
+        session.close();
+    }
+
+    @Test
+    public void failedWriteReconnectsWithoutResendingMessages() throws Exception {
+        FakeTransmitter port = new FakeTransmitter();
+        SerialSession session = new SerialSession("FAKE", port);
+        assertTrue(session.open());
+
+        port.open = false;
+        byte[] message = { 1, 2, 3 };
+        assertFalse(session.send(message, 0, message.length));
+        assertFalse(session.isConnected());
+        awaitConnections(session, 2);
+
+        // a partial message can't be replayed on its own
+        assertEquals(0, port.written.size());
+        session.close();
+    }
+
+    @Test
+    public void backoffDoublesBetweenAttempts() throws Exception {
+        FakeTransmitter port = new FakeTransmitter();
+        port.openFailures = 3;
+        SerialSession session = new SerialSession("FAKE", port);
+
+        assertFalse(session.open());
+        assertEquals(SerialSession.State.RECONNECTING, session.getState());
+        awaitConnections(session, 1);
+
+        List<Long> times;
+        synchronized (port) {
+            times = new ArrayList<>(port.openTimes);
+        }
+        assertEquals(4, times.size());
+        long expected = SerialSession.MIN_BACKOFF_MILLIS;
+        for (int i = 1; i < times.size(); i++) {
+            long gap = TimeUnit.NANOSECONDS.toMillis(times.get(i) - times.get(i - 1));
+            assertTrue(gap >= expected * 9 / 10, "attempt " + i + " after " + gap + " ms");
+            expected = Math.min(expected * 2, SerialSession.MAX_BACKOFF_MILLIS);
+        }
+        session.close();
+    }
+
+    @Test
+    public void closeDoesNotWaitForTheDisconnectEvent() throws Exception {
+        FakeTransmitter port = new FakeTransmitter();
+        SerialSession session = new SerialSession("FAKE", port);
+        assertTrue(session.open());
+
+        // the driver reports the unplug while the session closes the port
+        port.disconnectOnClose = true;
+        session.close();
+
+        assertFalse(port.eventThreadStuck, "event thread blocked by the session lock");
+        assertEquals(SerialSession.State.CLOSED, session.getState());
+        Thread.sleep(3 * SerialSession.MIN_BACKOFF_MILLIS);
+        assertEquals(1, port.opens());
+        assertFalse(session.sendFrame(frame(1), 0));
+    }
+
+}
@@ -0,0 +1,186 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.BitFrame;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
+import org.tectuinno.P10Soft.app.core.PanelOrientation;
+import org.tectuinno.P10Soft.app.core.ScanLayout;
+
+/**
+ * Binary send path of the serial transmitter, over a port that records what
+ * reaches it.
+ */
+public class SerialTransmitterTest {
+
+    /** Open port that keeps every write and can accept only part of them */
+    private static final class RecordingTransmitter extends SerialTransmitter {
+
+        private static final long serialVersionUID = 1L;
+
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        final List<Integer> writes = new ArrayList<>();
+        byte[] lastArray;
+        int lastOffset;
+        int limit = Integer.MAX_VALUE;
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        int writePort(byte[] data, int offset, int length) {
+            if (writes.isEmpty()) {
+                lastArray = data;
+                lastOffset = offset;
+            }
+            writes.add(length);
+            int accepted = Math.min(length, limit - written.size());
+            written.write(data, offset, accepted);
+            return accepted;
+        }
+    }
+
+    private static BitFrame randomFrame(long seed) {
+        Random random = new Random(seed);
+        BitFrame frame = new BitFrame();
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            frame.setRow(row, random.nextInt());
+        }
+        return frame;
+    }
+
+    @Test
+    public void sendWritesTheCallersArrayInPlace() {
+        RecordingTransmitter port = new RecordingTransmitter();
+        byte[] data = new byte[100];
+        new Random(1L).nextBytes(data);
+
+        assertTrue(port.send(data, 10, 64));
+
+        assertSame(data, port.lastArray);
+        assertEquals(10, port.lastOffset);
+        assertArrayEquals(Arrays.copyOfRange(data, 10, 74), port.written.toByteArray());
+    }
+
+    @Test
+    public void sendFrameEncodesIntoTheReusedFrameBuffer() {
+        RecordingTransmitter port = new RecordingTransmitter();
+        BitFrame frame = randomFrame(3L);
+        byte[] expected = new byte[FrameConverter.RAM_FRAME_SIZE];
+        FrameConverter.encodeRamFrame(frame, expected, 0);
+
+        assertTrue(port.sendFrame(frame));
+
+        assertSame(port.getFrameBuffer(), port.lastArray);
+        assertArrayEquals(expected, port.written.toByteArray());
+    }
+
+    @Test
+    public void sendFrameUsesTheGivenMapping() {
+        RecordingTransmitter port = new RecordingTransmitter();
+        BitFrame frame = randomFrame(4L);
+        PanelMapping mapping = PanelMapping.of(ScanLayout.QUARTER, PanelOrientation.ROTATE_180);
+        byte[] expected = new byte[FrameConverter.RAM_FRAME_SIZE];
+        mapping.encode(frame, expected, 0);
+
+        assertTrue(port.sendFrame(frame, mapping));
+
+        assertSame(port.getFrameBuffer(), port.lastArray);
+        assertArrayEquals(expected, port.written.toByteArray());
+    }
+
+    @Test
+    public void byteBuffersAdvanceByTheBytesWritten() {
+        RecordingTransmitter port = new RecordingTransmitter();
+        byte[] data = new byte[FrameConverter.RAM_FRAME_SIZE];
+        new Random(5L).nextBytes(data);
+
+        ByteBuffer heap = ByteBuffer.wrap(data);
+        heap.position(4);
+        assertTrue(port.send(heap));
+        assertSame(data, port.lastArray);
+        assertEquals(4, port.lastOffset);
+        assertEquals(data.length, heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        port.limit = 60 + 40;
+        assertFalse(port.send(direct));
+        assertEquals(40, direct.position());
+
+        byte[] expected = new byte[60 + 40];
+        System.arraycopy(data, 4, expected, 0, 60);
+        System.arraycopy(data, 0, expected, 60, 40);
+        assertArrayEquals(expected, port.written.toByteArray());
+    }
+
+    @Test
+    public void longWritesAreSplitToFitTheTimeout() {
+        RecordingTransmitter port = new RecordingTransmitter();
+        port.setWriteTimeout(100);
+        int chunk = port.getWriteChunkSize();
+        // 10 bits per byte, half of the timeout
+        assertEquals(SerialTransmitter.BAUD_RATE / 10 / 10 / 2, chunk);
+
+        byte[] wall = new byte[16 * 16 * FrameConverter.RAM_FRAME_SIZE];
+        new Random(6L).nextBytes(wall);
+        assertTrue(port.send(wall, 0, wall.length));
+
+        assertArrayEquals(wall, port.written.toByteArray());
+        int full = wall.length / chunk;
+        assertEquals(full + 1, port.writes.size());
+        for (int i = 0; i < full; i++) {
+            assertEquals(chunk, port.writes.get(i));
+        }
+        assertEquals(wall.length % chunk, port.writes.get(full));
+    }
+
+    @Test
+    public void timedOutChunkEndsTheWrite() {
+        RecordingTransmitter port = new RecordingTransmitter();
+        int chunk = port.getWriteChunkSize();
+        byte[] data = new byte[3 * chunk];
+        port.limit = chunk + 10;
+
+        assertEquals(chunk + 10, port.write(data, 0, data.length));
+        assertEquals(List.of(chunk, chunk), port.writes);
+    }
+
+    @Test
+    public void hexFramesAreParsedToBytes() {
+        RecordingTransmitter port = new RecordingTransmitter();
+
+        assertTrue(port.sendHexFrame("00ff7a"));
+        assertArrayEquals(new byte[] { 0, (byte) 0xFF, 0x7A }, port.written.toByteArray());
+        assertFalse(port.sendHexFrame("0g"));
+        assertFalse(port.sendHexFrame("abc"));
+    }
+
+    @Test
+    public void closedPortWritesNothing() {
+        SerialTransmitter port = new SerialTransmitter();
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+        assertFalse(port.isOpen());
+        assertEquals(0, port.write(frame, 0, frame.length));
+        assertFalse(port.send(frame, 0, frame.length));
+        assertFalse(port.sendFrame(new BitFrame()));
+        assertFalse(port.send(ByteBuffer.wrap(frame)));
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Byte stream written to a temporary file.
+ */
+public class StreamFrameSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void fileHoldsExactlyWhatWasSent() throws Exception {
+        Path file = directory.resolve("board.bin");
+        Random random = new Random(12L);
+        byte[] frames = new byte[3 * FrameConverter.RAM_FRAME_SIZE];
+        random.nextBytes(frames);
+        byte[] delta = { 0x55, 1, 2, 3 };
+
+        StreamFrameSink sink = new StreamFrameSink(file);
+        assertFalse(sink.isOpen());
+        assertTrue(sink.open());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sink.sendFrame(frames, i * FrameConverter.RAM_FRAME_SIZE));
+        }
+        assertTrue(sink.send(delta, 0, delta.length));
+
+        // every message is flushed, a reader sees it before close
+        assertEquals(frames.length + delta.length, Files.size(file));
+        sink.close();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(frames);
+        expected.write(delta);
+        assertArrayEquals(expected.toByteArray(), Files.readAllBytes(file));
+        assertFalse(sink.send(delta, 0, delta.length));
+    }
+
+    @Test
+    public void reopeningTruncatesTheFile() throws Exception {
+        Path file = directory.resolve("board.bin");
+        Files.write(file, new byte[500]);
+
+        StreamFrameSink sink = new StreamFrameSink(file);
+        assertTrue(sink.open());
+        assertTrue(sink.sendFrame(new byte[FrameConverter.RAM_FRAME_SIZE], 0));
+        sink.close();
+
+        assertEquals(FrameConverter.RAM_FRAME_SIZE, Files.size(file));
+    }
+
+    @Test
+    public void missingDirectoryFailsToOpen() {
+        StreamFrameSink sink = new StreamFrameSink(directory.resolve("missing").resolve("board.bin"));
+
+        assertFalse(sink.open());
+        assertFalse(sink.isOpen());
+        assertFalse(sink.sendFrame(new byte[FrameConverter.RAM_FRAME_SIZE], 0));
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+
+/**
+ * Fans frames out to loopback boards.
+ */
+public class TransmitterGroupTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    public void eachBoardGetsItsOwnFrame() {
+        List<LoopbackFrameSink> sinks = Arrays.asList(new LoopbackFrameSink(), new LoopbackFrameSink(),
+                new LoopbackFrameSink());
+        byte[] frames = new byte[3 * FrameConverter.RAM_FRAME_SIZE];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = (byte) (i / FrameConverter.RAM_FRAME_SIZE + 1);
+        }
+
+        try (TransmitterGroup group = new TransmitterGroup(sinks)) {
+            for (int tick = 0; tick < 100; tick++) {
+                assertEquals(3, group.send(frames, 0, FrameConverter.RAM_FRAME_SIZE, TIMEOUT));
+            }
+        }
+
+        for (int i = 0; i < 3; i++) {
+            byte[] received = sinks.get(i).toByteArray();
+            assertEquals(100 * FrameConverter.RAM_FRAME_SIZE, received.length);
+            byte[] expected = new byte[received.length];
+            Arrays.fill(expected, (byte) (i + 1));
+            assertArrayEquals(expected, received);
+        }
+    }
+
+    @Test
+    public void failingBoardDoesNotHoldBackTheOthers() {
+        LoopbackFrameSink broken = new LoopbackFrameSink();
+        List<LoopbackFrameSink> sinks = Arrays.asList(new LoopbackFrameSink(), broken, new LoopbackFrameSink());
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+        try (TransmitterGroup group = new TransmitterGroup(sinks)) {
+            broken.setFailing(true);
+            for (int tick = 0; tick < 10; tick++) {
+                assertEquals(2, group.send(frame, 0, frame.length, 0, TIMEOUT));
+            }
+            assertEquals(10, group.getFramesWritten(0));
+            assertEquals(10, group.getFailedFrames(1));
+            assertEquals(10, group.getFramesWritten(2));
+        }
+    }
+
+    @Test
+    public void sendReportsFailureWhenAnyBoardFails() {
+        List<LoopbackFrameSink> sinks = Arrays.asList(new LoopbackFrameSink(), new LoopbackFrameSink());
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+
+        try (TransmitterGroup group = new TransmitterGroup(sinks)) {
+            group.setTimeoutNanos(TIMEOUT);
+            assertTrue(group.send(frame, 0, frame.length));
+
+            sinks.get(1).setFailing(true);
+            assertFalse(group.send(frame, 0, frame.length));
+
+            sinks.get(0).setFailing(true);
+            assertEquals(0, group.send(frame, 0, frame.length, 0, TIMEOUT));
+            assertFalse(group.send(frame, 0, frame.length));
+            assertFalse(group.sendFrame(frame, 0));
+        }
+    }
+
+    @Test
+    public void busyBoardSkipsTheNextFrame() {
+        // 64 bytes take about half a second at 1200 baud
+        LoopbackFrameSink slow = new LoopbackFrameSink(1200);
+        List<LoopbackFrameSink> sinks = Arrays.asList(new LoopbackFrameSink(), slow);
+        byte[] frame = new byte[FrameConverter.RAM_FRAME_SIZE];
+        long shortTimeout = TimeUnit.MILLISECONDS.toNanos(50);
+
+        try (TransmitterGroup group = new TransmitterGroup(sinks)) {
+            assertEquals(1, group.send(frame, 0, frame.length, 0, shortTimeout));
+            assertEquals(1, group.send(frame, 0, frame.length, 0, shortTimeout));
+
+            assertEquals(1, group.getSkippedFrames(1));
+            assertEquals(0, group.getSkippedFrames(0));
+            assertEquals(2, group.getFramesWritten(0));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.tectuinno.P10Soft.app.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.tectuinno.P10Soft.app.core.BitFrame;
+import org.tectuinno.P10Soft.app.core.FrameConverter;
+import org.tectuinno.P10Soft.app.core.PanelMapping;
+import org.tectuinno.P10Soft.app.core.PanelWall;
+
+/**
+ * Sends datagrams to the ingest server over the loopback interface.
+ */
+public class UdpFrameIngestServerTest {
+
+    private static final InetSocketAddress ANY_PORT = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Test
+    public void encodesPackedModuleFrames() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        BitFrame frame = randomFrame(new Random(9));
+
+        try (UdpFrameIngestServer server = new UdpFrameIngestServer(sink, new PanelWall(1, 1), ANY_PORT);
+                DatagramSocket socket = new DatagramSocket()) {
+            server.start();
+            send(socket, server, packed(frame));
+            send(socket, server, new byte[10]);
+            await(() -> server.getRejectedDatagrams() == 1 && sink.getMessageCount() == 1);
+        }
+
+        byte[] expected = new byte[FrameConverter.RAM_FRAME_SIZE];
+        PanelMapping.DEFAULT.encode(frame, expected, 0);
+        assertArrayEquals(expected, sink.toByteArray());
+    }
+
+    @Test
+    public void encodesWallPayloads() throws Exception {
+        LoopbackFrameSink sink = new LoopbackFrameSink();
+        sink.open();
+        PanelWall expectedWall = new PanelWall(2, 1);
+        Random random = new Random(10);
+        ByteBuffer payload = ByteBuffer.allocate(UdpFrameIngestServer.HEADER_SIZE + expectedWall.getEncodedSize());
+        payload.put((byte) 'P').put((byte) 'W').put((byte) 2).put((byte) 1);
+        for (int y = 0; y < expectedWall.getHeight(); y++) {
+            for (int moduleX = 0; moduleX < 2; moduleX++) {
+                int word = random.nextInt();
+                expectedWall.setWord(moduleX, y, word);
+                payload.putInt(word);
+            }
+        }
+
+        try (UdpFrameIngestServer server = new UdpFrameIngestServer(sink, new PanelWall(2, 1), ANY_PORT);
+                DatagramSocket socket = new DatagramSocket()) {
+            server.start();
+            send(socket, server, payload.array());
+            await(() -> sink.getMessageCount() == 1);
+        }
+
+        assertArrayEquals(expectedWall.encode(), sink.toByteArray());
+    }
+
+    @Test
+    public void newestFrameWinsWhileTheLinkIsBusy() throws Exception {
+        // about 67 ms per frame on the emulated link
+        LoopbackFrameSink sink = new LoopbackFrameSink(9600);
+        sink.open();
+        Random random = new Random(11);
+        BitFrame last = null;
+
+        try (UdpFrameIngestServer server = new UdpFrameIngestServer(sink, new PanelWall(1, 1), ANY_PORT);
+                DatagramSocket socket = new DatagramSocket()) {
+            server.start();
+            for (int i = 0; i < 20; i++) {
+                last = randomFrame(random);
+                send(socket, server, packed(last));
+            }
+            await(() -> server.getDatagramsReceived() == 20);
+            await(() -> server.getFramesSent() + server.getSupersededFrames() == 20);
+            assertTrue(server.getSupersededFrames() > 0);
+        }
+
+        byte[] expected = new byte[FrameConverter.RAM_FRAME_SIZE];
+        PanelMapping.DEFAULT.encode(last, expected, 0);
+        byte[] recorded = sink.toByteArray();
+        assertArrayEquals(expected, Arrays.copyOfRange(recorded, recorded.length - expected.length, recorded.length));
+    }
+
+    private static BitFrame randomFrame(Random random) {
+        BitFrame frame = new BitFrame();
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            frame.setRow(row, random.nextInt());
+        }
+        return frame;
+    }
+
+    private static byte[] packed(BitFrame frame) {
+        ByteBuffer buffer = ByteBuffer.allocate(FrameConverter.RAM_FRAME_SIZE);
+        for (int row = 0; row < BitFrame.ROWS; row++) {
+            buffer.putInt(frame.getRow(row));
+        }
+        return buffer.array();
+    }
+
+    private static void send(DatagramSocket socket, UdpFrameIngestServer server, byte[] data) throws Exception {
+        socket.send(new DatagramPacket(data, data.length, server.getLocalAddress()));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}